@@ -35,6 +35,7 @@ android {
 }
 
 dependencies {
+    implementation(project(":engine"))
     implementation(libs.appcompat)
     implementation(libs.material)
     implementation(libs.constraintlayout)
@@ -43,7 +44,6 @@ dependencies {
     implementation(libs.google.material)
     implementation(libs.support.annotations)
     implementation(libs.activity)
-    implementation(libs.gson)
     testImplementation(libs.junit)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
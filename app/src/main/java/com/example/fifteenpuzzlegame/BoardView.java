@@ -0,0 +1,518 @@
+package com.example.fifteenpuzzlegame;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.util.AttributeSet;
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Draws the whole puzzle board in a single view.
+ * <p>
+ * Tiles are painted directly on the canvas with paints created once and labels built once per board
+ * size, so showing a move allocates nothing. The view keeps a copy of the tiles it shows. A
+ * {@link MoveEvent} is applied to that copy directly and only the slid line is redrawn; a board shown
+ * as a whole is compared with it and only the rectangle around the cells that changed is invalidated.
+ * Drawing skips every cell outside the canvas clip. Taps are hit-tested here and reported as a row
+ * and column.
+ * <p>
+ * Moves slide into place over a few frames driven by {@link Choreographer} callbacks. The game
+ * applies every tap at once, so moves made while a slide is running wait in a fixed queue of pooled
+ * event copies and play in order, each one faster the longer the queue; nothing is allocated per
+ * frame. The interval of every animation frame is recorded in {@link FrameStats}.
+ */
+public class BoardView extends View {
+
+    /**
+     * Receives taps on board cells.
+     */
+    public interface OnTileClickListener {
+        /**
+         * Called when a cell is tapped, whether or not it holds a tile that can move.
+         *
+         * @param row The row of the tapped cell.
+         * @param col The column of the tapped cell.
+         */
+        void onTileClick(int row, int col);
+    }
+
+    /** Fraction of the cell size used for the tile numbers. */
+    private static final float TEXT_SIZE_RATIO = 0.4f;
+    /** Duration of a slide when no other move is waiting. */
+    private static final long SLIDE_DURATION_NANOS = 120_000_000L;
+    /** Moves that can wait behind the running slide; beyond that the board jumps to the latest state. */
+    private static final int MAX_PENDING_SLIDES = 16;
+
+    private final Paint tilePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint emptyPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint hintPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint tileBorderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint emptyBorderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint hintBorderPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Rect clipBounds = new Rect();
+
+    private final float tileGap;
+    private final float cornerRadius;
+    private final float strokeWidth;
+
+    private int rows;
+    private int columns;
+    private int[] tiles = new int[0];
+    private String[] labels = new String[0];
+    private int highlightedCell = -1;
+
+    // Geometry, recomputed when the size or the board dimensions change
+    private float cellSize;
+    private float boardLeft;
+    private float boardTop;
+    private float textBaselineOffset;
+
+    private OnTileClickListener onTileClickListener;
+    private int touchDownCell = -1;
+
+    // The running slide, whose move is already applied to the tiles, and the moves queued behind it
+    private final Choreographer.FrameCallback frameCallback = this::onAnimationFrame;
+    private final MoveEvent[] pendingSlides = new MoveEvent[MAX_PENDING_SLIDES];
+    private final FrameStats frameStats = new FrameStats();
+    private int pendingHead;
+    private int pendingCount;
+    private MoveEvent slide;
+    private long slideStartNanos;
+    private long slideDurationNanos;
+    private float slideOffset;
+    private int slideFromRow;
+    private int slideFromCol;
+    private int slideToRow;
+    private int slideToCol;
+
+    /**
+     * Constructor to initialize a BoardView from code.
+     *
+     * @param context The context the view runs in.
+     */
+    public BoardView(Context context) {
+        this(context, null);
+    }
+
+    /**
+     * Constructor to initialize a BoardView inflated from XML.
+     *
+     * @param context The context the view runs in.
+     * @param attrs   The XML attributes of the view.
+     */
+    public BoardView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        tileGap = getResources().getDimension(R.dimen.board_tile_gap);
+        cornerRadius = getResources().getDimension(R.dimen.board_tile_corner_radius);
+        strokeWidth = getResources().getDimension(R.dimen.board_tile_stroke_width);
+
+        tilePaint.setColor(context.getColor(R.color.tile_normal_color));
+        emptyPaint.setColor(context.getColor(R.color.tile_empty_color));
+        hintPaint.setColor(context.getColor(R.color.tile_hint_color));
+        initBorderPaint(tileBorderPaint, context.getColor(R.color.tile_normal_border_color));
+        initBorderPaint(emptyBorderPaint, context.getColor(R.color.tile_empty_border_color));
+        initBorderPaint(hintBorderPaint, context.getColor(R.color.tile_hint_border_color));
+        textPaint.setColor(context.getColor(R.color.tile_text_color));
+        textPaint.setTextAlign(Paint.Align.CENTER);
+        textPaint.setFakeBoldText(true);
+    }
+
+    private void initBorderPaint(Paint paint, int color) {
+        paint.setColor(color);
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(strokeWidth);
+    }
+
+    /**
+     * Sets the listener for taps on board cells.
+     *
+     * @param listener The listener, or null to ignore taps.
+     */
+    public void setOnTileClickListener(OnTileClickListener listener) {
+        this.onTileClickListener = listener;
+    }
+
+    /**
+     * Shows a board. Only the cells that differ from the board shown before are redrawn, and any
+     * highlighted cell is cleared.
+     *
+     * @param board The board to show; it is copied, so it may change afterwards.
+     */
+    public void showBoard(PuzzleBoard board) {
+        finishSlides();
+        if (board.getRows() != rows || board.getColumns() != columns) {
+            setBoardSize(board.getRows(), board.getColumns());
+        }
+        int minRow = rows;
+        int maxRow = -1;
+        int minCol = columns;
+        int maxCol = -1;
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < columns; col++) {
+                int cell = row * columns + col;
+                int tile = board.getTileValue(row, col);
+                if (tiles[cell] != tile || cell == highlightedCell) {
+                    tiles[cell] = tile;
+                    minRow = Math.min(minRow, row);
+                    maxRow = Math.max(maxRow, row);
+                    minCol = Math.min(minCol, col);
+                    maxCol = Math.max(maxCol, col);
+                }
+            }
+        }
+        highlightedCell = -1;
+        if (maxRow >= 0) {
+            invalidateCells(minRow, minCol, maxRow, maxCol);
+        }
+    }
+
+    /**
+     * Applies a move to the board shown, without reading the board, and slides the moved tiles into
+     * place. Any highlighted cell is cleared.
+     *
+     * @param event The move made on the board this view shows; it is copied, so it may be recycled afterwards.
+     */
+    public void applyMove(MoveEvent event) {
+        setHighlightedCell(-1);
+        if (!isAttachedToWindow() || cellSize <= 0) {
+            shiftTiles(event);
+            return;
+        }
+        if (pendingCount == MAX_PENDING_SLIDES) {
+            finishSlides();
+        }
+        MoveEvent copy = MoveEvent.obtain(event);
+        if (slide == null) {
+            frameStats.startRun();
+            startSlide(copy, -1);
+        } else {
+            pendingSlides[(pendingHead + pendingCount) % MAX_PENDING_SLIDES] = copy;
+            pendingCount++;
+        }
+    }
+
+    /**
+     * Retrieves the frame statistics of the slide animations since the board size last changed.
+     *
+     * @return The statistics, updated in place as frames are drawn.
+     */
+    public FrameStats getFrameStats() {
+        return frameStats;
+    }
+
+    /**
+     * Shifts the tiles along the slid line one cell towards the old empty cell and schedules the line for redrawing.
+     */
+    private void shiftTiles(MoveEvent event) {
+        int step = event.getStep();
+        int cell = event.getPreviousEmptyIndex();
+        for (int i = 0; i < event.getLength(); i++, cell += step) {
+            tiles[cell] = tiles[cell + step];
+        }
+        tiles[cell] = 0;
+        int first = Math.min(event.getPreviousEmptyIndex(), cell);
+        int last = Math.max(event.getPreviousEmptyIndex(), cell);
+        invalidateCells(first / columns, first % columns, last / columns, last % columns);
+    }
+
+    /**
+     * Applies a move to the tiles and starts sliding them from their old cells.
+     *
+     * @param event      The move, which the view now owns.
+     * @param startNanos The frame time the slide starts at, or -1 to start on the next frame.
+     */
+    private void startSlide(MoveEvent event, long startNanos) {
+        shiftTiles(event);
+        int first = Math.min(event.getPreviousEmptyIndex(), event.getEmptyIndex());
+        int last = Math.max(event.getPreviousEmptyIndex(), event.getEmptyIndex());
+        slide = event;
+        slideFromRow = first / columns;
+        slideFromCol = first % columns;
+        slideToRow = last / columns;
+        slideToCol = last % columns;
+        slideStartNanos = startNanos;
+        slideDurationNanos = SLIDE_DURATION_NANOS / (pendingCount + 1);
+        slideOffset = 1f;
+        Choreographer.getInstance().postFrameCallback(frameCallback);
+    }
+
+    /**
+     * Advances the running slide to the frame time and redraws its line; at the end, starts the next queued move.
+     *
+     * @param frameTimeNanos The vsync time of the frame.
+     */
+    private void onAnimationFrame(long frameTimeNanos) {
+        frameStats.onFrame(frameTimeNanos);
+        if (slideStartNanos < 0) {
+            slideStartNanos = frameTimeNanos;
+        }
+        float fraction = Math.min(1f, (frameTimeNanos - slideStartNanos) / (float) slideDurationNanos);
+        // Decelerate: the remaining distance shrinks quadratically
+        slideOffset = (1f - fraction) * (1f - fraction);
+        invalidate((int) (boardLeft + slideFromCol * cellSize), (int) (boardTop + slideFromRow * cellSize),
+                (int) Math.ceil(boardLeft + (slideToCol + 1) * cellSize), (int) Math.ceil(boardTop + (slideToRow + 1) * cellSize));
+        if (fraction < 1f) {
+            Choreographer.getInstance().postFrameCallback(frameCallback);
+            return;
+        }
+        slide.recycle();
+        slide = null;
+        if (pendingCount > 0) {
+            MoveEvent next = pendingSlides[pendingHead];
+            pendingSlides[pendingHead] = null;
+            pendingHead = (pendingHead + 1) % MAX_PENDING_SLIDES;
+            pendingCount--;
+            startSlide(next, frameTimeNanos);
+        }
+    }
+
+    /**
+     * Ends the running slide and applies all queued moves at once.
+     */
+    private void finishSlides() {
+        if (slide == null) {
+            return;
+        }
+        Choreographer.getInstance().removeFrameCallback(frameCallback);
+        slide.recycle();
+        slide = null;
+        while (pendingCount > 0) {
+            MoveEvent next = pendingSlides[pendingHead];
+            pendingSlides[pendingHead] = null;
+            pendingHead = (pendingHead + 1) % MAX_PENDING_SLIDES;
+            pendingCount--;
+            shiftTiles(next);
+            next.recycle();
+        }
+        invalidate();
+    }
+
+    /**
+     * Highlights a cell, e.g. the tile suggested by a hint, until the next board is shown.
+     *
+     * @param cell The row-major index of the cell, or -1 for none.
+     */
+    public void setHighlightedCell(int cell) {
+        if (cell == highlightedCell) {
+            return;
+        }
+        int previous = highlightedCell;
+        highlightedCell = cell;
+        if (previous >= 0) {
+            invalidateCells(previous / columns, previous % columns, previous / columns, previous % columns);
+        }
+        if (cell >= 0) {
+            invalidateCells(cell / columns, cell % columns, cell / columns, cell % columns);
+        }
+    }
+
+    /**
+     * Resizes the board and builds the labels of its tiles, which are reused for every frame.
+     */
+    private void setBoardSize(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+        tiles = new int[rows * columns];
+        labels = new String[rows * columns];
+        for (int i = 1; i < labels.length; i++) {
+            labels[i] = Integer.toString(i);
+        }
+        highlightedCell = -1;
+        frameStats.reset();
+        updateGeometry();
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Schedules a redraw of a block of cells for the next frame.
+     */
+    private void invalidateCells(int fromRow, int fromCol, int toRow, int toCol) {
+        int left = (int) (boardLeft + fromCol * cellSize);
+        int top = (int) (boardTop + fromRow * cellSize);
+        int right = (int) Math.ceil(boardLeft + (toCol + 1) * cellSize);
+        int bottom = (int) Math.ceil(boardTop + (toRow + 1) * cellSize);
+        postInvalidateOnAnimation(left, top, right, bottom);
+    }
+
+    /**
+     * Measures dropped frames against the refresh rate of the display the view is shown on.
+     */
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        Display display = getDisplay();
+        if (display != null) {
+            frameStats.setRefreshRate(display.getRefreshRate());
+        }
+    }
+
+    /**
+     * Stops animating; the queued moves are applied at once.
+     */
+    @Override
+    protected void onDetachedFromWindow() {
+        finishSlides();
+        super.onDetachedFromWindow();
+    }
+
+    /**
+     * Measures the view as large as allowed while keeping the cells square.
+     */
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int width = MeasureSpec.getSize(widthMeasureSpec);
+        int height = MeasureSpec.getSize(heightMeasureSpec);
+        if (rows > 0 && MeasureSpec.getMode(widthMeasureSpec) != MeasureSpec.EXACTLY
+                && MeasureSpec.getMode(heightMeasureSpec) != MeasureSpec.EXACTLY) {
+            int size = Math.min(width / columns, height / rows);
+            width = size * columns;
+            height = size * rows;
+        }
+        setMeasuredDimension(width, height);
+    }
+
+    /**
+     * Recomputes the cell size and text metrics for the new view size.
+     */
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        updateGeometry();
+    }
+
+    private void updateGeometry() {
+        if (rows == 0 || getWidth() == 0 || getHeight() == 0) {
+            return;
+        }
+        int width = getWidth() - getPaddingLeft() - getPaddingRight();
+        int height = getHeight() - getPaddingTop() - getPaddingBottom();
+        cellSize = Math.min((float) width / columns, (float) height / rows);
+        boardLeft = getPaddingLeft() + (width - cellSize * columns) / 2;
+        boardTop = getPaddingTop() + (height - cellSize * rows) / 2;
+        textPaint.setTextSize(cellSize * TEXT_SIZE_RATIO);
+        Paint.FontMetrics metrics = textPaint.getFontMetrics();
+        textBaselineOffset = -(metrics.ascent + metrics.descent) / 2;
+    }
+
+    /**
+     * Draws the cells that intersect the clip; with a dirty rectangle that is just the moved tiles. During a
+     * slide the cells of its line are drawn empty and the moving tiles on top, offset towards their old cells.
+     */
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        if (rows == 0 || cellSize <= 0) {
+            return;
+        }
+        canvas.getClipBounds(clipBounds);
+        int fromRow = Math.max(0, (int) ((clipBounds.top - boardTop) / cellSize));
+        int toRow = Math.min(rows - 1, (int) ((clipBounds.bottom - boardTop) / cellSize));
+        int fromCol = Math.max(0, (int) ((clipBounds.left - boardLeft) / cellSize));
+        int toCol = Math.min(columns - 1, (int) ((clipBounds.right - boardLeft) / cellSize));
+        for (int row = fromRow; row <= toRow; row++) {
+            float top = boardTop + row * cellSize;
+            for (int col = fromCol; col <= toCol; col++) {
+                float left = boardLeft + col * cellSize;
+                int cell = row * columns + col;
+                if (slide != null && row >= slideFromRow && row <= slideToRow && col >= slideFromCol && col <= slideToCol) {
+                    drawCell(canvas, left, top, cell, 0);
+                } else {
+                    drawCell(canvas, left, top, cell, tiles[cell]);
+                }
+            }
+        }
+        if (slide != null) {
+            int step = slide.getStep();
+            float dx = slide.isHorizontal() ? Integer.signum(step) * slideOffset * cellSize : 0;
+            float dy = slide.isHorizontal() ? 0 : Integer.signum(step) * slideOffset * cellSize;
+            for (int i = 0; i < slide.getLength(); i++) {
+                int cell = slide.getCell(i);
+                drawCell(canvas, boardLeft + (cell % columns) * cellSize + dx, boardTop + (cell / columns) * cellSize + dy, cell, tiles[cell]);
+            }
+        }
+    }
+
+    /**
+     * Draws one cell with its tile, or empty if the tile is 0.
+     */
+    private void drawCell(Canvas canvas, float left, float top, int cell, int tile) {
+        Paint fill;
+        Paint border;
+        if (cell == highlightedCell) {
+            fill = hintPaint;
+            border = hintBorderPaint;
+        } else if (tile == 0) {
+            fill = emptyPaint;
+            border = emptyBorderPaint;
+        } else {
+            fill = tilePaint;
+            border = tileBorderPaint;
+        }
+        float inset = tileGap / 2 + strokeWidth / 2;
+        float right = left + cellSize - inset;
+        float bottom = top + cellSize - inset;
+        canvas.drawRoundRect(left + inset, top + inset, right, bottom, cornerRadius, cornerRadius, fill);
+        canvas.drawRoundRect(left + inset, top + inset, right, bottom, cornerRadius, cornerRadius, border);
+        if (tile != 0) {
+            canvas.drawText(labels[tile], left + cellSize / 2, top + cellSize / 2 + textBaselineOffset, textPaint);
+        }
+    }
+
+    /**
+     * Hit-tests taps: a tap is reported when the finger goes up on the cell it went down on.
+     */
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                touchDownCell = cellAt(event.getX(), event.getY());
+                return touchDownCell >= 0;
+            case MotionEvent.ACTION_UP:
+                if (touchDownCell >= 0 && touchDownCell == cellAt(event.getX(), event.getY())) {
+                    performClick();
+                    if (onTileClickListener != null) {
+                        onTileClickListener.onTileClick(touchDownCell / columns, touchDownCell % columns);
+                    }
+                }
+                touchDownCell = -1;
+                return true;
+            case MotionEvent.ACTION_CANCEL:
+                touchDownCell = -1;
+                return true;
+            default:
+                return touchDownCell >= 0;
+        }
+    }
+
+    /**
+     * Reports the click for accessibility; the tapped cell is delivered to the tile listener.
+     */
+    @Override
+    public boolean performClick() {
+        return super.performClick();
+    }
+
+    /**
+     * Finds the cell under a point.
+     *
+     * @return The row-major index of the cell, or -1 if the point is outside the board.
+     */
+    private int cellAt(float x, float y) {
+        if (rows == 0 || cellSize <= 0) {
+            return -1;
+        }
+        int col = (int) Math.floor((x - boardLeft) / cellSize);
+        int row = (int) Math.floor((y - boardTop) / cellSize);
+        if (row < 0 || row >= rows || col < 0 || col >= columns) {
+            return -1;
+        }
+        return row * columns + col;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.fifteenpuzzlegame;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Accumulates the frame intervals of an animation, as delivered by the display's vsync, to check
+ * that it keeps up with the refresh rate.
+ * <p>
+ * Every interval goes into a fixed histogram of {@link #BUCKET_NANOS} buckets, so recording a frame
+ * allocates nothing. An interval spanning more than one refresh period counts the periods it skipped
+ * as dropped frames. Recording happens in runs: the first frame of a run has no predecessor and only
+ * starts the clock. Intervals and dropped frames also go to {@link PerfMetrics}, so they show up in the
+ * overlay and the metrics file.
+ */
+public class FrameStats {
+
+    /** Width of a histogram bucket: a quarter millisecond. */
+    private static final long BUCKET_NANOS = 250_000L;
+    /** Number of buckets; longer intervals land in the last one. */
+    private static final int BUCKET_COUNT = 256;
+
+    private final int[] histogram = new int[BUCKET_COUNT];
+
+    private long refreshPeriodNanos = 1_000_000_000L / 60;
+    private long lastFrameNanos = -1;
+    private int frameCount;
+    private int droppedFrames;
+    private long totalNanos;
+    private long maxNanos;
+
+    /**
+     * Sets the refresh rate of the display the animation runs on; dropped frames are measured against it.
+     *
+     * @param refreshRate The refresh rate in frames per second.
+     */
+    public void setRefreshRate(float refreshRate) {
+        if (refreshRate > 0) {
+            refreshPeriodNanos = (long) (1_000_000_000L / refreshRate);
+        }
+    }
+
+    /**
+     * Starts a run of frames; the next frame only sets the starting time.
+     */
+    public void startRun() {
+        lastFrameNanos = -1;
+    }
+
+    /**
+     * Records a frame of the current run.
+     *
+     * @param frameTimeNanos The vsync time of the frame, as passed to a frame callback.
+     */
+    public void onFrame(long frameTimeNanos) {
+        if (lastFrameNanos >= 0) {
+            long interval = frameTimeNanos - lastFrameNanos;
+            histogram[(int) Math.min(interval / BUCKET_NANOS, BUCKET_COUNT - 1)]++;
+            frameCount++;
+            totalNanos += interval;
+            maxNanos = Math.max(maxNanos, interval);
+            PerfMetrics.record(PerfMetrics.Stage.SLIDE_FRAME, interval);
+            long periods = (interval + refreshPeriodNanos / 2) / refreshPeriodNanos;
+            if (periods > 1) {
+                droppedFrames += (int) (periods - 1);
+                PerfMetrics.add(PerfMetrics.Counter.DROPPED_FRAMES, periods - 1);
+            }
+        }
+        lastFrameNanos = frameTimeNanos;
+    }
+
+    /**
+     * Clears everything recorded so far.
+     */
+    public void reset() {
+        Arrays.fill(histogram, 0);
+        lastFrameNanos = -1;
+        frameCount = 0;
+        droppedFrames = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+    }
+
+    /**
+     * Retrieves the number of frame intervals recorded.
+     *
+     * @return The number of frames, not counting the first frame of each run.
+     */
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Retrieves the number of refresh periods that passed without a frame.
+     *
+     * @return The number of dropped frames.
+     */
+    public int getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    /**
+     * Retrieves the refresh period frames are measured against.
+     *
+     * @return The period in milliseconds.
+     */
+    public float getRefreshPeriodMillis() {
+        return refreshPeriodNanos / 1_000_000f;
+    }
+
+    /**
+     * Retrieves the mean frame interval.
+     *
+     * @return The mean in milliseconds, or 0 if nothing was recorded.
+     */
+    public float getAverageFrameMillis() {
+        return frameCount == 0 ? 0 : totalNanos / (float) frameCount / 1_000_000f;
+    }
+
+    /**
+     * Retrieves the longest frame interval.
+     *
+     * @return The maximum in milliseconds.
+     */
+    public float getMaxFrameMillis() {
+        return maxNanos / 1_000_000f;
+    }
+
+    /**
+     * Retrieves a percentile of the frame intervals, to the resolution of the histogram.
+     *
+     * @param percentile The percentile, from 0 to 100.
+     * @return The upper bound of the bucket holding the percentile, in milliseconds, or 0 if nothing was recorded.
+     */
+    public float getPercentileFrameMillis(float percentile) {
+        if (frameCount == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(frameCount * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += histogram[i];
+            if (seen >= rank && seen > 0) {
+                return (i + 1) * BUCKET_NANOS / 1_000_000f;
+            }
+        }
+        return getMaxFrameMillis();
+    }
+
+    /**
+     * Formats the statistics on one line.
+     *
+     * @return A one-line summary.
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "%d frames at %.1f Hz, avg %.2f ms, p50 %.2f ms, p99 %.2f ms, max %.2f ms, %d dropped",
+                frameCount, 1000f / getRefreshPeriodMillis(), getAverageFrameMillis(), getPercentileFrameMillis(50),
+                getPercentileFrameMillis(99), getMaxFrameMillis(), droppedFrames);
+    }
+}
@@ -2,35 +2,137 @@ package com.example.fifteenpuzzlegame;
 
 import android.content.Context;
 import android.content.SharedPreferences;
-
-import com.google.gson.Gson;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
- * Manages the game state, including temporary game data and long-term statistics, using SharedPreferences.
+ * Manages the game state, including temporary game data and long-term statistics.
+ * <p>
+ * The game in progress is kept in a {@link MoveJournal} per grid size: a snapshot plus a few bytes
+ * per move, written on a background thread, so a move never re-serializes the board or rewrites the
+ * preferences file. Every completed game is appended to a {@link GameHistory}, from which the
+ * statistics are computed. Settings and the statistics of older versions live in SharedPreferences.
+ * <p>
+ * Saved games, statistics and replays are kept per board size. A size is identified by
+ * {@link #sizeKey(int, int)}, which is the grid size itself for square boards, so every
+ * {@code gridSize} parameter below also accepts the key of a rectangular board.
  */
 public class GameStateManager {
+    private static final String TAG = "GameStateManager";
     private static final String PREFS_NAME = "GameStatsPrefs";
     private static final String PREFS_BOARD_KEY = "SavedBoardState";
+    private static final String JOURNAL_FILE = "journal_%d.bin";
+    private static final String HISTORY_FILE = "history.bin";
+    private static final String REPLAY_FILE = "replay_%d.bin";
+    private static final String METRICS_FILE = "metrics.csv";
+
+    /** Moves appended to the journal before it is compacted into a fresh snapshot. */
+    private static final int SNAPSHOT_INTERVAL = 64;
+
+    /** Runs all journal and history I/O in submission order, off the UI thread. */
+    private static final ExecutorService STORAGE_WRITER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "storage-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * A journal operation run on the writer thread.
+     */
+    private interface JournalOperation {
+        void run(MoveJournal journal) throws IOException;
+    }
+
+    /**
+     * Receives a result read in the background.
+     *
+     * @param <T> The type of the result.
+     */
+    public interface LoadCallback<T> {
+        /**
+         * Called on the UI thread when the result has been read.
+         *
+         * @param result The result, or null if it cannot be read.
+         */
+        void onLoaded(T result);
+    }
+
+    // Shared by all instances so its index stays current; only touched on the writer thread
+    private static GameHistory history;
 
     private SharedPreferences prefs;
+    // Created on first use: creating an editor waits for the preferences file to be read
     private SharedPreferences.Editor editor;
-    private Gson gson;
+
+    private final File filesDir;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    // Only touched on the writer thread
+    private final Map<Integer, MoveJournal> journals = new HashMap<>();
+    // UI-thread view of the journal: whether it has a snapshot to append to, and how long its tail is.
+    // Set by loadTemporaryGameState, which may run on a loader thread before it hands the game over.
+    private boolean isJournalOpen;
+    private int movesSinceSnapshot;
+    private MoveJournal.Recovered recovered;
 
     /**
-     * Constructor to initialize the GameStateManager with a context.
+     * Constructor to initialize the GameStateManager with a context. Nothing is read here: the
+     * preferences file loads in the background and is first waited for by whichever call reads it.
      *
      * @param context The application context used to access SharedPreferences.
      */
     public GameStateManager(Context context) {
         prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        editor = prefs.edit();
-        gson = new Gson();
+        filesDir = context.getFilesDir();
+    }
+
+    private synchronized SharedPreferences.Editor editor() {
+        if (editor == null) {
+            editor = prefs.edit();
+        }
+        return editor;
+    }
+
+    /**
+     * Returns the key under which the state of a board size is stored: the grid size for square
+     * boards, under which older versions saved their statistics, and {@code rows * 100 + columns} otherwise.
+     *
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     * @return The size key.
+     */
+    public static int sizeKey(int rows, int columns) {
+        return rows == columns ? rows : rows * 100 + columns;
+    }
+
+    private static int rowsOf(int sizeKey) {
+        return sizeKey < 100 ? sizeKey : sizeKey / 100;
+    }
+
+    private static int columnsOf(int sizeKey) {
+        return sizeKey < 100 ? sizeKey : sizeKey % 100;
     }
 
     // ========== TEMPORARY STATE MANAGEMENT ==========
 
     /**
-     * Saves the temporary game state, including the puzzle, move count, and pause details.
+     * Saves the temporary game state, including the puzzle, its undo/redo log, move count, and pause
+     * details, as a new journal snapshot. The board is copied here; the write happens in the background.
      *
      * @param game        The current PuzzleGame object to save.
      * @param moveCount   The number of moves made.
@@ -38,23 +140,101 @@ public class GameStateManager {
      * @param isPaused    Whether the game is currently paused.
      */
     public void saveTemporaryGameState(PuzzleGame game, int moveCount, long pauseOffset, boolean isPaused) {
-        editor.putString(PREFS_BOARD_KEY + game.getGridSize(), gson.toJson(game));
-        editor.putInt("moveCount", moveCount);
-        editor.putLong("pauseOffset", pauseOffset);
-        editor.putBoolean("isPaused", isPaused);
-        editor.apply();
+        long start = PerfMetrics.begin(PerfMetrics.Stage.SAVE_STATE);
+        int gridSize = sizeKey(game.getRows(), game.getColumns());
+        GameSnapshot snapshot = GameSnapshot.of(game, moveCount, pauseOffset, isPaused);
+        boolean hasJsonBoard = prefs.contains(PREFS_BOARD_KEY + gridSize);
+        runJournalOperation(gridSize, journal -> {
+            journal.writeSnapshot(snapshot);
+            if (hasJsonBoard) {
+                // Superseded by the journal, but only once the snapshot is safely on disk
+                editor().remove(PREFS_BOARD_KEY + gridSize).apply();
+            }
+        });
+        isJournalOpen = true;
+        movesSinceSnapshot = 0;
+        PerfMetrics.increment(PerfMetrics.Counter.SNAPSHOTS);
+        PerfMetrics.end(PerfMetrics.Stage.SAVE_STATE, start);
     }
 
     /**
-     * Loads the temporary game state from SharedPreferences.
+     * Records moves that have been made since the last save. Appends one journal record per move,
+     * or writes a snapshot instead when there is none yet or the replay tail would grow too long.
+     *
+     * @param game        The game, after the moves.
+     * @param cells       The row-major indices of the tapped tiles, oldest first, with
+     *                    {@link MoveJournal#UNDO} and {@link MoveJournal#REDO} for undo and redo; copied here.
+     * @param count       The number of cells to record.
+     * @param moveCount   The number of moves made, including these.
+     * @param pauseOffset The pause offset for the chronometer.
+     * @param isPaused    Whether the game is currently paused.
+     */
+    public void recordMoves(PuzzleGame game, int[] cells, int count, int moveCount, long pauseOffset, boolean isPaused) {
+        if (!isJournalOpen || movesSinceSnapshot + count > SNAPSHOT_INTERVAL) {
+            saveTemporaryGameState(game, moveCount, pauseOffset, isPaused);
+            return;
+        }
+        movesSinceSnapshot += count;
+        PerfMetrics.add(PerfMetrics.Counter.APPENDED_MOVES, count);
+        int[] batch = Arrays.copyOf(cells, count);
+        runJournalOperation(sizeKey(game.getRows(), game.getColumns()), journal -> journal.appendMoves(batch, 0, batch.length));
+    }
+
+    /**
+     * Blocks until all queued journal writes have reached the file system.
+     */
+    public void flushTemporaryGameState() {
+        try {
+            STORAGE_WRITER.submit(() -> { }).get();
+        } catch (ExecutionException e) {
+            Log.e(TAG, "Journal flush failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Loads the temporary game state: the journal snapshot with its move tail replayed, or a game
+     * saved by an older version as JSON, which is migrated to the journal on the way.
      *
      * @param gridSize The grid size to load the state for.
      * @return The saved PuzzleGame object or null if no saved state exists.
      */
     public PuzzleGame loadTemporaryGameState(int gridSize) {
+        recovered = null;
+        try {
+            recovered = STORAGE_WRITER.submit(() -> journalFor(gridSize).recover()).get();
+        } catch (ExecutionException e) {
+            Log.e(TAG, "Journal recovery failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (recovered != null && sizeKey(recovered.getRows(), recovered.getColumns()) == gridSize) {
+            isJournalOpen = true;
+            movesSinceSnapshot = recovered.getReplayedMoves();
+            PuzzleGame game = new PuzzleGame(recovered.getRows(), recovered.getColumns(), recovered.getTiles());
+            game.setMoveLog(recovered.getMoveLog());
+            return game;
+        }
+        recovered = null;
+
         String gameBoardJson = prefs.getString(PREFS_BOARD_KEY + gridSize, null);
         if (gameBoardJson != null) {
-            return gson.fromJson(gameBoardJson, PuzzleGame.class);
+            GameSnapshot snapshot;
+            try {
+                snapshot = StateCodecs.JSON.fromJson(gameBoardJson);
+            } catch (IllegalArgumentException e) {
+                Log.w(TAG, "Ignoring unreadable saved board: " + e.getMessage());
+                return null;
+            }
+            if (sizeKey(snapshot.getRows(), snapshot.getColumns()) != gridSize) {
+                return null;
+            }
+            PuzzleGame game = new PuzzleGame(snapshot.getRows(), snapshot.getColumns(), snapshot.getTiles());
+            game.setMoveLog(snapshot.getMoveLog());
+            // Move it into the journal; this also removes the JSON from the preferences
+            saveTemporaryGameState(game, getMoveCount(), getPauseOffset(), isPaused());
+            return game;
         }
         return null;
     }
@@ -65,11 +245,12 @@ public class GameStateManager {
      * @param gridSize The grid size whose temporary state will be deleted.
      */
     public void deleteTemporaryGameState(int gridSize) {
-        editor.remove(PREFS_BOARD_KEY + gridSize);
-        editor.remove("moveCount");
-        editor.remove("pauseOffset");
-        editor.remove("isPaused");
-        editor.apply();
+        deleteJournal(gridSize);
+        editor().remove(PREFS_BOARD_KEY + gridSize);
+        editor().remove("moveCount");
+        editor().remove("pauseOffset");
+        editor().remove("isPaused");
+        editor().apply();
     }
 
     // Getters for temporary game state data
@@ -80,6 +261,9 @@ public class GameStateManager {
      * @return The saved move count.
      */
     public int getMoveCount() {
+        if (recovered != null) {
+            return recovered.getMoveCount();
+        }
         return prefs.getInt("moveCount", 0);
     }
 
@@ -89,6 +273,9 @@ public class GameStateManager {
      * @return The saved pause offset.
      */
     public long getPauseOffset() {
+        if (recovered != null) {
+            return recovered.getPauseOffset();
+        }
         return prefs.getLong("pauseOffset", 0);
     }
 
@@ -98,9 +285,222 @@ public class GameStateManager {
      * @return True if the game is paused, false otherwise.
      */
     public boolean isPaused() {
+        if (recovered != null) {
+            return recovered.isPaused();
+        }
         return prefs.getBoolean("isPaused", false);
     }
 
+    /**
+     * Deletes the journal of a grid size in the background.
+     *
+     * @param gridSize The grid size whose journal will be deleted.
+     */
+    private void deleteJournal(int gridSize) {
+        runJournalOperation(gridSize, MoveJournal::delete);
+        isJournalOpen = false;
+        movesSinceSnapshot = 0;
+        recovered = null;
+    }
+
+    /**
+     * Queues an operation on the journal of a grid size. Failures are logged; the next snapshot
+     * starts the journal afresh. The time the operation takes on the writer thread is recorded as
+     * {@link PerfMetrics.Stage#JOURNAL_WRITE}.
+     */
+    private void runJournalOperation(int gridSize, JournalOperation operation) {
+        STORAGE_WRITER.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                operation.run(journalFor(gridSize));
+            } catch (IOException | IllegalStateException e) {
+                Log.e(TAG, "Journal write failed", e);
+            }
+            PerfMetrics.record(PerfMetrics.Stage.JOURNAL_WRITE, System.nanoTime() - start);
+        });
+    }
+
+    /**
+     * Returns the journal of a grid size. Only called on the writer thread.
+     */
+    private MoveJournal journalFor(int gridSize) {
+        MoveJournal journal = journals.get(gridSize);
+        if (journal == null) {
+            journal = new MoveJournal(new File(filesDir, String.format(Locale.US, JOURNAL_FILE, gridSize)));
+            journals.put(gridSize, journal);
+        }
+        return journal;
+    }
+
+    // ========== GAME HISTORY ==========
+
+    /**
+     * Saves the identity of the game in progress, which is written to the history when it ends.
+     *
+     * @param gridSize  The grid size of the game.
+     * @param seed      The seed the board was shuffled with.
+     * @param startTime The wall-clock start time in milliseconds since the epoch.
+     */
+    public void saveGameInfo(int gridSize, long seed, long startTime) {
+        editor().putLong("gameSeed_" + gridSize, seed);
+        editor().putLong("gameStartTime_" + gridSize, startTime);
+        editor().apply();
+    }
+
+    /**
+     * Retrieves the shuffle seed of the game in progress.
+     *
+     * @param gridSize The grid size of the game.
+     * @return The seed, or 0 if the game was started by an older version.
+     */
+    public long getGameSeed(int gridSize) {
+        return prefs.getLong("gameSeed_" + gridSize, 0);
+    }
+
+    /**
+     * Retrieves the start time of the game in progress.
+     *
+     * @param gridSize The grid size of the game.
+     * @return Milliseconds since the epoch, or 0 if the game was started by an older version.
+     */
+    public long getGameStartTime(int gridSize) {
+        return prefs.getLong("gameStartTime_" + gridSize, 0);
+    }
+
+    /**
+     * Appends a completed game to the history in the background.
+     *
+     * @param record The completed game.
+     */
+    public void recordCompletedGame(GameHistory.Record record) {
+        STORAGE_WRITER.execute(() -> {
+            try {
+                openHistory().append(record);
+            } catch (IOException e) {
+                Log.e(TAG, "History write failed", e);
+            }
+        });
+    }
+
+    /**
+     * Summarizes the history of a grid size in the background. The query runs after queued writes,
+     * so a game recorded just before is included, and reads only the indexed records of that grid size.
+     *
+     * @param gridSize The grid size to summarize.
+     * @param callback Receives the summary, or null if the history cannot be read.
+     */
+    public void loadHistorySummary(int gridSize, LoadCallback<GameHistory.Summary> callback) {
+        load(() -> summarizeHistory(gridSize), callback);
+    }
+
+    /**
+     * Summarizes the history of a grid size. Only called on the writer thread.
+     *
+     * @return The summary, or null if the history cannot be read.
+     */
+    private GameHistory.Summary summarizeHistory(int gridSize) {
+        try {
+            return openHistory().summarize(rowsOf(gridSize), columnsOf(gridSize), Long.MIN_VALUE, Long.MAX_VALUE);
+        } catch (IOException e) {
+            Log.e(TAG, "History query failed", e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the history, opening it and building its index on first use. Only called on the writer thread.
+     */
+    private GameHistory openHistory() throws IOException {
+        if (history == null) {
+            history = GameHistory.open(new File(filesDir, HISTORY_FILE));
+        }
+        return history;
+    }
+
+    /**
+     * Runs a read on the writer thread, after any queued write, and delivers its result on the UI thread.
+     */
+    private <T> void load(Callable<T> reader, LoadCallback<T> callback) {
+        STORAGE_WRITER.execute(() -> {
+            T result = null;
+            try {
+                result = reader.call();
+            } catch (Exception e) {
+                Log.e(TAG, "Background read failed", e);
+            }
+            T loaded = result;
+            mainHandler.post(() -> callback.onLoaded(loaded));
+        });
+    }
+
+    // ========== REPLAYS ==========
+
+    /**
+     * Saves the recording of a won game as the replay of its grid size, replacing the previous one.
+     * The recording is serialized here; the write happens in the background.
+     *
+     * @param recording The recorded game.
+     */
+    public void saveReplay(GameRecording recording) {
+        byte[] bytes = recording.toByteArray();
+        File file = replayFile(sizeKey(recording.getRows(), recording.getColumns()));
+        STORAGE_WRITER.execute(() -> {
+            File temp = new File(file.getPath() + ".tmp");
+            try (FileOutputStream out = new FileOutputStream(temp)) {
+                out.write(bytes);
+            } catch (IOException e) {
+                Log.e(TAG, "Replay write failed", e);
+                return;
+            }
+            if (!temp.renameTo(file)) {
+                Log.e(TAG, "Cannot replace " + file);
+            }
+        });
+    }
+
+    /**
+     * Loads the saved replay of a grid size in the background, after any queued write.
+     *
+     * @param gridSize The grid size.
+     * @param callback Receives the recording, or null if there is none or it cannot be read.
+     */
+    public void loadReplay(int gridSize, LoadCallback<GameRecording> callback) {
+        File file = replayFile(gridSize);
+        load(() -> {
+            if (!file.isFile()) {
+                return null;
+            }
+            try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+                byte[] bytes = new byte[(int) in.length()];
+                in.readFully(bytes);
+                return GameRecording.fromByteArray(bytes);
+            }
+        }, callback);
+    }
+
+    private File replayFile(int gridSize) {
+        return new File(filesDir, String.format(Locale.US, REPLAY_FILE, gridSize));
+    }
+
+    // ========== PERFORMANCE METRICS ==========
+
+    /**
+     * Writes a metrics snapshot to {@code metrics.csv} in the app's files directory, replacing the
+     * previous one, for offline analysis. The write happens in the background.
+     *
+     * @param snapshot The snapshot to write.
+     */
+    public void saveMetrics(PerfMetrics.Snapshot snapshot) {
+        File file = new File(filesDir, METRICS_FILE);
+        STORAGE_WRITER.execute(() -> {
+            try (OutputStreamWriter out = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+                snapshot.writeCsv(out);
+            } catch (IOException e) {
+                Log.e(TAG, "Metrics write failed", e);
+            }
+        });
+    }
+
     // ========== LONG-TERM GAME STATISTICS MANAGEMENT ==========
 
     /**
@@ -114,12 +514,12 @@ public class GameStateManager {
      * @param bestMoveCount The best move count.
      */
     public void saveGameStatistics(int gridSize, int gamesPlayed, int gamesWon, double winPercentage, long bestTime, int bestMoveCount) {
-        editor.putInt("gamesPlayed_" + gridSize, gamesPlayed);
-        editor.putInt("gamesWon_" + gridSize, gamesWon);
-        editor.putFloat("winPercentage_" + gridSize, (float) winPercentage);
-        editor.putLong("bestTime_" + gridSize, bestTime);
-        editor.putInt("bestMoveCount_" + gridSize, bestMoveCount);
-        editor.apply();
+        editor().putInt("gamesPlayed_" + gridSize, gamesPlayed);
+        editor().putInt("gamesWon_" + gridSize, gamesWon);
+        editor().putFloat("winPercentage_" + gridSize, (float) winPercentage);
+        editor().putLong("bestTime_" + gridSize, bestTime);
+        editor().putInt("bestMoveCount_" + gridSize, bestMoveCount);
+        editor().apply();
     }
 
     /**
@@ -180,8 +580,9 @@ public class GameStateManager {
      * @param gridSize The grid size whose temporary state will be deleted.
      */
     public void deleteTempGameState(int gridSize) {
-        editor.remove(PREFS_BOARD_KEY + gridSize);
-        editor.apply();  // Apply changes asynchronously
+        deleteJournal(gridSize);
+        editor().remove(PREFS_BOARD_KEY + gridSize);
+        editor().apply();  // Apply changes asynchronously
     }
 
 //    /**
@@ -215,8 +616,8 @@ public class GameStateManager {
      * @param isEnabled Whether Auto-Save should be enabled.
      */
     public void setAutoSaveEnabled(boolean isEnabled) {
-        editor.putBoolean("autosave", isEnabled);
-        editor.apply();
+        editor().putBoolean("autosave", isEnabled);
+        editor().apply();
     }
 
     /**
@@ -234,28 +635,45 @@ public class GameStateManager {
      * @param isEnabled Whether Dark Mode should be enabled.
      */
     public void setDarkModeEnabled(boolean isEnabled) {
-        editor.putBoolean("darkmode", isEnabled);
-        editor.apply();
+        editor().putBoolean("darkmode", isEnabled);
+        editor().apply();
     }
 
     // ========== FORMATTING STATISTICS (FOR UI) ==========
 
     /**
-     * Retrieves formatted game statistics as a string for display in the UI.
+     * Formats game statistics as a string for display in the UI, in the background. They are computed
+     * from the game history, or taken from the statistics of an older version while the history is empty.
      *
      * @param gridSize The grid size for which statistics will be formatted.
-     * @return A formatted string containing game statistics.
+     * @param callback Receives the formatted statistics.
      */
-    public String getFormattedStatistics(int gridSize) {
+    public void loadFormattedStatistics(int gridSize, LoadCallback<String> callback) {
+        load(() -> formatStatistics(gridSize), callback);
+    }
+
+    /**
+     * Formats the statistics of a grid size. Only called on the writer thread.
+     */
+    private String formatStatistics(int gridSize) {
         int gamesPlayed = getGamesPlayed(gridSize);
         int gamesWon = getGamesWon(gridSize);
         float winPercentage = getWinPercentage(gridSize);
         long bestTime = getBestTime(gridSize);
         int bestMoveCount = getBestMoveCount(gridSize);
 
+        GameHistory.Summary summary = summarizeHistory(gridSize);
+        if (summary != null && summary.getGamesPlayed() > 0) {
+            gamesPlayed = summary.getGamesPlayed();
+            gamesWon = summary.getGamesWon();
+            winPercentage = (float) summary.getWinPercentage();
+            bestTime = summary.getBestTime();
+            bestMoveCount = summary.getBestMoveCount();
+        }
+
         String bestTimeFormatted = bestTime == Long.MAX_VALUE ? "N/A" : formatTime(bestTime);
 
-        return String.format("Grid Size: %dx%d\nGames Played: %d\nGames Won: %d\nWin Percentage: %.2f%%\nBest Time: %s\nBest Move Count: %d", gridSize, gridSize, gamesPlayed, gamesWon, winPercentage, bestTimeFormatted, bestMoveCount);
+        return String.format("Grid Size: %dx%d\nGames Played: %d\nGames Won: %d\nWin Percentage: %.2f%%\nBest Time: %s\nBest Move Count: %d", rowsOf(gridSize), columnsOf(gridSize), gamesPlayed, gamesWon, winPercentage, bestTimeFormatted, bestMoveCount);
     }
 
     /**
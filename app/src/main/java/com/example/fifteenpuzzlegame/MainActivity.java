@@ -1,16 +1,20 @@
 package com.example.fifteenpuzzlegame;
 
 import android.content.Intent;
+import android.content.pm.ApplicationInfo;
 import android.os.Bundle;
 import android.os.SystemClock;
 import android.util.Log;
+import android.view.Choreographer;
 import android.view.Menu;
 import android.view.MenuItem;
+import android.view.View;
 import android.widget.Button;
 import android.widget.Chronometer;
-import android.widget.GridLayout;
 import android.widget.ImageButton;
+import android.widget.SeekBar;
 import android.widget.TextView;
+import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.appcompat.app.AlertDialog;
@@ -19,15 +23,24 @@ import androidx.appcompat.app.AppCompatDelegate;
 import androidx.appcompat.widget.Toolbar;
 
 import com.google.android.material.bottomappbar.BottomAppBar;
-import com.google.gson.Gson;
+
+import java.util.Random;
 
 public class MainActivity extends AppCompatActivity {
 
     private PuzzleGame game;
     private GameStateManager gameStateManager;
-    private Gson gson;
-
-    private int gridSize;
+    private SaveScheduler saveScheduler;
+    private StateLoader stateLoader;
+
+    private int rows;
+    private int columns;
+    // Identifies the board size in saved games, statistics and replays (see GameStateManager#sizeKey)
+    private int sizeKey;
+    private long gameSeed;
+    private long gameStartTime;
+    // A board shared by another player, played instead of a shuffled one by the next new game
+    private String puzzleCode;
 
     // Game statistics variables
     private int gamesPlayed;
@@ -37,42 +50,134 @@ public class MainActivity extends AppCompatActivity {
     private long bestTime = Long.MAX_VALUE;
     private int bestMoveCount;
 
-    private GridLayout gridLayout;
-    private Button[][] buttons;
+    private BoardView boardView;
 
     private TextView moveCounterTextView;
+    private TextView tilesInPlaceTextView;
     private Chronometer chronometer;
 
     private boolean isPaused;
     private long pauseOffset;
 
+    private HintEngine hintEngine;
+    private HintEngine.Request pendingHint;
+
+    // The current game as it is played, for replay after a win
+    private GameRecording recording;
+    private long recordingTimeOffset;
+
+    private ReplayPlayer replayPlayer;
+    private View replayControls;
+    private SeekBar replaySeekBar;
+    private TextView replayPositionTextView;
+    private ImageButton buttonReplayPlay;
+    private Button buttonReplaySpeed;
+
+    /** Interval between refreshes of the performance overlay. */
+    private static final long METRICS_OVERLAY_INTERVAL_MILLIS = 500;
+
+    private TextView metricsOverlay;
+    private final Runnable metricsOverlayUpdater = this::updateMetricsOverlay;
+
+    // Startup timing, measured from the start of onCreate
+    private long createNanos;
+    private boolean isStartupReported;
+
     /**
-     * Called when the activity is created. Sets up the UI and initializes the game state.
+     * Called when the activity is created. Sets up the UI and starts loading the game state in the
+     * background; the first frame shows an empty board, and the board appears once its data is ready.
      *
      * @param savedInstanceState Bundle containing the saved state.
      */
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        createNanos = System.nanoTime();
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
-        gameStateManager = new GameStateManager(this);
-        gson = new Gson();
+        PuzzleApplication application = (PuzzleApplication) getApplication();
+        gameStateManager = application.getGameStateManager();
+        stateLoader = application.getStateLoader();
+        saveScheduler = new SaveScheduler(gameStateManager);
+        // The app ships no pattern databases, so hints use linear conflict unless one is placed in the files directory
+        hintEngine = new HintEngine(getFilesDir(), HintEngine.DEFAULT_BUDGET_MILLIS);
 
         setupUI();
-        loadStatistics();
+        runAfterNextDraw(this::onFirstFrameDrawn);
         initGame(savedInstanceState);
     }
 
+    /**
+     * Runs an action once the next frame has been drawn: the frame callback fires at the start of
+     * the frame, and a message posted from it runs after the frame's traversal.
+     *
+     * @param action The action to run.
+     */
+    private void runAfterNextDraw(Runnable action) {
+        Choreographer.getInstance().postFrameCallback(frameTimeNanos -> getWindow().getDecorView().post(action));
+    }
+
+    /**
+     * Records the time to the first frame, which shows the screen with an empty board while the saved state loads.
+     */
+    private void onFirstFrameDrawn() {
+        PerfMetrics.record(PerfMetrics.Stage.FIRST_FRAME, System.nanoTime() - createNanos);
+    }
+
+    /**
+     * Records the time until the first board was drawn, which is when the screen is usable, and reports
+     * the activity as fully drawn.
+     */
+    private void onBoardDrawn() {
+        PerfMetrics.record(PerfMetrics.Stage.FIRST_BOARD, System.nanoTime() - createNanos);
+        reportFullyDrawn();
+    }
+
     /**
      * Sets up the main UI elements such as the toolbar and bottom app bar.
      */
     private void setupUI() {
         setupToolbar();
         setupBottomAppBar();
-        gridLayout = findViewById(R.id.grid_layout);
+        boardView = findViewById(R.id.board_view);
+        boardView.setOnTileClickListener(this::onTileClick);
         moveCounterTextView = findViewById(R.id.move_counter);
+        tilesInPlaceTextView = findViewById(R.id.tiles_in_place);
         chronometer = findViewById(R.id.chronometer);
+        metricsOverlay = findViewById(R.id.metrics_overlay);
+        setupReplayControls();
+    }
+
+    /**
+     * Initializes the replay controls, which stay hidden until a replay starts.
+     */
+    private void setupReplayControls() {
+        replayControls = findViewById(R.id.replay_controls);
+        replaySeekBar = findViewById(R.id.replay_seek_bar);
+        replayPositionTextView = findViewById(R.id.replay_position);
+        buttonReplayPlay = findViewById(R.id.button_replay_play);
+        buttonReplaySpeed = findViewById(R.id.button_replay_speed);
+        ImageButton buttonReplayClose = findViewById(R.id.button_replay_close);
+
+        buttonReplayPlay.setOnClickListener(v -> replayPlayer.togglePlayback());
+        buttonReplaySpeed.setOnClickListener(v -> replayPlayer.cycleSpeed());
+        buttonReplayClose.setOnClickListener(v -> closeReplay());
+        replaySeekBar.setOnSeekBarChangeListener(new SeekBar.OnSeekBarChangeListener() {
+            @Override
+            public void onProgressChanged(SeekBar seekBar, int progress, boolean fromUser) {
+                if (fromUser && replayPlayer != null) {
+                    replayPlayer.seekToMove(progress);
+                }
+            }
+
+            @Override
+            public void onStartTrackingTouch(SeekBar seekBar) {
+            }
+
+            @Override
+            public void onStopTrackingTouch(SeekBar seekBar) {
+            }
+        });
     }
 
     /**
@@ -111,22 +216,30 @@ public class MainActivity extends AppCompatActivity {
         ImageButton buttonPause = findViewById(R.id.button_pause);
         ImageButton buttonStats = findViewById(R.id.button_stats);
         ImageButton buttonRestart = findViewById(R.id.button_restart);
+        ImageButton buttonHint = findViewById(R.id.button_hint);
+        ImageButton buttonUndo = findViewById(R.id.button_undo);
+        ImageButton buttonRedo = findViewById(R.id.button_redo);
 
         buttonHome.setOnClickListener(v -> goToMenu());
         buttonPause.setOnClickListener(v -> togglePause());
         buttonStats.setOnClickListener(v -> showStatistics());
         buttonRestart.setOnClickListener(view -> startNewGame());
+        buttonHint.setOnClickListener(v -> requestHint());
+        buttonUndo.setOnClickListener(v -> undoMove());
+        buttonRedo.setOnClickListener(v -> redoMove());
     }
 
     /**
-     * Loads game statistics from GameStateManager.
+     * Applies the game statistics loaded in the background.
+     *
+     * @param state The loaded state.
      */
-    private void loadStatistics() {
-        gamesPlayed = gameStateManager.getGamesPlayed(gridSize);
-        gamesWon = gameStateManager.getGamesWon(gridSize);
-        winPercentage = gameStateManager.getWinPercentage(gridSize);
-        bestTime = gameStateManager.getBestTime(gridSize);
-        bestMoveCount = gameStateManager.getBestMoveCount(gridSize);
+    private void loadStatistics(StateLoader.SavedState state) {
+        gamesPlayed = state.getGamesPlayed();
+        gamesWon = state.getGamesWon();
+        winPercentage = state.getWinPercentage();
+        bestTime = state.getBestTime();
+        bestMoveCount = state.getBestMoveCount();
     }
 
     /**
@@ -141,6 +254,9 @@ public class MainActivity extends AppCompatActivity {
 
         menu.findItem(R.id.action_autosave).setChecked(isAutoSaveEnabled);
         menu.findItem(R.id.action_darkmode).setChecked(isDarkModeEnabled);
+        MenuItem metricsItem = menu.findItem(R.id.action_metrics);
+        metricsItem.setVisible((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0);
+        metricsItem.setChecked(metricsOverlay.getVisibility() == View.VISIBLE);
 
         return true;
     }
@@ -163,6 +279,15 @@ public class MainActivity extends AppCompatActivity {
         } else if (itemId == R.id.action_darkmode) {
             toggleDarkMode(item);
             return true;
+        } else if (itemId == R.id.action_replay) {
+            startSavedReplay();
+            return true;
+        } else if (itemId == R.id.action_share) {
+            sharePuzzle();
+            return true;
+        } else if (itemId == R.id.action_metrics) {
+            toggleMetricsOverlay(item);
+            return true;
         }
         return super.onOptionsItemSelected(item);
     }
@@ -175,6 +300,31 @@ public class MainActivity extends AppCompatActivity {
     private void toggleAutoSave(MenuItem item) {
         item.setChecked(!item.isChecked());
         gameStateManager.setAutoSaveEnabled(item.isChecked());
+        saveScheduler.onAutoSaveChanged();
+    }
+
+    /**
+     * Shows or hides the performance overlay with the p50 and p99 latency of every timed stage.
+     *
+     * @param item The menu item.
+     */
+    private void toggleMetricsOverlay(MenuItem item) {
+        item.setChecked(!item.isChecked());
+        metricsOverlay.removeCallbacks(metricsOverlayUpdater);
+        if (item.isChecked()) {
+            metricsOverlay.setVisibility(View.VISIBLE);
+            updateMetricsOverlay();
+        } else {
+            metricsOverlay.setVisibility(View.GONE);
+        }
+    }
+
+    /**
+     * Refreshes the performance overlay and schedules the next refresh while it is shown.
+     */
+    private void updateMetricsOverlay() {
+        metricsOverlay.setText(PerfMetrics.snapshot().format());
+        metricsOverlay.postDelayed(metricsOverlayUpdater, METRICS_OVERLAY_INTERVAL_MILLIS);
     }
 
     /**
@@ -205,7 +355,7 @@ public class MainActivity extends AppCompatActivity {
      * Displays the "About" dialog with game information.
      */
     private void showAboutDialog() {
-        String message = "Welcome to the Fifteen Puzzle Game!\n\n" + "How to Play:\n" + "1. You are presented with a 3x3, 4x4, or 5x5 grid of numbered tiles, with one tile missing.\n" + "2. The goal is to arrange the tiles in numerical order by sliding them into the empty space.\n" + "3. To move a tile, simply tap on it, and it will slide into the adjacent empty space.\n" + "4. Continue sliding tiles until the puzzle is solved.\n\n" + "Good luck and enjoy the game!";
+        String message = "Welcome to the Fifteen Puzzle Game!\n\n" + "How to Play:\n" + "1. You are presented with a grid of numbered tiles, from 3x3 up to 16x16, with one tile missing.\n" + "2. The goal is to arrange the tiles in numerical order by sliding them into the empty space.\n" + "3. To move a tile, simply tap on it, and it will slide into the adjacent empty space.\n" + "4. Continue sliding tiles until the puzzle is solved.\n\n" + "Good luck and enjoy the game!";
 
         new AlertDialog.Builder(this).setTitle("About the Game").setMessage(message).setPositiveButton("OK", null).show();
     }
@@ -216,24 +366,49 @@ public class MainActivity extends AppCompatActivity {
      * @param savedInstanceState The saved instance state.
      */
     private void initGame(Bundle savedInstanceState) {
-        gridSize = getIntent().getIntExtra("numButtonRows", 4);
+        rows = getIntent().getIntExtra("numButtonRows", 4);
+        columns = getIntent().getIntExtra("numButtonColumns", rows);
+        sizeKey = GameStateManager.sizeKey(rows, columns);
+        hintEngine.prepare(rows, columns);
+        if (savedInstanceState == null) {
+            puzzleCode = getIntent().getStringExtra("puzzleCode");
+        }
 
-        if (savedInstanceState != null) {
+        if (savedInstanceState != null && savedInstanceState.getParcelable("game") != null) {
             restoreGameStateFromBundle(savedInstanceState);
-        } else {
-            checkForPreviousGameOrStartNew();
         }
+        stateLoader.load(sizeKey, game == null, this::onStateLoaded);
     }
 
     /**
-     * Checks if a previous game exists and allows resuming it, or starts a new game.
+     * Applies the state loaded in the background: the statistics and, unless the game was restored
+     * from the saved instance state, the saved game.
+     *
+     * @param state The loaded state.
      */
-    private void checkForPreviousGameOrStartNew() {
-        PuzzleGame savedGame = gameStateManager.loadTemporaryGameState(gridSize);
+    private void onStateLoaded(StateLoader.SavedState state) {
+        if (isDestroyed()) {
+            return;
+        }
+        loadStatistics(state);
+        if (game == null) {
+            checkForPreviousGameOrStartNew(state.getGame());
+        }
+    }
 
+    /**
+     * Checks if a previous game exists and allows resuming it, or starts a new game.
+     *
+     * @param savedGame The saved game, or null if there is none.
+     */
+    private void checkForPreviousGameOrStartNew(PuzzleGame savedGame) {
         if (savedGame != null && !savedGame.isGameFinished()) {
             new AlertDialog.Builder(this).setTitle("Continue Previous Game?").setMessage("You have an unfinished game. Continue or start a new one?").setPositiveButton("Continue", (dialog, which) -> restoreGameState(savedGame)).setNegativeButton("New Game", (dialog, which) -> {
-                gameStateManager.deleteTempGameState(gridSize);
+                if (gameStateManager.getMoveCount() > 0) {
+                    loadGameInfo();
+                    recordAbandonedGame(gameStateManager.getMoveCount(), gameStateManager.getPauseOffset());
+                }
+                gameStateManager.deleteTempGameState(sizeKey);
                 startNewGame();
             }).show();
         } else {
@@ -251,6 +426,9 @@ public class MainActivity extends AppCompatActivity {
         moveCount = gameStateManager.getMoveCount();
         pauseOffset = gameStateManager.getPauseOffset();
         isPaused = gameStateManager.isPaused();
+        loadGameInfo();
+        startRecording(pauseOffset);
+        saveScheduler.onGameLoaded(game, moveCount, pauseOffset, isPaused);
 
         initializeGrid();
         updateUI();
@@ -258,15 +436,52 @@ public class MainActivity extends AppCompatActivity {
     }
 
     /**
-     * Starts a new game and initializes the game board.
+     * Loads the seed and start time of the saved game; games saved by older versions have neither,
+     * so their start time is derived from the playing time.
+     */
+    private void loadGameInfo() {
+        gameSeed = gameStateManager.getGameSeed(sizeKey);
+        gameStartTime = gameStateManager.getGameStartTime(sizeKey);
+        if (gameStartTime == 0) {
+            gameStartTime = System.currentTimeMillis() - gameStateManager.getPauseOffset();
+        }
+    }
+
+    /**
+     * Starts a new game and initializes the game board: the board of the puzzle code the activity
+     * was started with, if any, otherwise a freshly shuffled one. A game in progress with at least
+     * one move is recorded in the history as abandoned.
      */
     private void startNewGame() {
-        gameStateManager.deleteTempGameState(gridSize);
-        game = new PuzzleGame(gridSize);
+        cancelHint();
+        stopReplay();
+        if (game != null && !game.isGameFinished() && !game.isSolved() && moveCount > 0) {
+            recordAbandonedGame(moveCount, getPlayingTime());
+        }
+        gameStateManager.deleteTempGameState(sizeKey);
+        game = null;
+        if (puzzleCode != null) {
+            try {
+                game = PuzzleGame.fromCode(puzzleCode);
+                // A shared board has no seed; 0 marks it as unknown, as for games of older versions
+                gameSeed = 0;
+            } catch (IllegalArgumentException e) {
+                Log.w("MainActivity", "Ignoring invalid puzzle code " + puzzleCode, e);
+            }
+            puzzleCode = null;
+        }
+        if (game == null || game.getRows() != rows || game.getColumns() != columns) {
+            gameSeed = new Random().nextLong();
+            game = new PuzzleGame(rows, columns, gameSeed);
+        }
+        gameStartTime = System.currentTimeMillis();
+        gameStateManager.saveGameInfo(sizeKey, gameSeed, gameStartTime);
 
         moveCount = 0;
         pauseOffset = 0;
+        startRecording(0);
         moveCounterTextView.setText(getString(R.string.move_counter, moveCount));
+        saveScheduler.onGameStarted(game, moveCount, pauseOffset, isPaused);
 
         initializeGrid();
         updateUI();
@@ -274,109 +489,199 @@ public class MainActivity extends AppCompatActivity {
     }
 
     /**
-     * Initializes the grid layout for the puzzle.
+     * Initializes the board view for the puzzle and starts listening to the game's moves.
      */
     private void initializeGrid() {
-        gridSize = game.getGridSize();
-        buttons = new Button[gridSize][gridSize];
-        gridLayout.setRowCount(gridSize);
-        gridLayout.setColumnCount(gridSize);
-
-        int buttonSize = calculateButtonSize();
-        for (int i = 0; i < gridSize; i++) {
-            for (int j = 0; j < gridSize; j++) {
-                createButton(i, j, buttonSize);
-            }
+        long start = PerfMetrics.begin(PerfMetrics.Stage.INITIALIZE_GRID);
+        rows = game.getRows();
+        columns = game.getColumns();
+        game.addMoveListener(this::onGameMove);
+        boardView.showBoard(game);
+        if (!isStartupReported) {
+            isStartupReported = true;
+            runAfterNextDraw(this::onBoardDrawn);
         }
+        PerfMetrics.end(PerfMetrics.Stage.INITIALIZE_GRID, start);
     }
 
     /**
-     * Calculates the size of each puzzle button based on screen dimensions.
+     * Handles tile click events and moves tiles if possible.
      *
-     * @return The size of each button.
+     * @param row The row of the clicked tile.
+     * @param col The column of the clicked tile.
      */
-    private int calculateButtonSize() {
-        int totalMargin = 10 * (gridSize + 1);
-        int availableWidth = getResources().getDisplayMetrics().widthPixels - totalMargin;
-        int availableHeight = getResources().getDisplayMetrics().heightPixels - totalMargin;
-        return (int) ((double) Math.min(availableWidth, availableHeight) / gridSize * 0.9);
+    private void onTileClick(int row, int col) {
+        long start = PerfMetrics.begin(PerfMetrics.Stage.TILE_CLICK);
+        PerfMetrics.increment(PerfMetrics.Counter.TAPS);
+        boolean isWon = game != null && replayPlayer == null && !isPaused && moveTiles(row, col) && isSolved();
+        PerfMetrics.end(PerfMetrics.Stage.TILE_CLICK, start);
+        if (isWon) {
+            handleGameWin();
+        }
     }
 
     /**
-     * Creates a button representing a tile in the puzzle.
+     * Moves the tiles of the game, timed; the move listener runs inside.
      *
-     * @param row        The row position of the tile.
-     * @param col        The column position of the tile.
-     * @param buttonSize The size of the button.
-     */
-    private void createButton(int row, int col, int buttonSize) {
-        Button button = new Button(this);
-        int tileValue = game.getTileValue(row, col);
-
-        GridLayout.LayoutParams params = new GridLayout.LayoutParams();
-        params.rowSpec = GridLayout.spec(row);
-        params.columnSpec = GridLayout.spec(col);
-        params.width = buttonSize;
-        params.height = buttonSize;
-        params.setMargins(5, 5, 5, 5);
-        button.setLayoutParams(params);
-
-        if (tileValue == 0) {
-            button.setText("");
-            button.setBackgroundResource(R.drawable.tile_empty);
+     * @param row The row of the clicked tile.
+     * @param col The column of the clicked tile.
+     * @return True if tiles moved.
+     */
+    private boolean moveTiles(int row, int col) {
+        long start = PerfMetrics.begin(PerfMetrics.Stage.MOVE_TILES);
+        boolean isMoved = game.moveTiles(row, col);
+        PerfMetrics.end(PerfMetrics.Stage.MOVE_TILES, start);
+        if (!isMoved) {
+            PerfMetrics.increment(PerfMetrics.Counter.REJECTED_TAPS);
+        }
+        return isMoved;
+    }
+
+    /**
+     * Checks whether the game is solved, timed.
+     *
+     * @return True if the puzzle is solved.
+     */
+    private boolean isSolved() {
+        long start = PerfMetrics.begin(PerfMetrics.Stage.IS_SOLVED);
+        boolean isSolved = game.isSolved();
+        PerfMetrics.end(PerfMetrics.Stage.IS_SOLVED, start);
+        return isSolved;
+    }
+
+    /**
+     * Reacts to a move, undo or redo on the game: redraws the slid line, records the move, updates
+     * the counters and schedules the save.
+     *
+     * @param board The game.
+     * @param event The move; it is only valid during this call.
+     */
+    private void onGameMove(PuzzleBoard board, MoveEvent event) {
+        long start = PerfMetrics.begin(PerfMetrics.Stage.GAME_MOVE);
+        PerfMetrics.increment(PerfMetrics.Counter.MOVES);
+        cancelHint();
+        boardView.applyMove(event);
+        recordMove();
+        int cell;
+        if (event.getKind() == MoveEvent.UNDO) {
+            moveCount--;
+            cell = MoveJournal.UNDO;
         } else {
-            button.setText(String.valueOf(tileValue));
-            button.setBackgroundResource(R.drawable.tile_normal);
+            moveCount++;
+            cell = event.getKind() == MoveEvent.REDO ? MoveJournal.REDO : event.getEmptyIndex();
         }
+        updateStatus();
+        saveScheduler.onMove(cell, moveCount, pauseOffset, isPaused);
+        PerfMetrics.end(PerfMetrics.Stage.GAME_MOVE, start);
+    }
 
-        buttons[row][col] = button;
-        gridLayout.addView(button);
+    /**
+     * Starts recording the current game from its current board.
+     *
+     * @param playingTime The playing time so far, which becomes time 0 of the recording.
+     */
+    private void startRecording(long playingTime) {
+        recording = new GameRecording(rows, columns, game.getTiles());
+        recordingTimeOffset = playingTime;
+    }
+
+    /**
+     * Records the move just made. Every move leaves the empty cell on the tapped cell, which is
+     * what the recording stores.
+     */
+    private void recordMove() {
+        recording.record(game.getEmptyIndex(), getPlayingTime() - recordingTimeOffset);
+    }
 
-        button.setOnClickListener(v -> onTileClick(row, col));
+    /**
+     * Reverts the last move. An undo takes a move back, so it lowers the move count.
+     */
+    private void undoMove() {
+        if (!isPaused && game != null) {
+            game.undoMove();
+        }
     }
 
     /**
-     * Handles tile click events and moves tiles if possible.
+     * Reapplies the last undone move, which may solve the puzzle.
+     */
+    private void redoMove() {
+        if (!isPaused && game != null && game.redoMove() && isSolved()) {
+            handleGameWin();
+        }
+    }
+
+    /**
+     * Asks the hint engine for the best next move. The answer arrives asynchronously and is shown
+     * by {@link #showHint(HintEngine.Request, HintEngine.Hint)}.
+     */
+    private void requestHint() {
+        if (isPaused || game == null) {
+            return;
+        }
+        if (!game.isSquare()) {
+            Toast.makeText(this, R.string.hint_unavailable, Toast.LENGTH_SHORT).show();
+            return;
+        }
+        cancelHint();
+        pendingHint = hintEngine.requestHint(game, (request, hint) -> runOnUiThread(() -> showHint(request, hint)));
+    }
+
+    /**
+     * Highlights the hinted tile, unless the request has been superseded or cancelled meanwhile.
      *
-     * @param row The row of the clicked tile.
-     * @param col The column of the clicked tile.
+     * @param request The request that produced the hint.
+     * @param hint    The suggested move.
      */
-    private void onTileClick(int row, int col) {
-        if (!isPaused && game.moveTiles(row, col)) {
-            moveCount++;
-            updateUI();
-            gameStateManager.saveTemporaryGameState(game, moveCount, pauseOffset, isPaused);
-            if (game.isSolved()) {
-                handleGameWin();
-            }
+    private void showHint(HintEngine.Request request, HintEngine.Hint hint) {
+        if (request != pendingHint || request.isCancelled()) {
+            return;
+        }
+        pendingHint = null;
+        int cell = hint.getCell();
+        if (cell < 0) {
+            Toast.makeText(this, R.string.hint_unavailable, Toast.LENGTH_SHORT).show();
+            return;
         }
+        boardView.setHighlightedCell(cell);
     }
 
     /**
-     * Updates the UI elements after tile moves.
+     * Cancels an outstanding hint request. Any highlighted tile is reset by the next tile update.
+     */
+    private void cancelHint() {
+        if (pendingHint != null) {
+            pendingHint.cancel();
+            pendingHint = null;
+        }
+    }
+
+    /**
+     * Updates the whole board and the status elements, e.g. after a new or restored game.
      */
     private void updateUI() {
-        updateTiles();
+        long start = PerfMetrics.begin(PerfMetrics.Stage.UPDATE_UI);
+        updateTiles(game);
+        updateStatus();
+        PerfMetrics.end(PerfMetrics.Stage.UPDATE_UI, start);
+    }
+
+    /**
+     * Updates the move counter, the "tiles in place" indicator and the chronometer.
+     */
+    private void updateStatus() {
         updateMoveCounter();
+        updateTilesInPlace();
         chronometer.setBase(SystemClock.elapsedRealtime() - pauseOffset);
     }
 
     /**
-     * Updates the tiles in the grid.
+     * Updates the tiles on the board view, which redraws only the cells that changed.
+     *
+     * @param board The board to show: the game, or the board of a running replay.
      */
-    private void updateTiles() {
-        for (int i = 0; i < buttons.length; i++) {
-            for (int j = 0; j < buttons[i].length; j++) {
-                int tileValue = game.getTileValue(i, j);
-                if (tileValue == 0) {
-                    buttons[i][j].setText("");
-                    buttons[i][j].setBackgroundResource(R.drawable.tile_empty);
-                } else {
-                    buttons[i][j].setText(String.valueOf(tileValue));
-                    buttons[i][j].setBackgroundResource(R.drawable.tile_normal);
-                }
-            }
-        }
+    private void updateTiles(PuzzleBoard board) {
+        boardView.showBoard(board);
     }
 
     /**
@@ -386,25 +691,138 @@ public class MainActivity extends AppCompatActivity {
         moveCounterTextView.setText(getString(R.string.move_counter, moveCount));
     }
 
+    /**
+     * Updates the "tiles in place" indicator from the game's incrementally maintained count.
+     */
+    private void updateTilesInPlace() {
+        tilesInPlaceTextView.setText(getString(R.string.tiles_in_place, game.getTilesInPlace(), rows * columns - 1));
+    }
+
     /**
      * Handles the game win scenario and shows a dialog with options to play again or return to the menu.
      */
     private void handleGameWin() {
         pauseGame();
         calculateGameStatistics();
-        gameStateManager.deleteTemporaryGameState(gridSize);
+        gameStateManager.recordCompletedGame(new GameHistory.Record(rows, columns, GameHistory.Outcome.WON, moveCount, gameStartTime, pauseOffset, gameSeed));
+        saveScheduler.onGameFinished();
+        gameStateManager.deleteTemporaryGameState(sizeKey);
+        gameStateManager.saveReplay(recording);
+
+        showWinDialog();
+    }
+
+    /**
+     * Shows the dialog offered after a win.
+     */
+    private void showWinDialog() {
+        new AlertDialog.Builder(this).setTitle("Congratulations!").setMessage("You've solved the puzzle. What would you like to do next?").setPositiveButton("Play Again", (dialog, which) -> startNewGame()).setNegativeButton("Go to Menu", (dialog, which) -> goToMenu()).setNeutralButton("Watch Replay", (dialog, which) -> startReplay(recording)).show();
+    }
+
+    /**
+     * Shares the code of the current puzzle as text, so another player can enter it in the menu and
+     * play the same board. A shuffled game shares its starting board, recreated from the seed; a
+     * game without a seed shares the board as it is now.
+     */
+    private void sharePuzzle() {
+        if (game == null) {
+            return;
+        }
+        String code = gameSeed != 0 ? new PuzzleBoard(rows, columns, gameSeed).getCode() : game.getCode();
+        Intent intent = new Intent(Intent.ACTION_SEND);
+        intent.setType("text/plain");
+        intent.putExtra(Intent.EXTRA_TEXT, getString(R.string.share_puzzle_text, rows, columns, code));
+        startActivity(Intent.createChooser(intent, getString(R.string.share_puzzle)));
+    }
+
+    /**
+     * Plays the saved replay of the last won game of this grid size once it has been read in the background.
+     */
+    private void startSavedReplay() {
+        if (game == null) {
+            return;
+        }
+        gameStateManager.loadReplay(sizeKey, saved -> {
+            if (isFinishing() || isDestroyed()) {
+                return;
+            }
+            if (saved == null || saved.getRows() != rows || saved.getColumns() != columns) {
+                Toast.makeText(this, R.string.replay_unavailable, Toast.LENGTH_SHORT).show();
+                return;
+            }
+            startReplay(saved);
+        });
+    }
+
+    /**
+     * Pauses the game and plays a recording on the grid. Tiles cannot be moved until the replay is closed.
+     *
+     * @param replay The recording to play.
+     */
+    private void startReplay(GameRecording replay) {
+        cancelHint();
+        stopReplay();
+        pauseGame();
+        try {
+            replayPlayer = new ReplayPlayer(replay, this::showReplay);
+        } catch (IllegalArgumentException e) {
+            Log.e("MainActivity", "Replay is damaged.", e);
+            Toast.makeText(this, R.string.replay_unavailable, Toast.LENGTH_SHORT).show();
+            return;
+        }
+        replaySeekBar.setMax(replayPlayer.getEngine().getLength());
+        replayControls.setVisibility(View.VISIBLE);
+        showReplay(replayPlayer.getEngine());
+        replayPlayer.play();
+    }
+
+    /**
+     * Shows the replay state: the board, the position and the controls.
+     *
+     * @param engine The replay engine at its new position.
+     */
+    private void showReplay(ReplayEngine engine) {
+        updateTiles(engine.getBoard());
+        replaySeekBar.setProgress(engine.getPosition());
+        replayPositionTextView.setText(getString(R.string.replay_position, engine.getPosition(), engine.getLength()));
+        buttonReplayPlay.setImageResource(replayPlayer.isPlaying() ? R.drawable.ic_pause : R.drawable.ic_play);
+        buttonReplaySpeed.setText(getString(R.string.replay_speed, replayPlayer.getSpeed()));
+    }
 
-        new AlertDialog.Builder(this).setTitle("Congratulations!").setMessage("You've solved the puzzle. What would you like to do next?").setPositiveButton("Play Again", (dialog, which) -> startNewGame()).setNegativeButton("Go to Menu", (dialog, which) -> goToMenu()).show();
+    /**
+     * Closes the replay and shows the game again; a won game offers its dialog again.
+     */
+    private void closeReplay() {
+        stopReplay();
+        updateTiles(game);
+        if (game.isSolved()) {
+            showWinDialog();
+        }
     }
 
     /**
-     * Displays the current game statistics in a dialog.
+     * Stops a running replay and hides its controls.
+     */
+    private void stopReplay() {
+        if (replayPlayer != null) {
+            replayPlayer.release();
+            replayPlayer = null;
+            replayControls.setVisibility(View.GONE);
+        }
+    }
+
+    /**
+     * Displays the current game statistics in a dialog once they have been read in the background.
      */
     private void showStatistics() {
         pauseGame();
 
-        String stats = gameStateManager.getFormattedStatistics(gridSize);
-        new AlertDialog.Builder(this).setTitle("Current Game Statistics").setMessage(stats).setPositiveButton("View All Statistics", (dialog, which) -> launchStatisticsActivity()).setNegativeButton("Close", (dialog, which) -> resumeGame()).setCancelable(false).show();
+        gameStateManager.loadFormattedStatistics(sizeKey, stats -> {
+            if (isFinishing() || isDestroyed()) {
+                return;
+            }
+            new AlertDialog.Builder(this).setTitle("Current Game Statistics").setMessage(stats).setPositiveButton("View All Statistics", (dialog, which) -> launchStatisticsActivity()).setNegativeButton("Close", (dialog, which) -> resumeGame()).setCancelable(false).show();
+        });
     }
 
     /**
@@ -412,7 +830,6 @@ public class MainActivity extends AppCompatActivity {
      */
     private void launchStatisticsActivity() {
         Intent intent = new Intent(MainActivity.this, StatisticsActivity.class);
-        intent.putExtra("prefsName", "GameStatsPrefs");
         startActivity(intent);
     }
 
@@ -420,6 +837,7 @@ public class MainActivity extends AppCompatActivity {
      * Calculates and saves the game statistics after a win.
      */
     private void calculateGameStatistics() {
+        gamesPlayed++;
         gamesWon++;
         winPercentage = (gamesPlayed > 0) ? (double) gamesWon / gamesPlayed * 100 : 0.0;
 
@@ -427,7 +845,29 @@ public class MainActivity extends AppCompatActivity {
         if (currentTime < bestTime) bestTime = currentTime;
         if (moveCount < bestMoveCount || bestMoveCount == 0) bestMoveCount = moveCount;
 
-        gameStateManager.saveGameStatistics(gridSize, gamesPlayed, gamesWon, winPercentage, bestTime, bestMoveCount);
+        gameStateManager.saveGameStatistics(sizeKey, gamesPlayed, gamesWon, winPercentage, bestTime, bestMoveCount);
+    }
+
+    /**
+     * Records an unfinished game that is being replaced by a new one.
+     *
+     * @param moves    The number of moves made in the game.
+     * @param duration The playing time in milliseconds.
+     */
+    private void recordAbandonedGame(int moves, long duration) {
+        gamesPlayed++;
+        winPercentage = (double) gamesWon / gamesPlayed * 100;
+        gameStateManager.saveGameStatistics(sizeKey, gamesPlayed, gamesWon, winPercentage, bestTime, bestMoveCount);
+        gameStateManager.recordCompletedGame(new GameHistory.Record(rows, columns, GameHistory.Outcome.ABANDONED, moves, gameStartTime, duration, gameSeed));
+    }
+
+    /**
+     * Retrieves the playing time of the current game.
+     *
+     * @return The elapsed time in milliseconds, excluding pauses.
+     */
+    private long getPlayingTime() {
+        return isPaused ? pauseOffset : SystemClock.elapsedRealtime() - chronometer.getBase();
     }
 
     /**
@@ -436,22 +876,32 @@ public class MainActivity extends AppCompatActivity {
     @Override
     protected void onSaveInstanceState(@NonNull Bundle outState) {
         super.onSaveInstanceState(outState);
-        outState.putString("gameStateJson", gson.toJson(game));
+        if (game == null) {
+            // Still loading; the new instance loads the saved game itself
+            return;
+        }
+        outState.putParcelable("game", game);
         outState.putInt("moveCount", moveCount);
         outState.putLong("chronometerBase", chronometer.getBase());
         outState.putLong("pauseOffset", pauseOffset);
         outState.putBoolean("isPaused", isPaused);
+        outState.putLong("gameSeed", gameSeed);
+        outState.putLong("gameStartTime", gameStartTime);
+        outState.putByteArray("recording", recording.toByteArray());
+        outState.putLong("recordingTimeOffset", recordingTimeOffset);
     }
 
     /**
-     * Restores the game state from the saved instance state.
+     * Restores the timer from the saved instance state; the game itself was restored in {@link #onCreate(Bundle)}.
      *
      * @param savedInstanceState The saved instance state.
      */
     @Override
     protected void onRestoreInstanceState(@NonNull Bundle savedInstanceState) {
         super.onRestoreInstanceState(savedInstanceState);
-        restoreGameStateFromBundle(savedInstanceState);
+        if (savedInstanceState.getParcelable("game") == null) {
+            return;
+        }
 
         chronometer.setBase(savedInstanceState.getLong("chronometerBase"));
         isPaused = savedInstanceState.getBoolean("isPaused", false);
@@ -463,50 +913,84 @@ public class MainActivity extends AppCompatActivity {
     }
 
     /**
-     * Restores the game state from the saved instance bundle.
+     * Restores the game state from the saved instance bundle. The game is parcelled, so restoring
+     * it needs no reflection.
      *
-     * @param savedInstanceState The saved instance state.
+     * @param savedInstanceState The saved instance state, which holds a game.
      */
     private void restoreGameStateFromBundle(Bundle savedInstanceState) {
-        String gameStateJson = savedInstanceState.getString("gameStateJson");
+        game = savedInstanceState.getParcelable("game");
+        moveCount = savedInstanceState.getInt("moveCount");
+        pauseOffset = savedInstanceState.getLong("pauseOffset");
+        gameSeed = savedInstanceState.getLong("gameSeed");
+        gameStartTime = savedInstanceState.getLong("gameStartTime");
+        restoreRecording(savedInstanceState);
+        saveScheduler.onGameStarted(game, moveCount, pauseOffset, savedInstanceState.getBoolean("isPaused", false));
+        initializeGrid();
+        updateUI();
+    }
 
-        if (gameStateJson != null) {
-            game = gson.fromJson(gameStateJson, PuzzleGame.class);
-            initializeGrid();
-            updateUI();
-        } else {
-            Log.e("MainActivity", "Game state JSON is null. Starting a new game.");
-            startNewGame();
+    /**
+     * Restores the recording from the saved instance state, or starts a new one from the current board.
+     *
+     * @param savedInstanceState The saved instance state.
+     */
+    private void restoreRecording(Bundle savedInstanceState) {
+        byte[] saved = savedInstanceState.getByteArray("recording");
+        try {
+            if (saved != null) {
+                recording = GameRecording.fromByteArray(saved);
+                recordingTimeOffset = savedInstanceState.getLong("recordingTimeOffset");
+                return;
+            }
+        } catch (IllegalArgumentException e) {
+            Log.e("MainActivity", "Saved recording is damaged.", e);
         }
+        startRecording(pauseOffset);
     }
 
     /**
-     * Saves the game state and statistics when the activity is paused.
+     * Flushes unsaved game state when the activity is paused. Statistics are saved when they
+     * change, after a win, so they are not rewritten here. The hot-path metrics, including the frame
+     * times of the slide animations, are written to a file for offline analysis.
      */
     @Override
     protected void onPause() {
         super.onPause();
-        gameStateManager.saveTemporaryGameState(game, moveCount, pauseOffset, isPaused);
-        gameStateManager.saveGameStatistics(gridSize, gamesPlayed, gamesWon, winPercentage, bestTime, bestMoveCount);
+        cancelHint();
+        if (replayPlayer != null) {
+            replayPlayer.pause();
+        }
+        saveScheduler.flush();
+        gameStateManager.saveMetrics(PerfMetrics.snapshot());
+        metricsOverlay.removeCallbacks(metricsOverlayUpdater);
     }
 
     /**
-     * Resumes the game state when the activity is resumed.
+     * Resumes the game when the activity is resumed, unless a replay is showing, and the
+     * performance overlay if it is shown.
      */
     @Override
     protected void onResume() {
         super.onResume();
-        resumeGame();
+        if (replayPlayer == null) {
+            resumeGame();
+        }
+        if (metricsOverlay.getVisibility() == View.VISIBLE) {
+            updateMetricsOverlay();
+        }
     }
 
     /**
-     * Saves the game state and statistics when the activity is destroyed.
+     * Releases background work when the activity is destroyed. The state was already flushed in
+     * {@link #onPause()}, which always runs first.
      */
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        gameStateManager.saveTemporaryGameState(game, moveCount, pauseOffset, isPaused);
-        gameStateManager.saveGameStatistics(gridSize, gamesPlayed, gamesWon, winPercentage, bestTime, bestMoveCount);
+        hintEngine.shutdown();
+        saveScheduler.cancelScheduledSave();
+        stopReplay();
     }
 
     /**
@@ -515,6 +999,7 @@ public class MainActivity extends AppCompatActivity {
     private void pauseChronometer() {
         pauseOffset = SystemClock.elapsedRealtime() - chronometer.getBase();
         chronometer.stop();
+        saveScheduler.onTimerChanged(pauseOffset, true);
     }
 
     /**
@@ -523,6 +1008,7 @@ public class MainActivity extends AppCompatActivity {
     private void resumeChronometer() {
         chronometer.setBase(SystemClock.elapsedRealtime() - pauseOffset);
         chronometer.start();
+        saveScheduler.onTimerChanged(pauseOffset, false);
     }
 
     /**
@@ -536,10 +1022,12 @@ public class MainActivity extends AppCompatActivity {
     }
 
     /**
-     * Toggles the pause state of the game.
+     * Toggles the pause state of the game, or of the replay while one is showing.
      */
     private void togglePause() {
-        if (isPaused) {
+        if (replayPlayer != null) {
+            replayPlayer.togglePlayback();
+        } else if (isPaused) {
             resumeGame();
         } else {
             pauseGame();
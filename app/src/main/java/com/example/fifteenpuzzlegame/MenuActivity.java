@@ -2,16 +2,24 @@ package com.example.fifteenpuzzlegame;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.widget.Toast;
 
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.fifteenpuzzlegame.databinding.ActivityMenuBinding;
+import com.example.fifteenpuzzlegame.databinding.DialogCustomSizeBinding;
+import com.example.fifteenpuzzlegame.databinding.DialogPuzzleCodeBinding;
 
 /**
- * MenuActivity provides the UI for selecting the puzzle grid size.
+ * MenuActivity provides the UI for selecting the puzzle grid size or entering a shared puzzle code.
  */
 public class MenuActivity extends AppCompatActivity {
 
+    private static final int MIN_CUSTOM_SIZE = 2;
+    private static final int DEFAULT_CUSTOM_ROWS = 4;
+    private static final int DEFAULT_CUSTOM_COLUMNS = 6;
+
     private ActivityMenuBinding binding;
 
     /**
@@ -33,22 +41,78 @@ public class MenuActivity extends AppCompatActivity {
 
     /**
      * Initializes the menu buttons for selecting grid sizes.
-     * Each button click starts the MainActivity with the corresponding grid size.
+     * Each button click starts the MainActivity with the corresponding grid size; the custom
+     * button lets the player pick any board up to {@value PuzzleBoard#MAX_SIZE}x{@value PuzzleBoard#MAX_SIZE},
+     * and the code button plays a board shared by another player.
      */
     private void initializeMenuButtons() {
-        binding.gridSizeButton3x3.setOnClickListener(view -> launchGame(3));
-        binding.gridSizeButton4x4.setOnClickListener(view -> launchGame(4));
-        binding.gridSizeButton5x5.setOnClickListener(view -> launchGame(5));
+        binding.gridSizeButton3x3.setOnClickListener(view -> launchGame(3, 3));
+        binding.gridSizeButton4x4.setOnClickListener(view -> launchGame(4, 4));
+        binding.gridSizeButton5x5.setOnClickListener(view -> launchGame(5, 5));
+        binding.gridSizeButtonCustom.setOnClickListener(view -> showCustomSizeDialog());
+        binding.puzzleCodeButton.setOnClickListener(view -> showPuzzleCodeDialog());
+    }
+
+    /**
+     * Shows a dialog for picking the number of rows and columns, then launches the game.
+     */
+    private void showCustomSizeDialog() {
+        DialogCustomSizeBinding dialogBinding = DialogCustomSizeBinding.inflate(getLayoutInflater());
+        dialogBinding.pickerRows.setMinValue(MIN_CUSTOM_SIZE);
+        dialogBinding.pickerRows.setMaxValue(PuzzleBoard.MAX_SIZE);
+        dialogBinding.pickerRows.setValue(DEFAULT_CUSTOM_ROWS);
+        dialogBinding.pickerColumns.setMinValue(MIN_CUSTOM_SIZE);
+        dialogBinding.pickerColumns.setMaxValue(PuzzleBoard.MAX_SIZE);
+        dialogBinding.pickerColumns.setValue(DEFAULT_CUSTOM_COLUMNS);
+
+        new AlertDialog.Builder(this).setTitle(R.string.custom_size_title).setView(dialogBinding.getRoot()).setPositiveButton(R.string.custom_size_play, (dialog, which) -> launchGame(dialogBinding.pickerRows.getValue(), dialogBinding.pickerColumns.getValue())).setNegativeButton(android.R.string.cancel, null).show();
+    }
+
+    /**
+     * Shows a dialog for entering a puzzle code, then launches the game with the board it describes.
+     */
+    private void showPuzzleCodeDialog() {
+        DialogPuzzleCodeBinding dialogBinding = DialogPuzzleCodeBinding.inflate(getLayoutInflater());
+
+        new AlertDialog.Builder(this).setTitle(R.string.puzzle_code_title).setView(dialogBinding.getRoot()).setPositiveButton(R.string.custom_size_play, (dialog, which) -> launchGame(dialogBinding.editPuzzleCode.getText().toString())).setNegativeButton(android.R.string.cancel, null).show();
+    }
+
+    /**
+     * Launches the MainActivity with the board a puzzle code describes. The code is checked here, so
+     * the game screen only ever receives valid ones.
+     *
+     * @param code The puzzle code.
+     */
+    private void launchGame(String code) {
+        String trimmed = code.trim();
+        try {
+            BoardCode.decode(trimmed);
+        } catch (IllegalArgumentException e) {
+            Toast.makeText(this, R.string.puzzle_code_invalid, Toast.LENGTH_SHORT).show();
+            return;
+        }
+        int rows = BoardCode.rowsOf(trimmed);
+        int columns = BoardCode.columnsOf(trimmed);
+        ((PuzzleApplication) getApplication()).getStateLoader().preload(GameStateManager.sizeKey(rows, columns));
+        Intent intent = new Intent(this, MainActivity.class);
+        intent.putExtra("numButtonRows", rows);
+        intent.putExtra("numButtonColumns", columns);
+        intent.putExtra("puzzleCode", trimmed);
+        startActivity(intent);
     }
 
     /**
-     * Launches the MainActivity with the specified grid size.
+     * Launches the MainActivity with the specified board size. The saved game of that size starts
+     * loading in the background right away, while the activity is being created.
      *
-     * @param gridSize The size of the puzzle grid (e.g., 3x3, 4x4, or 5x5).
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
      */
-    private void launchGame(int gridSize) {
+    private void launchGame(int rows, int columns) {
+        ((PuzzleApplication) getApplication()).getStateLoader().preload(GameStateManager.sizeKey(rows, columns));
         Intent intent = new Intent(this, MainActivity.class);
-        intent.putExtra("numButtonRows", gridSize); // Pass grid size to MainActivity
+        intent.putExtra("numButtonRows", rows); // Pass board size to MainActivity
+        intent.putExtra("numButtonColumns", columns);
         startActivity(intent);
     }
 }
@@ -0,0 +1,241 @@
+package com.example.fifteenpuzzlegame;
+
+import android.os.Trace;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Process-wide registry of latency histograms and counters for the game's hot paths.
+ * <p>
+ * A timed stage is wrapped in {@link #begin(Stage)} and {@link #end(Stage, long)}, which also open and
+ * close an {@link Trace} section named after the stage, so the same code shows up in system traces.
+ * Recording is lock-free and allocation-free (see {@link LatencyHistogram}), so it stays enabled in
+ * every build. {@link #snapshot()} copies the current figures for the debug overlay and for the
+ * metrics file.
+ */
+public final class PerfMetrics {
+
+    /**
+     * The timed stages of starting a game and handling a move.
+     */
+    public enum Stage {
+        STATE_LOAD("stateLoad"),
+        FIRST_FRAME("timeToFirstFrame"),
+        FIRST_BOARD("timeToBoard"),
+        TILE_CLICK("onTileClick"),
+        MOVE_TILES("moveTiles"),
+        GAME_MOVE("onGameMove"),
+        IS_SOLVED("isSolved"),
+        UPDATE_UI("updateUI"),
+        INITIALIZE_GRID("initializeGrid"),
+        SAVE_STATE("saveTemporaryGameState"),
+        JOURNAL_WRITE("journalWrite"),
+        SLIDE_FRAME("slideFrame");
+
+        private final String label;
+        private final String sectionName;
+
+        Stage(String label) {
+            this.label = label;
+            this.sectionName = "Puzzle." + label;
+        }
+
+        /**
+         * Retrieves the name shown in the overlay and the metrics file.
+         *
+         * @return The label.
+         */
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * Events that are counted rather than timed.
+     */
+    public enum Counter {
+        TAPS("taps"),
+        REJECTED_TAPS("rejectedTaps"),
+        MOVES("moves"),
+        SNAPSHOTS("snapshots"),
+        APPENDED_MOVES("appendedMoves"),
+        DROPPED_FRAMES("droppedFrames");
+
+        private final String label;
+
+        Counter(String label) {
+            this.label = label;
+        }
+
+        /**
+         * Retrieves the name shown in the overlay and the metrics file.
+         *
+         * @return The label.
+         */
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private static final LatencyHistogram[] HISTOGRAMS = new LatencyHistogram[Stage.values().length];
+    private static final AtomicLongArray COUNTERS = new AtomicLongArray(Counter.values().length);
+
+    static {
+        for (int i = 0; i < HISTOGRAMS.length; i++) {
+            HISTOGRAMS[i] = new LatencyHistogram();
+        }
+    }
+
+    private PerfMetrics() {
+    }
+
+    /**
+     * Starts timing a stage and opens its trace section. Must be paired with {@link #end(Stage, long)}
+     * on the same thread, in nesting order.
+     *
+     * @param stage The stage.
+     * @return The start time, to pass to {@link #end(Stage, long)}.
+     */
+    public static long begin(Stage stage) {
+        Trace.beginSection(stage.sectionName);
+        return System.nanoTime();
+    }
+
+    /**
+     * Stops timing a stage, records its duration and closes its trace section.
+     *
+     * @param stage      The stage.
+     * @param startNanos The start time returned by {@link #begin(Stage)}.
+     */
+    public static void end(Stage stage, long startNanos) {
+        HISTOGRAMS[stage.ordinal()].record(System.nanoTime() - startNanos);
+        Trace.endSection();
+    }
+
+    /**
+     * Records a duration measured elsewhere, e.g. on a thread that must not open trace sections.
+     *
+     * @param stage The stage.
+     * @param nanos The duration in nanoseconds.
+     */
+    public static void record(Stage stage, long nanos) {
+        HISTOGRAMS[stage.ordinal()].record(nanos);
+    }
+
+    /**
+     * Adds one to a counter.
+     *
+     * @param counter The counter.
+     */
+    public static void increment(Counter counter) {
+        COUNTERS.incrementAndGet(counter.ordinal());
+    }
+
+    /**
+     * Adds to a counter.
+     *
+     * @param counter The counter.
+     * @param delta   The amount to add.
+     */
+    public static void add(Counter counter, long delta) {
+        COUNTERS.addAndGet(counter.ordinal(), delta);
+    }
+
+    /**
+     * Retrieves the histogram of a stage.
+     *
+     * @param stage The stage.
+     * @return The live histogram.
+     */
+    public static LatencyHistogram getHistogram(Stage stage) {
+        return HISTOGRAMS[stage.ordinal()];
+    }
+
+    /**
+     * Copies the current figures of all stages and counters.
+     *
+     * @return The snapshot.
+     */
+    public static Snapshot snapshot() {
+        return new Snapshot();
+    }
+
+    /**
+     * Clears all histograms and counters.
+     */
+    public static void reset() {
+        for (LatencyHistogram histogram : HISTOGRAMS) {
+            histogram.reset();
+        }
+        for (int i = 0; i < COUNTERS.length(); i++) {
+            COUNTERS.set(i, 0);
+        }
+    }
+
+    /**
+     * The figures of all stages and counters at one point in time.
+     */
+    public static final class Snapshot {
+        private final long timeMillis = System.currentTimeMillis();
+        private final long[] counts = new long[HISTOGRAMS.length];
+        private final long[] p50 = new long[HISTOGRAMS.length];
+        private final long[] p99 = new long[HISTOGRAMS.length];
+        private final long[] max = new long[HISTOGRAMS.length];
+        private final long[] counters = new long[COUNTERS.length()];
+
+        private Snapshot() {
+            for (int i = 0; i < HISTOGRAMS.length; i++) {
+                counts[i] = HISTOGRAMS[i].getCount();
+                p50[i] = HISTOGRAMS[i].getPercentile(50);
+                p99[i] = HISTOGRAMS[i].getPercentile(99);
+                max[i] = HISTOGRAMS[i].getMax();
+            }
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] = COUNTERS.get(i);
+            }
+        }
+
+        /**
+         * Formats the stages that have run, with their p50 and p99 in microseconds, and the counters,
+         * one per line, for the debug overlay.
+         *
+         * @return The text.
+         */
+        public String format() {
+            StringBuilder text = new StringBuilder(String.format(Locale.US, "%-16s %6s %8s %8s", "stage", "n", "p50 us", "p99 us"));
+            for (Stage stage : Stage.values()) {
+                int i = stage.ordinal();
+                if (counts[i] > 0) {
+                    text.append(String.format(Locale.US, "\n%-16.16s %6d %8.1f %8.1f", stage.label, counts[i], p50[i] / 1000.0, p99[i] / 1000.0));
+                }
+            }
+            for (Counter counter : Counter.values()) {
+                text.append(String.format(Locale.US, "\n%-16s %6d", counter.label, counters[counter.ordinal()]));
+            }
+            return text.toString();
+        }
+
+        /**
+         * Writes the snapshot as CSV: one line per stage with its count and latencies in nanoseconds,
+         * then one line per counter.
+         *
+         * @param writer The writer to write to; it is not closed.
+         * @throws IOException If writing fails.
+         */
+        public void writeCsv(Writer writer) throws IOException {
+            writer.write("# snapshot at " + timeMillis + "\n");
+            writer.write("stage,count,p50_ns,p99_ns,max_ns\n");
+            for (Stage stage : Stage.values()) {
+                int i = stage.ordinal();
+                writer.write(stage.label + "," + counts[i] + "," + p50[i] + "," + p99[i] + "," + max[i] + "\n");
+            }
+            writer.write("counter,value\n");
+            for (Counter counter : Counter.values()) {
+                writer.write(counter.label + "," + counters[counter.ordinal()] + "\n");
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.fifteenpuzzlegame;
+
+import android.app.Application;
+
+/**
+ * Holds the state layer shared by all activities: one {@link GameStateManager} and the
+ * {@link StateLoader} that reads from it in the background.
+ * <p>
+ * Both are created on first use, and creating them reads nothing; the preferences file is read on
+ * the loader thread right after the process starts, so no activity waits for it on the UI thread.
+ */
+public class PuzzleApplication extends Application {
+
+    private GameStateManager gameStateManager;
+    private StateLoader stateLoader;
+
+    /**
+     * Starts reading the preferences in the background as soon as the process is up.
+     */
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        getStateLoader().warmUp();
+    }
+
+    /**
+     * Retrieves the shared storage for game state, statistics and settings. Must be called on the UI thread.
+     *
+     * @return The game state manager.
+     */
+    public GameStateManager getGameStateManager() {
+        if (gameStateManager == null) {
+            gameStateManager = new GameStateManager(this);
+        }
+        return gameStateManager;
+    }
+
+    /**
+     * Retrieves the loader for saved state. Must be called on the UI thread.
+     *
+     * @return The state loader.
+     */
+    public StateLoader getStateLoader() {
+        if (stateLoader == null) {
+            stateLoader = new StateLoader(getGameStateManager());
+        }
+        return stateLoader;
+    }
+}
@@ -3,14 +3,13 @@ package com.example.fifteenpuzzlegame;
 import android.os.Parcel;
 import android.os.Parcelable;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-
 /**
- * Represents the logic and state of a Fifteen Puzzle game, including tile movements, shuffling, and solving.
+ * Represents a Fifteen Puzzle game that can be passed between Android components.
+ * <p>
+ * All game logic lives in {@link PuzzleBoard} in the engine module; this class only adds the
+ * Parcelable implementation and enables the undo/redo {@link MoveLog}.
  */
-public class PuzzleGame implements Parcelable {
+public class PuzzleGame extends PuzzleBoard implements Parcelable {
 
     public static final Creator<PuzzleGame> CREATOR = new Creator<PuzzleGame>() {
         @Override
@@ -24,183 +23,95 @@ public class PuzzleGame implements Parcelable {
         }
     };
 
-    private final int gridSize;
-    private final int[][] tiles;
-    private int emptyRow;
-    private int emptyCol;
-    private boolean isGameFinished;
-
     /**
      * Constructor to initialize a new PuzzleGame.
      *
      * @param gridSize The size of the grid (e.g., 3x3, 4x4).
      */
     public PuzzleGame(int gridSize) {
-        this.gridSize = gridSize;
-        this.tiles = new int[gridSize][gridSize];
-        initializeTiles();
-        shuffleTiles();
+        super(gridSize);
+        setMoveLog(new MoveLog());
     }
 
     /**
-     * Constructor used for Parcelable.
+     * Constructor to initialize a new PuzzleGame with a reproducible starting board.
      *
-     * @param in The Parcel containing the PuzzleGame data.
+     * @param gridSize The size of the grid (e.g., 3x3, 4x4).
+     * @param seed     The shuffle seed; equal seeds give equal boards.
      */
-    protected PuzzleGame(Parcel in) {
-        this.gridSize = in.readInt();
-        this.tiles = new int[gridSize][gridSize];
-        for (int i = 0; i < gridSize; i++) {
-            in.readIntArray(tiles[i]);
-        }
-        this.emptyRow = in.readInt();
-        this.emptyCol = in.readInt();
-        this.isGameFinished = in.readByte() != 0; // Read boolean as byte
+    public PuzzleGame(int gridSize, long seed) {
+        super(gridSize, seed);
+        setMoveLog(new MoveLog());
     }
 
     /**
-     * Initializes the tiles in ascending order with the last tile as empty.
+     * Constructor to initialize a new rectangular PuzzleGame with a reproducible starting board.
+     *
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     * @param seed    The shuffle seed; equal seeds give equal boards.
      */
-    private void initializeTiles() {
-        int number = 1;
-        for (int i = 0; i < gridSize; i++) {
-            for (int j = 0; j < gridSize; j++) {
-                if (i == gridSize - 1 && j == gridSize - 1) {
-                    tiles[i][j] = 0;  // Last tile is empty
-                } else {
-                    tiles[i][j] = number++;
-                }
-            }
-        }
-        emptyRow = gridSize - 1;
-        emptyCol = gridSize - 1;
+    public PuzzleGame(int rows, int columns, long seed) {
+        super(rows, columns, seed);
+        setMoveLog(new MoveLog());
     }
 
     /**
-     * Shuffles the tiles randomly, ensuring the puzzle remains solvable and not already solved.
+     * Constructor to initialize a PuzzleGame with a given arrangement, e.g. a recovered one.
+     *
+     * @param gridSize The size of the grid (e.g., 3x3, 4x4).
+     * @param tiles    The row-major tile values, 0 being the empty cell.
      */
-    public void shuffleTiles() {
-        List<Integer> flatTiles = new ArrayList<>();
-        for (int[] row : tiles) {
-            for (int tile : row) {
-                flatTiles.add(tile);
-            }
-        }
-
-        // Shuffle until a solvable and unsolved configuration is found
-        do {
-            Collections.shuffle(flatTiles);
-            int index = 0;
-            for (int i = 0; i < gridSize; i++) {
-                for (int j = 0; j < gridSize; j++) {
-                    tiles[i][j] = flatTiles.get(index++);
-                    if (tiles[i][j] == 0) {
-                        emptyRow = i;
-                        emptyCol = j;
-                    }
-                }
-            }
-        } while (!isSolvable() || isSolved());
+    public PuzzleGame(int gridSize, int[] tiles) {
+        this(gridSize, gridSize, tiles);
     }
 
     /**
-     * Attempts to move the tiles, either horizontally or vertically.
+     * Constructor to initialize a rectangular PuzzleGame with a given arrangement.
      *
-     * @param row The row of the tile to move.
-     * @param col The column of the tile to move.
-     * @return True if the tile was successfully moved, false otherwise.
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     * @param tiles   The row-major tile values, 0 being the empty cell.
      */
-    public boolean moveTiles(int row, int col) {
-        if (row == emptyRow || col == emptyCol) {
-            if (row == emptyRow) {
-                moveHorizontally(row, col);
-            } else {
-                moveVertically(row, col);
-            }
-            return true;
-        }
-        return false;
-    }
-
-    private void moveHorizontally(int row, int col) {
-        if (col > emptyCol) {
-            for (int c = emptyCol; c < col; c++) {
-                swapTiles(row, c, row, c + 1);
-            }
-        } else {
-            for (int c = emptyCol; c > col; c--) {
-                swapTiles(row, c, row, c - 1);
-            }
-        }
-    }
-
-    private void moveVertically(int row, int col) {
-        if (row > emptyRow) {
-            for (int r = emptyRow; r < row; r++) {
-                swapTiles(r, col, r + 1, col);
-            }
-        } else {
-            for (int r = emptyRow; r > row; r--) {
-                swapTiles(r, col, r - 1, col);
-            }
-        }
+    public PuzzleGame(int rows, int columns, int[] tiles) {
+        super(rows, columns, tiles);
+        setMoveLog(new MoveLog());
     }
 
-    private void swapTiles(int row1, int col1, int row2, int col2) {
-        int temp = tiles[row1][col1];
-        tiles[row1][col1] = tiles[row2][col2];
-        tiles[row2][col2] = temp;
-
-        emptyRow = row2;
-        emptyCol = col2;
+    /**
+     * Creates a PuzzleGame from a board code, e.g. one shared by another player.
+     *
+     * @param code The code, as returned by {@link #getCode()}.
+     * @return The new game.
+     * @throws IllegalArgumentException If the code is malformed or does not describe a board.
+     */
+    public static PuzzleGame fromCode(String code) {
+        int[] tiles = BoardCode.decode(code);
+        return new PuzzleGame(BoardCode.rowsOf(code), BoardCode.columnsOf(code), tiles);
     }
 
     /**
-     * Checks whether the current puzzle configuration is solvable.
+     * Creates a PuzzleGame from a board ID.
      *
-     * @return True if the puzzle is solvable, false otherwise.
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     * @param id      The ID, as returned by {@link #getId()}.
+     * @return The new game.
+     * @throws IllegalArgumentException If the size is unsupported or the ID is out of range.
      */
-    private boolean isSolvable() {
-        int[] flatTiles = new int[gridSize * gridSize - 1];
-        int index = 0;
-        for (int i = 0; i < gridSize; i++) {
-            for (int j = 0; j < gridSize; j++) {
-                if (tiles[i][j] != 0) {
-                    flatTiles[index++] = tiles[i][j];
-                }
-            }
-        }
-
-        // Count inversions
-        int inversions = 0;
-        for (int i = 0; i < flatTiles.length - 1; i++) {
-            for (int j = i + 1; j < flatTiles.length; j++) {
-                if (flatTiles[i] > flatTiles[j]) {
-                    inversions++;
-                }
-            }
-        }
-
-        return (inversions % 2 == 0);
+    public static PuzzleGame fromId(int rows, int columns, long id) {
+        return new PuzzleGame(rows, columns, BoardCode.fromId(rows, columns, id));
     }
 
     /**
-     * Checks whether the puzzle is currently solved.
+     * Constructor used for Parcelable.
      *
-     * @return True if the puzzle is solved, false otherwise.
+     * @param in The Parcel containing the PuzzleGame data.
      */
-    public boolean isSolved() {
-        int expectedValue = 1;
-        for (int i = 0; i < gridSize; i++) {
-            for (int j = 0; j < gridSize; j++) {
-                if (i == gridSize - 1 && j == gridSize - 1) {
-                    return tiles[i][j] == 0;
-                } else if (tiles[i][j] != expectedValue++) {
-                    return false;
-                }
-            }
-        }
-        return true;
+    protected PuzzleGame(Parcel in) {
+        // Arguments are evaluated left to right, matching the order written by writeToParcel
+        super(in.readInt(), in.readInt(), in.createByteArray(), in.readInt(), in.readByte() != 0);
+        setMoveLog(MoveLog.fromByteArray(in.createByteArray()));
     }
 
     /**
@@ -211,13 +122,12 @@ public class PuzzleGame implements Parcelable {
      */
     @Override
     public void writeToParcel(Parcel dest, int flags) {
-        dest.writeInt(gridSize);
-        for (int i = 0; i < gridSize; i++) {
-            dest.writeIntArray(tiles[i]);
-        }
-        dest.writeInt(emptyRow);
-        dest.writeInt(emptyCol);
-        dest.writeByte((byte) (isGameFinished ? 1 : 0));  // Boolean as byte
+        dest.writeInt(getRows());
+        dest.writeInt(getColumns());
+        dest.writeByteArray(getTileBytes());
+        dest.writeInt(getEmptyIndex());
+        dest.writeByte((byte) (isGameFinished() ? 1 : 0));  // Boolean as byte
+        dest.writeByteArray(getMoveLog() != null ? getMoveLog().toByteArray() : new MoveLog().toByteArray());
     }
 
     /**
@@ -229,33 +139,4 @@ public class PuzzleGame implements Parcelable {
     public int describeContents() {
         return 0;
     }
-
-    /**
-     * Retrieves the value of a specific tile.
-     *
-     * @param row The row of the tile.
-     * @param col The column of the tile.
-     * @return The value of the tile.
-     */
-    public int getTileValue(int row, int col) {
-        return tiles[row][col];
-    }
-
-    /**
-     * Checks if the game is finished.
-     *
-     * @return True if the game is finished, false otherwise.
-     */
-    public boolean isGameFinished() {
-        return isGameFinished;
-    }
-
-    /**
-     * Retrieves the size of the puzzle grid.
-     *
-     * @return The grid size (e.g., 3 for 3x3 grid).
-     */
-    public int getGridSize() {
-        return gridSize;
-    }
 }
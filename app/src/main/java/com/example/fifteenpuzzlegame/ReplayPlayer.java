@@ -0,0 +1,190 @@
+package com.example.fifteenpuzzlegame;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+/**
+ * Plays a {@link GameRecording} back in real time at an adjustable speed.
+ * <p>
+ * The player keeps a replay clock in game time. While playing, it wakes up exactly when the next
+ * recorded move is due rather than on every frame, advances the clock by the scaled wall time and
+ * seeks the {@link ReplayEngine} to it. Seeking by the user goes through the same engine, so any
+ * jump costs at most a checkpoint interval of moves.
+ * <p>
+ * All methods must be called on the main thread.
+ */
+public class ReplayPlayer {
+
+    /**
+     * Receives the replay state after every change.
+     */
+    public interface Listener {
+        /**
+         * Called when the displayed board or play state has changed.
+         *
+         * @param engine The engine, positioned at the new state.
+         */
+        void onReplayChanged(ReplayEngine engine);
+    }
+
+    /** The selectable playback speeds, as multiples of the recorded pace. */
+    private static final int[] SPEEDS = {1, 2, 4, 8};
+
+    private final ReplayEngine engine;
+    private final Listener listener;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable tick = this::tick;
+
+    private int speedIndex;
+    private boolean isPlaying;
+    private long replayTime;
+    private long lastTickTime;
+
+    /**
+     * Constructor to initialize a ReplayPlayer positioned at the start of the game.
+     *
+     * @param recording The recording to play.
+     * @param listener  Receives the state after every change.
+     * @throws IllegalArgumentException If the recording contains an illegal move.
+     */
+    public ReplayPlayer(GameRecording recording, Listener listener) {
+        this.engine = new ReplayEngine(recording);
+        this.listener = listener;
+    }
+
+    /**
+     * Starts or resumes playback; at the end of the replay it restarts from the beginning.
+     */
+    public void play() {
+        if (isPlaying) {
+            return;
+        }
+        if (engine.getPosition() == engine.getLength()) {
+            seekToMove(0);
+        }
+        isPlaying = true;
+        lastTickTime = SystemClock.uptimeMillis();
+        scheduleNextMove();
+        listener.onReplayChanged(engine);
+    }
+
+    /**
+     * Pauses playback at the current position.
+     */
+    public void pause() {
+        if (!isPlaying) {
+            return;
+        }
+        isPlaying = false;
+        handler.removeCallbacks(tick);
+        listener.onReplayChanged(engine);
+    }
+
+    /**
+     * Toggles between playing and paused.
+     */
+    public void togglePlayback() {
+        if (isPlaying) {
+            pause();
+        } else {
+            play();
+        }
+    }
+
+    /**
+     * Switches to the next playback speed, wrapping around after the fastest.
+     */
+    public void cycleSpeed() {
+        advanceClock();
+        speedIndex = (speedIndex + 1) % SPEEDS.length;
+        reschedule();
+        listener.onReplayChanged(engine);
+    }
+
+    /**
+     * Jumps to the state after a number of moves, keeping the play state.
+     *
+     * @param position The number of moves to apply.
+     */
+    public void seekToMove(int position) {
+        engine.seek(position);
+        replayTime = engine.getPosition() == 0 ? 0 : engine.getRecording().getTime(engine.getPosition() - 1);
+        lastTickTime = SystemClock.uptimeMillis();
+        reschedule();
+        listener.onReplayChanged(engine);
+    }
+
+    /**
+     * Stops playback for good; the player must not be used afterwards.
+     */
+    public void release() {
+        isPlaying = false;
+        handler.removeCallbacks(tick);
+    }
+
+    /**
+     * Retrieves the current playback speed.
+     *
+     * @return The speed as a multiple of the recorded pace.
+     */
+    public int getSpeed() {
+        return SPEEDS[speedIndex];
+    }
+
+    /**
+     * Checks whether the replay is playing.
+     *
+     * @return True if playing, false if paused or finished.
+     */
+    public boolean isPlaying() {
+        return isPlaying;
+    }
+
+    /**
+     * Retrieves the engine, e.g. to read the current board and position.
+     *
+     * @return The engine.
+     */
+    public ReplayEngine getEngine() {
+        return engine;
+    }
+
+    private void tick() {
+        advanceClock();
+        engine.seekToTime(replayTime);
+        if (engine.getPosition() == engine.getLength()) {
+            isPlaying = false;
+        } else {
+            scheduleNextMove();
+        }
+        listener.onReplayChanged(engine);
+    }
+
+    /**
+     * Advances the replay clock by the scaled wall time since the last update.
+     */
+    private void advanceClock() {
+        long now = SystemClock.uptimeMillis();
+        if (isPlaying) {
+            replayTime += (now - lastTickTime) * SPEEDS[speedIndex];
+        }
+        lastTickTime = now;
+    }
+
+    private void reschedule() {
+        handler.removeCallbacks(tick);
+        if (isPlaying) {
+            scheduleNextMove();
+        }
+    }
+
+    private void scheduleNextMove() {
+        if (engine.getPosition() >= engine.getLength()) {
+            handler.post(tick);
+            return;
+        }
+        long due = engine.getRecording().getTime(engine.getPosition()) - replayTime;
+        handler.postDelayed(tick, Math.max(0, due / SPEEDS[speedIndex]));
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.fifteenpuzzlegame;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.Arrays;
+
+/**
+ * Write-behind saving of the game in progress.
+ * <p>
+ * Every change bumps a version number. A save captures the state on the main thread and records
+ * the version it covers, so nothing is written while the saved version is current. With auto-save
+ * enabled, a burst of moves is coalesced into one background journal write shortly after the last
+ * move; with auto-save disabled the state is only written by {@link #flush()}, which the activity
+ * calls at real lifecycle boundaries and which waits until the data has reached the file system.
+ * <p>
+ * All methods must be called on the main thread.
+ */
+public class SaveScheduler {
+
+    /** How long after a change the background save runs; further changes within it are merged. */
+    private static final long COALESCE_DELAY_MILLIS = 300;
+
+    /** Pending moves kept before falling back to a snapshot, e.g. while auto-save is off. */
+    private static final int MAX_PENDING_MOVES = 64;
+
+    private final GameStateManager gameStateManager;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable scheduledSave = this::save;
+
+    private PuzzleGame game;
+    private int moveCount;
+    private long pauseOffset;
+    private boolean isPaused;
+
+    private int[] pendingMoves = new int[16];
+    private int pendingMoveCount;
+    private boolean isSnapshotRequired;
+
+    private long version;
+    private long savedVersion;
+    private boolean isSaveScheduled;
+
+    /**
+     * Constructor to initialize a SaveScheduler.
+     *
+     * @param gameStateManager The storage the state is written to.
+     */
+    public SaveScheduler(GameStateManager gameStateManager) {
+        this.gameStateManager = gameStateManager;
+    }
+
+    /**
+     * Tracks a game whose saved state is already current, e.g. one just loaded from storage.
+     *
+     * @param game        The game.
+     * @param moveCount   The number of moves made.
+     * @param pauseOffset The pause offset for the chronometer.
+     * @param isPaused    Whether the game is paused.
+     */
+    public void onGameLoaded(PuzzleGame game, int moveCount, long pauseOffset, boolean isPaused) {
+        track(game, moveCount, pauseOffset, isPaused);
+        savedVersion = version;
+        cancelScheduledSave();
+    }
+
+    /**
+     * Tracks a game that has not been saved yet, e.g. a new or recreated one. Its first save is a snapshot.
+     *
+     * @param game        The game.
+     * @param moveCount   The number of moves made.
+     * @param pauseOffset The pause offset for the chronometer.
+     * @param isPaused    Whether the game is paused.
+     */
+    public void onGameStarted(PuzzleGame game, int moveCount, long pauseOffset, boolean isPaused) {
+        track(game, moveCount, pauseOffset, isPaused);
+        isSnapshotRequired = true;
+        markDirty();
+    }
+
+    /**
+     * Records a successful move, undo or redo.
+     *
+     * @param cell        The row-major index of the tapped tile, or {@link MoveJournal#UNDO} or {@link MoveJournal#REDO}.
+     * @param moveCount   The number of moves made, including this one.
+     * @param pauseOffset The pause offset for the chronometer.
+     * @param isPaused    Whether the game is paused.
+     */
+    public void onMove(int cell, int moveCount, long pauseOffset, boolean isPaused) {
+        if (game == null) {
+            return;
+        }
+        this.moveCount = moveCount;
+        this.pauseOffset = pauseOffset;
+        this.isPaused = isPaused;
+        if (pendingMoveCount == MAX_PENDING_MOVES) {
+            isSnapshotRequired = true;
+        }
+        if (!isSnapshotRequired) {
+            if (pendingMoveCount == pendingMoves.length) {
+                pendingMoves = Arrays.copyOf(pendingMoves, pendingMoves.length * 2);
+            }
+            pendingMoves[pendingMoveCount++] = cell;
+        }
+        markDirty();
+    }
+
+    /**
+     * Records a change of the timer or pause state. Nothing is marked dirty if the values did not change.
+     *
+     * @param pauseOffset The pause offset for the chronometer.
+     * @param isPaused    Whether the game is paused.
+     */
+    public void onTimerChanged(long pauseOffset, boolean isPaused) {
+        if (game == null || (this.pauseOffset == pauseOffset && this.isPaused == isPaused)) {
+            return;
+        }
+        this.pauseOffset = pauseOffset;
+        this.isPaused = isPaused;
+        // The timer is only stored in snapshots
+        isSnapshotRequired = true;
+        markDirty();
+    }
+
+    /**
+     * Stops tracking a game that has ended; its saved state has been deleted and must not be rewritten.
+     */
+    public void onGameFinished() {
+        game = null;
+        pendingMoveCount = 0;
+        isSnapshotRequired = false;
+        savedVersion = version;
+        cancelScheduledSave();
+    }
+
+    /**
+     * Schedules a save of pending changes after auto-save has been switched on.
+     */
+    public void onAutoSaveChanged() {
+        if (version != savedVersion) {
+            scheduleSave();
+        }
+    }
+
+    /**
+     * Writes any unsaved change and waits until all writes, including earlier background ones, have
+     * reached the file system. Only for lifecycle boundaries such as {@code onPause}; nothing new is
+     * written if the saved state is current.
+     */
+    public void flush() {
+        cancelScheduledSave();
+        save();
+        gameStateManager.flushTemporaryGameState();
+    }
+
+    /**
+     * Drops a scheduled background save without writing it.
+     */
+    public void cancelScheduledSave() {
+        if (isSaveScheduled) {
+            handler.removeCallbacks(scheduledSave);
+            isSaveScheduled = false;
+        }
+    }
+
+    /**
+     * Retrieves the version number of the tracked state.
+     *
+     * @return A number that grows with every change.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Checks whether the tracked state has changes that are not saved yet.
+     *
+     * @return True if a save is due.
+     */
+    public boolean isDirty() {
+        return version != savedVersion;
+    }
+
+    private void track(PuzzleGame game, int moveCount, long pauseOffset, boolean isPaused) {
+        this.game = game;
+        this.moveCount = moveCount;
+        this.pauseOffset = pauseOffset;
+        this.isPaused = isPaused;
+        pendingMoveCount = 0;
+        isSnapshotRequired = false;
+    }
+
+    private void markDirty() {
+        version++;
+        if (gameStateManager.isAutoSaveEnabled()) {
+            scheduleSave();
+        }
+    }
+
+    private void scheduleSave() {
+        if (!isSaveScheduled) {
+            isSaveScheduled = true;
+            handler.postDelayed(scheduledSave, COALESCE_DELAY_MILLIS);
+        }
+    }
+
+    /**
+     * Captures the pending changes and hands them to the journal writer.
+     */
+    private void save() {
+        isSaveScheduled = false;
+        if (game == null || version == savedVersion) {
+            return;
+        }
+        if (isSnapshotRequired) {
+            gameStateManager.saveTemporaryGameState(game, moveCount, pauseOffset, isPaused);
+        } else if (pendingMoveCount > 0) {
+            gameStateManager.recordMoves(game, pendingMoves, pendingMoveCount, moveCount, pauseOffset, isPaused);
+        }
+        pendingMoveCount = 0;
+        isSnapshotRequired = false;
+        savedVersion = version;
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.fifteenpuzzlegame;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Loads the saved game and statistics of a board size off the UI thread.
+ * <p>
+ * Reading them means waiting for the preferences file, recovering the move journal and, for games
+ * saved by older versions, parsing JSON, none of which should delay the first frame. The menu starts
+ * a {@link #preload(int)} as soon as a size is picked, so the work overlaps with launching the game
+ * screen, which then collects the result with {@link #load(int, boolean, Callback)}.
+ * <p>
+ * All methods must be called on the UI thread; callbacks are delivered there too.
+ */
+public final class StateLoader {
+
+    /**
+     * Receives a loaded state on the UI thread.
+     */
+    public interface Callback {
+        /**
+         * Called when the state has been loaded.
+         *
+         * @param state The saved state of the board size.
+         */
+        void onStateLoaded(SavedState state);
+    }
+
+    /**
+     * The saved state of a board size.
+     */
+    public static final class SavedState {
+        private final PuzzleGame game;
+        private final int gamesPlayed;
+        private final int gamesWon;
+        private final float winPercentage;
+        private final long bestTime;
+        private final int bestMoveCount;
+
+        private SavedState(GameStateManager gameStateManager, int sizeKey, boolean includeGame) {
+            game = includeGame ? gameStateManager.loadTemporaryGameState(sizeKey) : null;
+            gamesPlayed = gameStateManager.getGamesPlayed(sizeKey);
+            gamesWon = gameStateManager.getGamesWon(sizeKey);
+            winPercentage = gameStateManager.getWinPercentage(sizeKey);
+            bestTime = gameStateManager.getBestTime(sizeKey);
+            bestMoveCount = gameStateManager.getBestMoveCount(sizeKey);
+        }
+
+        /**
+         * Retrieves the saved game. Its move count and timer are available from the
+         * {@link GameStateManager} that loaded it.
+         *
+         * @return The game, or null if there is none or it was not requested.
+         */
+        public PuzzleGame getGame() {
+            return game;
+        }
+
+        /**
+         * Retrieves the number of games played.
+         *
+         * @return The number of games played.
+         */
+        public int getGamesPlayed() {
+            return gamesPlayed;
+        }
+
+        /**
+         * Retrieves the number of games won.
+         *
+         * @return The number of games won.
+         */
+        public int getGamesWon() {
+            return gamesWon;
+        }
+
+        /**
+         * Retrieves the win percentage.
+         *
+         * @return The win percentage.
+         */
+        public float getWinPercentage() {
+            return winPercentage;
+        }
+
+        /**
+         * Retrieves the best completion time.
+         *
+         * @return The best time in milliseconds, or {@link Long#MAX_VALUE} if no game was won.
+         */
+        public long getBestTime() {
+            return bestTime;
+        }
+
+        /**
+         * Retrieves the best move count.
+         *
+         * @return The best move count, or 0 if no game was won.
+         */
+        public int getBestMoveCount() {
+            return bestMoveCount;
+        }
+    }
+
+    /** Runs the loads one at a time, in request order. */
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "state-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final GameStateManager gameStateManager;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private Future<SavedState> preload;
+    private int preloadSizeKey;
+    private boolean preloadIncludesGame;
+
+    /**
+     * Constructor to initialize a StateLoader.
+     *
+     * @param gameStateManager The storage to load from.
+     */
+    public StateLoader(GameStateManager gameStateManager) {
+        this.gameStateManager = gameStateManager;
+    }
+
+    /**
+     * Reads the preferences file in the background, so that later reads on the UI thread do not wait for it.
+     */
+    public void warmUp() {
+        LOADER.execute(gameStateManager::isAutoSaveEnabled);
+    }
+
+    /**
+     * Starts loading the saved game and statistics of a board size in the background. The result
+     * is kept for the next {@link #load(int, boolean, Callback)} of the same size, which must follow
+     * before the state can change, i.e. the game screen must be about to open.
+     *
+     * @param sizeKey The size key of the board (see {@link GameStateManager#sizeKey(int, int)}).
+     */
+    public void preload(int sizeKey) {
+        if (preload != null && preloadSizeKey == sizeKey && preloadIncludesGame) {
+            return;
+        }
+        preload = submit(sizeKey, true);
+        preloadSizeKey = sizeKey;
+        preloadIncludesGame = true;
+    }
+
+    /**
+     * Loads the saved state of a board size in the background, reusing a matching preload.
+     *
+     * @param sizeKey     The size key of the board.
+     * @param includeGame Whether to load the saved game too, or only the statistics.
+     * @param callback    Receives the state on the UI thread.
+     */
+    public void load(int sizeKey, boolean includeGame, Callback callback) {
+        Future<SavedState> pending = preload;
+        if (pending == null || preloadSizeKey != sizeKey || preloadIncludesGame != includeGame) {
+            pending = submit(sizeKey, includeGame);
+        }
+        preload = null;
+        Future<SavedState> result = pending;
+        // Queued behind the load on the same thread, so the wait is over by the time this runs
+        LOADER.execute(() -> {
+            try {
+                SavedState state = result.get();
+                mainHandler.post(() -> callback.onStateLoaded(state));
+            } catch (ExecutionException e) {
+                Log.e("StateLoader", "Loading the saved state failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private Future<SavedState> submit(int sizeKey, boolean includeGame) {
+        return LOADER.submit(() -> {
+            long start = System.nanoTime();
+            SavedState state = new SavedState(gameStateManager, sizeKey, includeGame);
+            PerfMetrics.record(PerfMetrics.Stage.STATE_LOAD, System.nanoTime() - start);
+            return state;
+        });
+    }
+}
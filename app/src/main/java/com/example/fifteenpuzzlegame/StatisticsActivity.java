@@ -1,6 +1,5 @@
 package com.example.fifteenpuzzlegame;
 
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.widget.TextView;
 
@@ -43,41 +42,47 @@ public class StatisticsActivity extends AppCompatActivity {
     }
 
     /**
-     * Loads the statistics from SharedPreferences and displays them.
+     * Loads the statistics from the game history and displays them.
      */
     private void loadStatistics() {
-        String prefsName = getIntent().getStringExtra("prefsName");
-        if (prefsName != null) {
-            SharedPreferences prefs = getSharedPreferences(prefsName, MODE_PRIVATE);
-            displayStatisticsForAllGridSizes(prefs);  // Pass SharedPreferences to method
-        }
+        displayStatisticsForAllGridSizes(((PuzzleApplication) getApplication()).getGameStateManager());
     }
 
     /**
-     * Displays statistics for all grid sizes available.
+     * Displays statistics for all grid sizes available, each as soon as its history summary is read.
      *
-     * @param prefs SharedPreferences containing the statistics.
+     * @param gameStateManager The source of the statistics.
      */
-    private void displayStatisticsForAllGridSizes(SharedPreferences prefs) {
+    private void displayStatisticsForAllGridSizes(GameStateManager gameStateManager) {
         for (int gridSize : GRID_SIZES) {
-            String[] statistics = getStatisticsForGridSize(prefs, gridSize);
-            updateTextViewsForGridSize(gridSize, statistics);
+            gameStateManager.loadHistorySummary(gridSize, summary ->
+                    updateTextViewsForGridSize(gridSize, getStatisticsForGridSize(gameStateManager, gridSize, summary)));
         }
     }
 
     /**
-     * Retrieves statistics for a specific grid size from SharedPreferences.
+     * Retrieves statistics for a specific grid size. They are computed from the indexed game history,
+     * or taken from the statistics saved by an older version while the history has no games.
      *
-     * @param prefs    SharedPreferences object containing the statistics.
-     * @param gridSize The grid size for which to retrieve the statistics.
+     * @param gameStateManager The source of the statistics.
+     * @param gridSize         The grid size for which to retrieve the statistics.
+     * @param summary          The history summary of the grid size, or null if the history cannot be read.
      * @return A string array containing games played, games won, win percentage, best time, and best move count.
      */
-    private String[] getStatisticsForGridSize(SharedPreferences prefs, int gridSize) {
-        int gamesPlayed = prefs.getInt("gamesPlayed_" + gridSize, 0);
-        int gamesWon = prefs.getInt("gamesWon_" + gridSize, 0);
-        float winPercentage = prefs.getFloat("winPercentage_" + gridSize, 0.0f);
-        long bestTime = prefs.getLong("bestTime_" + gridSize, Long.MAX_VALUE);
-        int bestMoveCount = prefs.getInt("bestMoveCount_" + gridSize, 0);
+    private String[] getStatisticsForGridSize(GameStateManager gameStateManager, int gridSize, GameHistory.Summary summary) {
+        int gamesPlayed = gameStateManager.getGamesPlayed(gridSize);
+        int gamesWon = gameStateManager.getGamesWon(gridSize);
+        float winPercentage = gameStateManager.getWinPercentage(gridSize);
+        long bestTime = gameStateManager.getBestTime(gridSize);
+        int bestMoveCount = gameStateManager.getBestMoveCount(gridSize);
+
+        if (summary != null && summary.getGamesPlayed() > 0) {
+            gamesPlayed = summary.getGamesPlayed();
+            gamesWon = summary.getGamesWon();
+            winPercentage = (float) summary.getWinPercentage();
+            bestTime = summary.getBestTime();
+            bestMoveCount = summary.getBestMoveCount();
+        }
 
         // Format the time and return the statistics as a string array
         return new String[]{String.valueOf(gamesPlayed), String.valueOf(gamesWon), String.format(Locale.getDefault(), "%.2f%%", winPercentage), formatTime(bestTime), String.valueOf(bestMoveCount)};
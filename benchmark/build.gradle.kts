@@ -0,0 +1,19 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+dependencies {
+    jmh(project(":engine"))
+    jmh(libs.gson)
+}
+
+// Run with ./gradlew :benchmark:jmh; results are written as JSON for dashboards and regression checks
+jmh {
+    jmhVersion = libs.versions.jmh
+    warmupIterations = 3
+    iterations = 5
+    fork = 1
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+}
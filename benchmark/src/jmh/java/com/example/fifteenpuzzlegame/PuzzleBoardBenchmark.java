@@ -0,0 +1,95 @@
+package com.example.fifteenpuzzlegame;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-move and per-game operations of {@link PuzzleBoard} for 3x3 through 16x16 boards.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PuzzleBoardBenchmark {
+
+    @Param({"3", "4", "5", "6", "7", "8", "12", "16"})
+    public int gridSize;
+
+    private PuzzleBoard board;
+    private BoardShuffler shuffler;
+
+    /**
+     * Creates a reproducible shuffled board for every iteration.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        board = new PuzzleBoard(gridSize, 42L);
+        shuffler = new BoardShuffler(42L);
+    }
+
+    /**
+     * Slides the single tile next to the empty cell, as a tap on a neighbouring tile does.
+     */
+    @Benchmark
+    public boolean moveTilesSingle() {
+        int emptyIndex = board.getEmptyIndex();
+        int row = emptyIndex / gridSize;
+        int col = emptyIndex % gridSize;
+        return board.moveTiles(row, col < gridSize - 1 ? col + 1 : col - 1);
+    }
+
+    /**
+     * Slides a whole row at once by tapping the tile at the far end of the empty cell's row.
+     */
+    @Benchmark
+    public boolean moveTilesRow() {
+        int emptyIndex = board.getEmptyIndex();
+        int row = emptyIndex / gridSize;
+        int col = emptyIndex % gridSize;
+        return board.moveTiles(row, col == 0 ? gridSize - 1 : 0);
+    }
+
+    /**
+     * Slides a whole column at once by tapping the tile at the far end of the empty cell's column.
+     */
+    @Benchmark
+    public boolean moveTilesColumn() {
+        int emptyIndex = board.getEmptyIndex();
+        int row = emptyIndex / gridSize;
+        int col = emptyIndex % gridSize;
+        return board.moveTiles(row == 0 ? gridSize - 1 : 0, col);
+    }
+
+    /**
+     * Deals a new solvable board.
+     */
+    @Benchmark
+    public int shuffleTiles() {
+        board.shuffleTiles(shuffler);
+        return board.getEmptyIndex();
+    }
+
+    /**
+     * Checks for the solved state, which is answered from the incrementally kept in-place count.
+     */
+    @Benchmark
+    public boolean isSolved() {
+        return board.isSolved();
+    }
+
+    /**
+     * Checks the permutation parity of the board.
+     */
+    @Benchmark
+    public boolean isSolvable() {
+        return board.isSolvable();
+    }
+}
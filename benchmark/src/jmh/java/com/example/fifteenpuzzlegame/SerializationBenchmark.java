@@ -0,0 +1,92 @@
+package com.example.fifteenpuzzlegame;
+
+import com.google.gson.Gson;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures saving and restoring a board the way the app does it, for 3x3 through 8x8 boards.
+ * <p>
+ * The JSON benchmark uses Gson the way older versions of {@code GameStateManager} did; see
+ * {@link StateCodecBenchmark} for the codecs that replaced it. {@code android.os.Parcel} does
+ * not exist off-device, so the parcel benchmark writes the same fields in the same order as
+ * {@code PuzzleGame.writeToParcel} to a heap buffer and rebuilds the board through the same
+ * constructor; it measures the board's share of the cost, not the Binder buffer itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SerializationBenchmark {
+
+    @Param({"3", "4", "5", "6", "7", "8"})
+    public int gridSize;
+
+    private final Gson gson = new Gson();
+    private PuzzleBoard board;
+    private ByteBuffer buffer;
+
+    /**
+     * Creates a reproducible shuffled board and a buffer large enough for it.
+     */
+    @Setup
+    public void setUp() {
+        board = new PuzzleBoard(gridSize, 42L);
+        buffer = ByteBuffer.allocate(64 + gridSize * gridSize);
+    }
+
+    /**
+     * Serializes the board to JSON and back.
+     */
+    @Benchmark
+    public PuzzleBoard jsonRoundTrip() {
+        return gson.fromJson(gson.toJson(board), PuzzleBoard.class);
+    }
+
+    /**
+     * Writes the board's parcel fields and reads them back into a new board.
+     */
+    @Benchmark
+    public PuzzleBoard parcelRoundTrip() {
+        buffer.clear();
+        ParcelledBoard.write(board, buffer);
+        buffer.flip();
+        return new ParcelledBoard(buffer);
+    }
+
+    /**
+     * Mirrors the parcel layout of {@code PuzzleGame}: rows, columns, the length-prefixed tile bytes,
+     * empty index and the finished flag as a byte.
+     */
+    static final class ParcelledBoard extends PuzzleBoard {
+
+        ParcelledBoard(ByteBuffer in) {
+            super(in.getInt(), in.getInt(), readTiles(in), in.getInt(), in.get() != 0);
+        }
+
+        static void write(PuzzleBoard board, ByteBuffer out) {
+            out.putInt(board.getRows());
+            out.putInt(board.getColumns());
+            byte[] tiles = board.getTileBytes();
+            out.putInt(tiles.length);
+            out.put(tiles);
+            out.putInt(board.getEmptyIndex());
+            out.put((byte) (board.isGameFinished() ? 1 : 0));
+        }
+
+        private static byte[] readTiles(ByteBuffer in) {
+            byte[] tiles = new byte[in.getInt()];
+            in.get(tiles);
+            return tiles;
+        }
+    }
+}
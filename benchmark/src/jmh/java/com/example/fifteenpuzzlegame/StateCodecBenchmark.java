@@ -0,0 +1,86 @@
+package com.example.fifteenpuzzlegame;
+
+import com.google.gson.Gson;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the state codecs with reflective Gson on the same game in progress: a shuffled board with
+ * a few hundred moves in its undo/redo log, for 3x3 through 8x8 boards.
+ * <p>
+ * Each benchmark encodes the snapshot and decodes it again.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StateCodecBenchmark {
+
+    private static final int MOVES = 300;
+
+    @Param({"3", "4", "5", "6", "7", "8"})
+    public int gridSize;
+
+    private final Gson gson = new Gson();
+    private final BinaryStateCodec binary = new BinaryStateCodec();
+    private final JsonStateCodec json = new JsonStateCodec();
+    private GameSnapshot snapshot;
+
+    /**
+     * Plays a reproducible game to encode.
+     */
+    @Setup
+    public void setUp() {
+        PuzzleBoard board = new PuzzleBoard(gridSize, 42L);
+        board.setMoveLog(new MoveLog());
+        Random random = new Random(42L);
+        int moves = 0;
+        while (moves < MOVES) {
+            int empty = board.getEmptyIndex();
+            boolean alongRow = random.nextBoolean();
+            int line = random.nextInt(gridSize);
+            int row = alongRow ? empty / gridSize : line;
+            int col = alongRow ? line : empty % gridSize;
+            if (board.moveTiles(row, col)) {
+                moves++;
+            }
+        }
+        for (int i = 0; i < MOVES / 10; i++) {
+            board.undoMove();
+        }
+        snapshot = GameSnapshot.of(board, moves, 83_500L, true);
+    }
+
+    /**
+     * Serializes the snapshot with reflective Gson and back, for comparison.
+     */
+    @Benchmark
+    public GameSnapshot gsonRoundTrip() {
+        return gson.fromJson(gson.toJson(snapshot), GameSnapshot.class);
+    }
+
+    /**
+     * Writes the snapshot as JSON and parses it again with the hand-written codec.
+     */
+    @Benchmark
+    public GameSnapshot jsonRoundTrip() {
+        return json.fromJson(json.toJson(snapshot));
+    }
+
+    /**
+     * Encodes the snapshot in the binary format and decodes it again.
+     */
+    @Benchmark
+    public GameSnapshot binaryRoundTrip() {
+        return binary.decode(binary.encode(snapshot));
+    }
+}
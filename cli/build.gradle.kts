@@ -0,0 +1,18 @@
+plugins {
+    application
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+dependencies {
+    implementation(project(":engine"))
+}
+
+// ./gradlew :cli:run --args="--threads 4 puzzles.txt", or :cli:installDist for a standalone script
+application {
+    mainClass = "com.example.fifteenpuzzlegame.BatchSolver"
+    applicationName = "fifteen-puzzle-solver"
+}
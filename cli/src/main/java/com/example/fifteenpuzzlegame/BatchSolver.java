@@ -0,0 +1,319 @@
+package com.example.fifteenpuzzlegame;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Command-line batch solver and validator for board files.
+ * <p>
+ * Reads one board per line in {@link BoardFormat} (any grid size, blank lines and lines starting
+ * with {@code #} are skipped), checks that each one is solvable and, unless only validating,
+ * solves it optimally. The solvers only handle square boards, so solving a rectangular one reports
+ * it as {@code UNSUPPORTED}. One tab-separated result line is written per board, in input order,
+ * while the file is still being read, followed by a throughput summary on standard error.
+ * <p>
+ * With {@code --check-length} the second field of every line (as written by
+ * {@link PuzzleGenerator}) is taken as the expected optimal length, which turns a generated
+ * puzzle file into a regression test. The exit status is 1 if any board was malformed or had a
+ * different optimal length, so the tool can gate CI builds.
+ */
+public class BatchSolver {
+
+    /**
+     * The outcome for one board.
+     */
+    enum Status {
+        SOLVED, SOLVABLE, UNSOLVABLE, INVALID, TIMEOUT, MISMATCH, UNSUPPORTED
+    }
+
+    /** Boards queued per worker thread ahead of the one being written. */
+    private static final int QUEUE_PER_THREAD = 4;
+
+    private static final String USAGE = "Usage: BatchSolver [--threads <n>] [--validate] [--check-length]"
+            + " [--timeout-ms <millis>] [--pattern-db-dir <dir>] [--output <file>] <inputFile|->";
+
+    private final boolean validateOnly;
+    private final boolean checkLength;
+    private final long timeoutNanos;
+    private final File patternDatabaseDirectory;
+    private final Map<Integer, Heuristic> heuristics = new ConcurrentHashMap<>();
+
+    private final int[] statusCounts = new int[Status.values().length];
+    private long totalNodes;
+    private long totalSolveNanos;
+
+    /**
+     * Constructor to initialize a batch solver.
+     *
+     * @param validateOnly             Whether to check solvability only.
+     * @param checkLength              Whether to compare optimal lengths with the second input field.
+     * @param timeoutMillis            The time allowed per board, or 0 for no limit.
+     * @param patternDatabaseDirectory The directory searched for pattern databases; may be null.
+     */
+    public BatchSolver(boolean validateOnly, boolean checkLength, long timeoutMillis, File patternDatabaseDirectory) {
+        this.validateOnly = validateOnly;
+        this.checkLength = checkLength;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.patternDatabaseDirectory = patternDatabaseDirectory;
+    }
+
+    /**
+     * Command-line entry point; run without arguments for usage.
+     *
+     * @param args The options and the input file, {@code -} for standard input.
+     * @throws IOException          If reading or writing fails.
+     * @throws InterruptedException If the run is interrupted.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int threads = 1;
+        boolean validateOnly = false;
+        boolean checkLength = false;
+        long timeoutMillis = 0;
+        File patternDatabaseDirectory = null;
+        String output = null;
+        String input = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    case "--validate":
+                        validateOnly = true;
+                        break;
+                    case "--check-length":
+                        checkLength = true;
+                        break;
+                    case "--timeout-ms":
+                        timeoutMillis = Long.parseLong(args[++i]);
+                        break;
+                    case "--pattern-db-dir":
+                        patternDatabaseDirectory = new File(args[++i]);
+                        break;
+                    case "--output":
+                        output = args[++i];
+                        break;
+                    default:
+                        if (input != null || args[i].startsWith("--")) {
+                            throw new IllegalArgumentException(args[i]);
+                        }
+                        input = args[i];
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            input = null;
+        }
+        if (input == null || threads < 1) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        BatchSolver solver = new BatchSolver(validateOnly, checkLength, timeoutMillis, patternDatabaseDirectory);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        boolean passed;
+        try (Reader in = "-".equals(input) ? new InputStreamReader(System.in) : new FileReader(input);
+             Writer out = output == null ? new OutputStreamWriter(System.out) : new FileWriter(output)) {
+            passed = solver.run(new BufferedReader(in), new BufferedWriter(out), executor, threads * QUEUE_PER_THREAD);
+        } finally {
+            executor.shutdownNow();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Processes every board of the input and writes one result line per board.
+     *
+     * @param in        The board lines.
+     * @param out       Receives the header and result lines; flushed but not closed.
+     * @param executor  Runs the per-board work.
+     * @param maxQueued The number of boards that may be in flight at once.
+     * @return True if no board was malformed or had an unexpected optimal length.
+     * @throws IOException          If reading or writing fails.
+     * @throws InterruptedException If the calling thread is interrupted.
+     */
+    public boolean run(BufferedReader in, Writer out, ExecutorService executor, int maxQueued)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        out.write("# line\tsize\tstatus\tlength\tnodes\tmillis\n");
+        ArrayDeque<Future<Result>> pending = new ArrayDeque<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            int number = lineNumber;
+            pending.add(executor.submit(() -> process(number, trimmed)));
+            if (pending.size() >= maxQueued) {
+                write(get(pending.poll()), out);
+            }
+        }
+        while (!pending.isEmpty()) {
+            write(get(pending.poll()), out);
+        }
+        out.flush();
+        printSummary(System.nanoTime() - start);
+        return statusCounts[Status.INVALID.ordinal()] == 0 && statusCounts[Status.MISMATCH.ordinal()] == 0;
+    }
+
+    /**
+     * Validates and solves one board. Runs on a worker thread.
+     */
+    private Result process(int lineNumber, String line) {
+        Result result = new Result(lineNumber);
+        int[] tiles;
+        try {
+            tiles = BoardFormat.parse(line);
+        } catch (IllegalArgumentException e) {
+            result.status = Status.INVALID;
+            return result;
+        }
+        result.rows = BoardFormat.rowsOf(line);
+        result.columns = BoardFormat.columnsOf(line);
+        if (!Solvability.isSolvable(tiles, result.rows, result.columns)) {
+            result.status = Status.UNSOLVABLE;
+            return result;
+        }
+        if (validateOnly) {
+            result.status = Status.SOLVABLE;
+            return result;
+        }
+        if (result.rows != result.columns) {
+            result.status = Status.UNSUPPORTED;
+            return result;
+        }
+        int gridSize = result.rows;
+
+        long deadline = System.nanoTime() + timeoutNanos;
+        BooleanSupplier cancellation = timeoutNanos > 0 ? () -> System.nanoTime() > deadline : null;
+        long start = System.nanoTime();
+        try {
+            Solution solution = new IdaStarSolver(gridSize, heuristicFor(gridSize)).solve(tiles, cancellation);
+            result.status = Status.SOLVED;
+            result.length = solution.length();
+            result.nodes = solution.getNodesExpanded();
+            result.nanos = solution.getElapsedNanos();
+        } catch (CancellationException e) {
+            result.status = Status.TIMEOUT;
+            result.nanos = System.nanoTime() - start;
+            return result;
+        }
+
+        if (checkLength) {
+            int expected = expectedLength(line);
+            if (expected < 0) {
+                // Without an expected length there is nothing to check the solution against
+                result.status = Status.INVALID;
+                result.length = -1;
+            } else if (expected != result.length) {
+                result.status = Status.MISMATCH;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads the expected optimal length from the second field of a line.
+     *
+     * @return The length, or -1 if the field is missing or not a number.
+     */
+    private static int expectedLength(String line) {
+        String[] extra = BoardFormat.extraFields(line);
+        if (extra.length == 0) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(extra[0].trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the shared heuristic for a grid size: the exact distance table for 3x3, its pattern
+     * database if one is available, otherwise the linear-conflict heuristic.
+     */
+    private Heuristic heuristicFor(int gridSize) {
+        return heuristics.computeIfAbsent(gridSize, size -> {
+            if (size == DistanceTable.GRID_SIZE) {
+                return DistanceTable.get();
+            }
+            Heuristic database = PatternDatabase.find(patternDatabaseDirectory, size);
+            return database != null ? database : new LinearConflictHeuristic(size);
+        });
+    }
+
+    private void write(Result result, Writer out) throws IOException {
+        statusCounts[result.status.ordinal()]++;
+        totalNodes += result.nodes;
+        totalSolveNanos += result.nanos;
+        out.write(String.format(Locale.US, "%d\t%dx%d\t%s\t%d\t%d\t%.3f%n", result.lineNumber, result.rows,
+                result.columns, result.status, result.length, result.nodes, result.nanos / 1e6));
+    }
+
+    private void printSummary(long wallNanos) {
+        int boards = 0;
+        StringBuilder counts = new StringBuilder();
+        for (Status status : Status.values()) {
+            int count = statusCounts[status.ordinal()];
+            boards += count;
+            if (count > 0) {
+                counts.append(", ").append(status.name().toLowerCase(Locale.US)).append(' ').append(count);
+            }
+        }
+        double seconds = wallNanos / 1e9;
+        System.err.printf(Locale.US, "%d boards in %.2f s (%.1f boards/s, %.0f nodes/s, %.2f ms solving per board)%s%n",
+                boards, seconds, boards / seconds, totalNodes / seconds,
+                boards == 0 ? 0.0 : totalSolveNanos / 1e6 / boards, counts);
+    }
+
+    private static Result get(Future<Result> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * The result line of one board.
+     */
+    private static final class Result {
+        final int lineNumber;
+        int rows;
+        int columns;
+        Status status;
+        int length = -1;
+        long nodes;
+        long nanos;
+
+        Result(int lineNumber) {
+            this.lineNumber = lineNumber;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+plugins {
+    `java-library`
+}
+
+// Pure game logic and solvers; no Android dependencies, so it runs on any JVM
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
@@ -0,0 +1,190 @@
+package com.example.fifteenpuzzlegame;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * The compact binary encoding of a {@link GameSnapshot}.
+ * <p>
+ * Layout, version 1:
+ * <pre>
+ *   magic        1 byte   0xF5, which never starts UTF-8 text
+ *   version      1 byte
+ *   flags        1 byte   paused, finished, has move log
+ *   size         1 byte   rows - 1 in the high nibble, columns - 1 in the low nibble
+ *   blank        1 byte   row-major index of the empty cell
+ *   tiles        the other tiles in row-major order, minus one: a nibble each (high nibble first)
+ *                when the board has at most 17 cells, otherwise a byte each
+ *   moveCount    zigzag varint
+ *   pauseOffset  zigzag varint
+ *   moveLog      varint length and the packed log, only if its flag is set
+ * </pre>
+ * A 4x4 game in progress thus takes 15 to 20 bytes plus its move log, which is omitted while empty.
+ */
+public final class BinaryStateCodec implements StateCodec {
+
+    /** The first byte of every encoding. */
+    public static final int MAGIC = 0xF5;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 5;
+
+    private static final int FLAG_PAUSED = 1;
+    private static final int FLAG_FINISHED = 1 << 1;
+    private static final int FLAG_MOVE_LOG = 1 << 2;
+
+    /** Tiles 1..16 fit a nibble once stored minus one. */
+    private static final int MAX_NIBBLE_CELLS = 17;
+    /** Bytes a varint of a long can take. */
+    private static final int MAX_VARINT_SIZE = 10;
+
+    /** The size of a packed log without moves, which is not stored. */
+    private static final int EMPTY_MOVE_LOG_SIZE = 8;
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public byte[] encode(GameSnapshot snapshot) {
+        int cellCount = snapshot.getRows() * snapshot.getColumns();
+        byte[] moveLog = snapshot.getMoveLogBytes();
+        boolean hasMoveLog = moveLog.length > EMPTY_MOVE_LOG_SIZE;
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + tileBytes(cellCount) + 3 * MAX_VARINT_SIZE
+                + (hasMoveLog ? moveLog.length : 0));
+
+        int flags = (snapshot.isPaused() ? FLAG_PAUSED : 0)
+                | (snapshot.isGameFinished() ? FLAG_FINISHED : 0)
+                | (hasMoveLog ? FLAG_MOVE_LOG : 0);
+        int emptyIndex = snapshot.getEmptyIndex();
+        out.put((byte) MAGIC).put((byte) VERSION).put((byte) flags);
+        out.put((byte) ((snapshot.getRows() - 1) << 4 | (snapshot.getColumns() - 1)));
+        out.put((byte) emptyIndex);
+
+        boolean nibbles = cellCount <= MAX_NIBBLE_CELLS;
+        int pending = -1;
+        for (int i = 0; i < cellCount; i++) {
+            if (i == emptyIndex) {
+                continue;
+            }
+            int value = snapshot.getTile(i) - 1;
+            if (!nibbles) {
+                out.put((byte) value);
+            } else if (pending < 0) {
+                pending = value;
+            } else {
+                out.put((byte) (pending << 4 | value));
+                pending = -1;
+            }
+        }
+        if (pending >= 0) {
+            out.put((byte) (pending << 4));
+        }
+
+        putVarint(out, zigzag(snapshot.getMoveCount()));
+        putVarint(out, zigzag(snapshot.getPauseOffset()));
+        if (hasMoveLog) {
+            putVarint(out, moveLog.length);
+            out.put(moveLog);
+        }
+        byte[] bytes = new byte[out.position()];
+        System.arraycopy(out.array(), 0, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    @Override
+    public GameSnapshot decode(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        try {
+            if (in.remaining() < HEADER_SIZE || (in.get() & 0xFF) != MAGIC) {
+                throw new IllegalArgumentException("Not a binary game state");
+            }
+            int version = in.get() & 0xFF;
+            if (version < 1 || version > VERSION) {
+                throw new IllegalArgumentException("Unsupported binary state version " + version);
+            }
+            int flags = in.get() & 0xFF;
+            int size = in.get() & 0xFF;
+            int rows = (size >>> 4) + 1;
+            int columns = (size & 0xF) + 1;
+            int cellCount = rows * columns;
+            int emptyIndex = in.get() & 0xFF;
+            if (emptyIndex >= cellCount) {
+                throw new IllegalArgumentException("Empty cell " + emptyIndex + " is off the board");
+            }
+
+            int[] tiles = new int[cellCount];
+            boolean nibbles = cellCount <= MAX_NIBBLE_CELLS;
+            int current = 0;
+            int read = 0;
+            for (int i = 0; i < cellCount; i++) {
+                if (i == emptyIndex) {
+                    continue;
+                }
+                int value;
+                if (!nibbles) {
+                    value = in.get() & 0xFF;
+                } else if ((read & 1) == 0) {
+                    current = in.get() & 0xFF;
+                    value = current >>> 4;
+                } else {
+                    value = current & 0xF;
+                }
+                read++;
+                tiles[i] = value + 1;
+            }
+
+            int moveCount = (int) unzigzag(getVarint(in));
+            long pauseOffset = unzigzag(getVarint(in));
+            byte[] moveLog = null;
+            if ((flags & FLAG_MOVE_LOG) != 0) {
+                long length = getVarint(in);
+                if (length < 0 || length > in.remaining()) {
+                    throw new IllegalArgumentException("Bad move log length " + length);
+                }
+                moveLog = new byte[(int) length];
+                in.get(moveLog);
+                MoveLog.fromByteArray(moveLog);
+            }
+            if (in.hasRemaining()) {
+                throw new IllegalArgumentException(in.remaining() + " trailing bytes after the game state");
+            }
+            return new GameSnapshot(rows, columns, tiles, moveLog, moveCount, pauseOffset,
+                    (flags & FLAG_PAUSED) != 0, (flags & FLAG_FINISHED) != 0);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated binary game state");
+        }
+    }
+
+    private static int tileBytes(int cellCount) {
+        return cellCount <= MAX_NIBBLE_CELLS ? cellCount / 2 : cellCount - 1;
+    }
+
+    private static long zigzag(long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    private static long unzigzag(long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    private static void putVarint(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static long getVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.get() & 0xFF;
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
@@ -0,0 +1,409 @@
+package com.example.fifteenpuzzlegame;
+
+import java.math.BigInteger;
+
+/**
+ * Converts boards to and from compact canonical IDs and short shareable codes.
+ * <p>
+ * The ID of a solvable board is its index among all solvable boards of its size: the position of the
+ * empty cell times (n - 1)! / 2, plus the Lehmer rank of the other tiles in row-major order divided by
+ * two, n being the number of cells. Whether a board is solvable depends only on the parity of its
+ * tiles and the position of the empty cell, and the parity of a permutation is the parity of its
+ * Lehmer digits, so the last digit follows from the others and dropping it makes the IDs dense: they
+ * run from 0 to n! / 2 - 1 with no gaps, which suits arrays and bit sets as well as hash keys; the
+ * {@link DistanceTable} uses them as its index. Boards of up to {@value #MAX_LONG_CELLS} cells have a
+ * {@code long} ID; larger ones need a {@link BigInteger}.
+ * <p>
+ * A code is the board's rows and columns as one base-62 digit each, followed by the ID in base 62,
+ * e.g. {@code 44} and at most eight more characters for a 4x4 board. Codes only use letters and digits, so they
+ * survive URLs, messages and Intent extras unchanged.
+ */
+public final class BoardCode {
+
+    /** The largest number of cells whose IDs fit a {@code long}: 20! / 2 does, 21! / 2 does not. */
+    public static final int MAX_LONG_CELLS = 20;
+
+    private static final String DIGITS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    private static final BigInteger BASE = BigInteger.valueOf(DIGITS.length());
+    /** n! / 2 for the tile counts of boards with a {@code long} ID: the IDs per position of the empty cell. */
+    private static final long[] HALF_FACTORIALS = new long[MAX_LONG_CELLS];
+
+    static {
+        long factorial = 1;
+        for (int n = 2; n < MAX_LONG_CELLS; n++) {
+            factorial *= n;
+            HALF_FACTORIALS[n] = factorial / 2;
+        }
+    }
+
+    private BoardCode() {
+    }
+
+    /**
+     * Computes the ID of a board with at most {@value #MAX_LONG_CELLS} cells.
+     *
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     * @param tiles   The row-major tile values, 0 being the empty cell.
+     * @return The ID, from 0 to {@code (rows * columns)! / 2 - 1}.
+     * @throws IllegalArgumentException If the board is too large for a {@code long} ID, is not a
+     *                                  permutation of {@code 0..rows*columns-1} or is not solvable.
+     */
+    public static long toId(int rows, int columns, int[] tiles) {
+        long id = idIfSolvable(rows, columns, tiles);
+        if (id < 0) {
+            throw new IllegalArgumentException("Board cannot be solved");
+        }
+        return id;
+    }
+
+    /**
+     * Computes the ID of a board with at most {@value #MAX_LONG_CELLS} cells in a single pass without
+     * allocating, which lets the {@link DistanceTable} use it for every lookup.
+     *
+     * @return The ID, or -1 if the board is not solvable.
+     * @throws IllegalArgumentException If the board is too large for a {@code long} ID or is not a
+     *                                  permutation of {@code 0..rows*columns-1}.
+     */
+    static long idIfSolvable(int rows, int columns, int[] tiles) {
+        checkSize(rows, columns);
+        int cellCount = rows * columns;
+        if (cellCount > MAX_LONG_CELLS) {
+            throw new IllegalArgumentException("IDs of " + rows + "x" + columns + " boards do not fit a long");
+        }
+        if (tiles.length != cellCount) {
+            throw new IllegalArgumentException("Expected " + cellCount + " tiles, got " + tiles.length);
+        }
+        int tileCount = cellCount - 1;
+        long used = 0;
+        long tileId = 0;
+        int blank = -1;
+        int parity = 0;
+        int position = 0;
+        for (int i = 0; i < cellCount; i++) {
+            int tile = tiles[i];
+            if (tile == 0 && blank < 0) {
+                blank = i;
+                continue;
+            }
+            int value = tile - 1;
+            if (value < 0 || value >= tileCount || (used & 1L << value) != 0) {
+                throw new IllegalArgumentException("Tile " + tile + " is out of range or repeated");
+            }
+            // The Lehmer digit: the tiles still to come that are smaller than this one
+            int digit = value - Long.bitCount(used & ((1L << value) - 1));
+            used |= 1L << value;
+            // The last two digits are left out: the parity fixes one and the other is always 0
+            if (position < tileCount - 2) {
+                tileId = tileId * (tileCount - position) + digit;
+            }
+            position++;
+            parity ^= digit & 1;
+        }
+        if (parity != requiredParity(rows, columns, blank)) {
+            return -1;
+        }
+        return blank * HALF_FACTORIALS[tileCount] + tileId;
+    }
+
+    /**
+     * Computes the ID of a board of any size.
+     *
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     * @param tiles   The row-major tile values, 0 being the empty cell.
+     * @return The ID, from 0 to {@code (rows * columns)! / 2 - 1}.
+     * @throws IllegalArgumentException If the board is not a permutation of {@code 0..rows*columns-1}
+     *                                  or is not solvable.
+     */
+    public static BigInteger toBigId(int rows, int columns, int[] tiles) {
+        if (rows * columns <= MAX_LONG_CELLS) {
+            return BigInteger.valueOf(toId(rows, columns, tiles));
+        }
+        int[] digits = lehmerDigits(rows, columns, tiles);
+        int tileCount = digits.length - 1;
+        // Multiply in long chunks and only touch the BigInteger when a chunk would overflow
+        BigInteger id = BigInteger.valueOf(digits[tileCount]);
+        long chunkRadix = 1;
+        long chunkValue = 0;
+        for (int i = 0; i < tileCount - 2; i++) {
+            int radix = tileCount - i;
+            if (chunkRadix > Long.MAX_VALUE / radix) {
+                id = id.multiply(BigInteger.valueOf(chunkRadix)).add(BigInteger.valueOf(chunkValue));
+                chunkRadix = 1;
+                chunkValue = 0;
+            }
+            chunkRadix *= radix;
+            chunkValue = chunkValue * radix + digits[i];
+        }
+        return id.multiply(BigInteger.valueOf(chunkRadix)).add(BigInteger.valueOf(chunkValue));
+    }
+
+    /**
+     * Reconstructs a board from its {@code long} ID.
+     *
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     * @param id      The ID, as returned by {@link #toId(int, int, int[])}.
+     * @return The row-major tile values, 0 being the empty cell.
+     * @throws IllegalArgumentException If the size is unsupported or the ID is out of range.
+     */
+    public static int[] fromId(int rows, int columns, long id) {
+        checkSize(rows, columns);
+        if (rows * columns > MAX_LONG_CELLS) {
+            return fromBigId(rows, columns, BigInteger.valueOf(id));
+        }
+        if (id < 0) {
+            throw new IllegalArgumentException("ID out of range for a " + rows + "x" + columns + " board: " + id);
+        }
+        int tileCount = rows * columns - 1;
+        int[] digits = new int[tileCount + 1];
+        long remainder = id;
+        for (int i = tileCount - 3; i >= 0; i--) {
+            int radix = tileCount - i;
+            digits[i] = (int) (remainder % radix);
+            remainder /= radix;
+        }
+        if (remainder >= rows * columns) {
+            throw new IllegalArgumentException("ID out of range for a " + rows + "x" + columns + " board: " + id);
+        }
+        digits[tileCount] = (int) remainder;
+        return fromDigits(rows, columns, digits);
+    }
+
+    /**
+     * Reconstructs a board from its ID.
+     *
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     * @param id      The ID, as returned by {@link #toBigId(int, int, int[])}.
+     * @return The row-major tile values, 0 being the empty cell.
+     * @throws IllegalArgumentException If the size is unsupported or the ID is out of range.
+     */
+    public static int[] fromBigId(int rows, int columns, BigInteger id) {
+        checkSize(rows, columns);
+        if (rows * columns <= MAX_LONG_CELLS) {
+            if (id.bitLength() >= Long.SIZE) {
+                throw new IllegalArgumentException("ID out of range for a " + rows + "x" + columns + " board: " + id);
+            }
+            return fromId(rows, columns, id.longValue());
+        }
+        if (id.signum() < 0) {
+            throw new IllegalArgumentException("ID out of range for a " + rows + "x" + columns + " board: " + id);
+        }
+        int tileCount = rows * columns - 1;
+        int[] digits = new int[tileCount + 1];
+        BigInteger remainder = id;
+        for (int i = tileCount - 3; i >= 0; i--) {
+            BigInteger[] quotientAndDigit = remainder.divideAndRemainder(BigInteger.valueOf(tileCount - i));
+            digits[i] = quotientAndDigit[1].intValue();
+            remainder = quotientAndDigit[0];
+        }
+        if (remainder.compareTo(BigInteger.valueOf(rows * columns)) >= 0) {
+            throw new IllegalArgumentException("ID out of range for a " + rows + "x" + columns + " board: " + id);
+        }
+        digits[tileCount] = remainder.intValue();
+        return fromDigits(rows, columns, digits);
+    }
+
+    /**
+     * Computes the shareable code of a board.
+     *
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     * @param tiles   The row-major tile values, 0 being the empty cell.
+     * @return The code.
+     * @throws IllegalArgumentException If the board is not a permutation of {@code 0..rows*columns-1}
+     *                                  or is not solvable.
+     */
+    public static String encode(int rows, int columns, int[] tiles) {
+        checkSize(rows, columns);
+        StringBuilder code = new StringBuilder(24);
+        code.append(DIGITS.charAt(rows)).append(DIGITS.charAt(columns));
+        if (rows * columns <= MAX_LONG_CELLS) {
+            appendBase62(toId(rows, columns, tiles), code);
+        } else {
+            code.append(toBase62(toBigId(rows, columns, tiles)));
+        }
+        return code.toString();
+    }
+
+    /**
+     * Retrieves the number of rows of the board a code describes.
+     *
+     * @param code The code; surrounding whitespace is ignored.
+     * @return The number of rows.
+     * @throws IllegalArgumentException If the code is malformed.
+     */
+    public static int rowsOf(String code) {
+        return sizeDigit(code, 0);
+    }
+
+    /**
+     * Retrieves the number of columns of the board a code describes.
+     *
+     * @param code The code; surrounding whitespace is ignored.
+     * @return The number of columns.
+     * @throws IllegalArgumentException If the code is malformed.
+     */
+    public static int columnsOf(String code) {
+        return sizeDigit(code, 1);
+    }
+
+    /**
+     * Reconstructs the board a code describes.
+     *
+     * @param code The code; surrounding whitespace is ignored.
+     * @return The row-major tile values, 0 being the empty cell.
+     * @throws IllegalArgumentException If the code is malformed or does not describe a board.
+     */
+    public static int[] decode(String code) {
+        String trimmed = code.trim();
+        if (trimmed.length() < 3) {
+            throw new IllegalArgumentException("Code is too short: " + code);
+        }
+        int rows = rowsOf(trimmed);
+        int columns = columnsOf(trimmed);
+        BigInteger id = BigInteger.ZERO;
+        for (int i = 2; i < trimmed.length(); i++) {
+            id = id.multiply(BASE).add(BigInteger.valueOf(digitOf(trimmed, i)));
+        }
+        return fromBigId(rows, columns, id);
+    }
+
+    /**
+     * Computes the Lehmer digits of the tiles in row-major order, and stores the position of the
+     * empty cell after them. Requires the board to be solvable, which fixes the parity of the digits.
+     */
+    private static int[] lehmerDigits(int rows, int columns, int[] tiles) {
+        checkSize(rows, columns);
+        int cellCount = rows * columns;
+        if (tiles.length != cellCount) {
+            throw new IllegalArgumentException("Expected " + cellCount + " tiles, got " + tiles.length);
+        }
+        int tileCount = cellCount - 1;
+        int[] digits = new int[cellCount];
+        long[] used = new long[(cellCount + 63) / 64];
+        int blank = -1;
+        int parity = 0;
+        int position = 0;
+        for (int i = 0; i < cellCount; i++) {
+            int tile = tiles[i];
+            if (tile == 0 && blank < 0) {
+                blank = i;
+                continue;
+            }
+            int value = tile - 1;
+            if (value < 0 || value >= tileCount || (used[value >>> 6] & 1L << value) != 0) {
+                throw new IllegalArgumentException("Tile " + tile + " is out of range or repeated");
+            }
+            // The Lehmer digit: the tiles still to come that are smaller than this one
+            int smallerUsed = Long.bitCount(used[value >>> 6] & ((1L << value) - 1));
+            for (int word = 0; word < value >>> 6; word++) {
+                smallerUsed += Long.bitCount(used[word]);
+            }
+            used[value >>> 6] |= 1L << value;
+            int digit = value - smallerUsed;
+            digits[position++] = digit;
+            parity ^= digit & 1;
+        }
+        if (parity != requiredParity(rows, columns, blank)) {
+            throw new IllegalArgumentException("Board cannot be solved");
+        }
+        digits[tileCount] = blank;
+        return digits;
+    }
+
+    /**
+     * Rebuilds the tiles from Lehmer digits whose second to last digit is still to be derived from the
+     * parity, with the position of the empty cell stored after them.
+     */
+    private static int[] fromDigits(int rows, int columns, int[] digits) {
+        int cellCount = rows * columns;
+        int tileCount = cellCount - 1;
+        int blank = digits[tileCount];
+        int parity = 0;
+        for (int i = 0; i < tileCount - 2; i++) {
+            parity ^= digits[i] & 1;
+        }
+        digits[tileCount - 2] = parity ^ requiredParity(rows, columns, blank);
+        digits[tileCount - 1] = 0;
+
+        // Take the digit-th smallest tile not used yet; boards are small enough for a linear scan
+        boolean[] used = new boolean[tileCount];
+        int[] tiles = new int[cellCount];
+        int cell = 0;
+        for (int position = 0; position < tileCount; position++) {
+            int remaining = digits[position];
+            int value = -1;
+            do {
+                value++;
+                while (used[value]) {
+                    value++;
+                }
+            } while (remaining-- > 0);
+            used[value] = true;
+            if (cell == blank) {
+                tiles[cell++] = 0;
+            }
+            tiles[cell++] = value + 1;
+        }
+        return tiles;
+    }
+
+    /**
+     * Computes the parity of the tile permutation that solvable boards with the empty cell at
+     * {@code blank} have (see {@link Solvability}).
+     */
+    private static int requiredParity(int rows, int columns, int blank) {
+        if (columns % 2 == 1) {
+            return 0;
+        }
+        int blankRowFromBottom = rows - blank / columns;
+        return (blankRowFromBottom + 1) & 1;
+    }
+
+    private static void checkSize(int rows, int columns) {
+        if (rows < 2 || columns < 2 || rows > PuzzleBoard.MAX_SIZE || columns > PuzzleBoard.MAX_SIZE) {
+            throw new IllegalArgumentException("Unsupported board size " + rows + "x" + columns);
+        }
+    }
+
+    private static void appendBase62(long value, StringBuilder out) {
+        int start = out.length();
+        do {
+            out.insert(start, DIGITS.charAt((int) (value % DIGITS.length())));
+            value /= DIGITS.length();
+        } while (value > 0);
+    }
+
+    private static String toBase62(BigInteger value) {
+        StringBuilder out = new StringBuilder();
+        do {
+            BigInteger[] quotientAndDigit = value.divideAndRemainder(BASE);
+            out.append(DIGITS.charAt(quotientAndDigit[1].intValue()));
+            value = quotientAndDigit[0];
+        } while (value.signum() > 0);
+        return out.reverse().toString();
+    }
+
+    private static int sizeDigit(String code, int index) {
+        String trimmed = code.trim();
+        if (trimmed.length() <= index) {
+            throw new IllegalArgumentException("Code is too short: " + code);
+        }
+        int size = digitOf(trimmed, index);
+        if (size < 2 || size > PuzzleBoard.MAX_SIZE) {
+            throw new IllegalArgumentException("Unsupported board size in code: " + code);
+        }
+        return size;
+    }
+
+    private static int digitOf(String code, int index) {
+        int digit = DIGITS.indexOf(code.charAt(index));
+        if (digit < 0) {
+            throw new IllegalArgumentException("Not a base-62 digit: '" + code.charAt(index) + "'");
+        }
+        return digit;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.fifteenpuzzlegame;
+
+/**
+ * Reads and writes boards in the line-based text format used by the offline tools.
+ * <p>
+ * A board line lists the row-major tile values separated by commas, 0 being the empty cell, e.g.
+ * {@code 1,2,3,4,5,6,7,0,8}. The grid size of a square board follows from the number of values;
+ * a rectangular board is prefixed with its rows and columns, e.g. {@code 2x3:1,2,3,4,0,5}. Tools
+ * may append further tab-separated fields, such as the difficulty written by {@link PuzzleGenerator}.
+ */
+public final class BoardFormat {
+
+    private BoardFormat() {
+    }
+
+    /**
+     * Parses the board in the first field of a line.
+     *
+     * @param line The line; leading and trailing whitespace is ignored.
+     * @return The row-major tile values.
+     * @throws IllegalArgumentException If the field is not a permutation of {@code 0..rows*columns-1},
+     *                                  or has no size prefix and a non-square number of tiles.
+     */
+    public static int[] parse(String line) {
+        String board = firstField(line.trim());
+        int[] size = parseSize(board);
+        String[] values = board.substring(board.indexOf(':') + 1).split(",");
+        if (size == null) {
+            int gridSize = (int) Math.round(Math.sqrt(values.length));
+            if (gridSize < 2 || gridSize * gridSize != values.length) {
+                throw new IllegalArgumentException("Expected a square number of tiles, got " + values.length);
+            }
+        } else if (size[0] * size[1] != values.length) {
+            throw new IllegalArgumentException("Expected " + size[0] * size[1] + " tiles, got " + values.length);
+        }
+        int[] tiles = new int[values.length];
+        boolean[] seen = new boolean[values.length];
+        for (int i = 0; i < values.length; i++) {
+            int tile;
+            try {
+                tile = Integer.parseInt(values[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a tile value: '" + values[i] + "'");
+            }
+            if (tile < 0 || tile >= values.length || seen[tile]) {
+                throw new IllegalArgumentException("Tile " + tile + " is out of range or repeated");
+            }
+            seen[tile] = true;
+            tiles[i] = tile;
+        }
+        return tiles;
+    }
+
+    /**
+     * Retrieves the number of rows of the board in the first field of a line.
+     *
+     * @param line A line accepted by {@link #parse(String)}.
+     * @return The number of rows.
+     */
+    public static int rowsOf(String line) {
+        String board = firstField(line.trim());
+        int[] size = parseSize(board);
+        return size != null ? size[0] : squareSizeOf(board);
+    }
+
+    /**
+     * Retrieves the number of columns of the board in the first field of a line.
+     *
+     * @param line A line accepted by {@link #parse(String)}.
+     * @return The number of columns.
+     */
+    public static int columnsOf(String line) {
+        String board = firstField(line.trim());
+        int[] size = parseSize(board);
+        return size != null ? size[1] : squareSizeOf(board);
+    }
+
+    /**
+     * Returns the additional tab-separated fields of a line.
+     *
+     * @param line The line.
+     * @return The fields after the board, possibly none.
+     */
+    public static String[] extraFields(String line) {
+        String trimmed = line.trim();
+        int tab = trimmed.indexOf('\t');
+        return tab < 0 ? new String[0] : trimmed.substring(tab + 1).split("\t");
+    }
+
+    /**
+     * Appends a board in line format, without a line break.
+     *
+     * @param tiles The row-major tile values.
+     * @param out   The destination.
+     * @return The destination, for chaining.
+     */
+    public static StringBuilder append(int[] tiles, StringBuilder out) {
+        for (int i = 0; i < tiles.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append(tiles[i]);
+        }
+        return out;
+    }
+
+    /**
+     * Appends a board of any shape in line format, without a line break. Square boards are written
+     * without a size prefix.
+     *
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     * @param tiles   The row-major tile values.
+     * @param out     The destination.
+     * @return The destination, for chaining.
+     */
+    public static StringBuilder append(int rows, int columns, int[] tiles, StringBuilder out) {
+        if (rows != columns) {
+            out.append(rows).append('x').append(columns).append(':');
+        }
+        return append(tiles, out);
+    }
+
+    /**
+     * Derives the grid size from the number of tiles.
+     *
+     * @param tiles The row-major tile values of a square board.
+     * @return The grid size (e.g., 3 for 3x3 grid).
+     */
+    public static int gridSizeOf(int[] tiles) {
+        return (int) Math.round(Math.sqrt(tiles.length));
+    }
+
+    /**
+     * Reads the {@code <rows>x<columns>:} prefix of a board field.
+     *
+     * @return The rows and columns, or null if the field has no prefix.
+     */
+    private static int[] parseSize(String board) {
+        int colon = board.indexOf(':');
+        if (colon < 0) {
+            return null;
+        }
+        String prefix = board.substring(0, colon).trim();
+        int x = prefix.indexOf('x');
+        try {
+            int rows = Integer.parseInt(prefix.substring(0, Math.max(x, 0)).trim());
+            int columns = Integer.parseInt(prefix.substring(x + 1).trim());
+            if (rows < 2 || columns < 2 || rows > PuzzleBoard.MAX_SIZE || columns > PuzzleBoard.MAX_SIZE) {
+                throw new IllegalArgumentException("Unsupported board size " + prefix);
+            }
+            return new int[]{rows, columns};
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a board size: '" + prefix + "'");
+        }
+    }
+
+    /**
+     * Derives the grid size of a square board field from its number of values, without parsing them.
+     */
+    private static int squareSizeOf(String board) {
+        int values = 1;
+        for (int i = 0; i < board.length(); i++) {
+            if (board.charAt(i) == ',') {
+                values++;
+            }
+        }
+        return (int) Math.round(Math.sqrt(values));
+    }
+
+    private static String firstField(String line) {
+        int tab = line.indexOf('\t');
+        return tab < 0 ? line : line.substring(0, tab);
+    }
+}
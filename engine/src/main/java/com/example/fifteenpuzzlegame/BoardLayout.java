@@ -0,0 +1,95 @@
+package com.example.fifteenpuzzlegame;
+
+/**
+ * Legal-move table of a square puzzle board: for every position of the empty cell, the cells whose
+ * tile can slide into it. The solvers, pattern database builder and generators walk the board
+ * through it instead of recomputing row and column bounds on every step. Layouts are immutable
+ * and shared per grid size.
+ */
+public final class BoardLayout {
+
+    private static final int MAX_CACHED_GRID_SIZE = 16;
+    private static final BoardLayout[] CACHE = new BoardLayout[MAX_CACHED_GRID_SIZE + 1];
+
+    private final int gridSize;
+    private final int cellCount;
+    private final int[][] neighbors;
+
+    private BoardLayout(int gridSize) {
+        this.gridSize = gridSize;
+        this.cellCount = gridSize * gridSize;
+        this.neighbors = buildNeighborTable(gridSize);
+    }
+
+    /**
+     * Returns the shared layout for the given grid size.
+     *
+     * @param gridSize The size of the grid (e.g., 3 for a 3x3 grid).
+     * @return The layout for that grid size.
+     */
+    public static BoardLayout of(int gridSize) {
+        if (gridSize < 2) {
+            throw new IllegalArgumentException("Grid size must be at least 2: " + gridSize);
+        }
+        if (gridSize > MAX_CACHED_GRID_SIZE) {
+            return new BoardLayout(gridSize);
+        }
+        BoardLayout layout = CACHE[gridSize];
+        if (layout == null) {
+            layout = new BoardLayout(gridSize);
+            CACHE[gridSize] = layout;
+        }
+        return layout;
+    }
+
+    /**
+     * Builds the legal-move table: for every blank position, the cells whose tile can slide into it.
+     */
+    private static int[][] buildNeighborTable(int gridSize) {
+        int cellCount = gridSize * gridSize;
+        int[][] table = new int[cellCount][];
+        int[] scratch = new int[4];
+        for (int blank = 0; blank < cellCount; blank++) {
+            int row = blank / gridSize;
+            int col = blank % gridSize;
+            int count = 0;
+            if (row > 0) scratch[count++] = blank - gridSize;
+            if (col > 0) scratch[count++] = blank - 1;
+            if (col < gridSize - 1) scratch[count++] = blank + 1;
+            if (row < gridSize - 1) scratch[count++] = blank + gridSize;
+            int[] moves = new int[count];
+            System.arraycopy(scratch, 0, moves, 0, count);
+            table[blank] = moves;
+        }
+        return table;
+    }
+
+    /**
+     * Returns the cells whose tile may legally slide into the empty cell.
+     * The returned array is shared and must not be modified.
+     *
+     * @param blank The index of the empty cell.
+     * @return The neighbouring cell indices.
+     */
+    public int[] neighbors(int blank) {
+        return neighbors[blank];
+    }
+
+    /**
+     * Retrieves the size of the puzzle grid.
+     *
+     * @return The grid size (e.g., 3 for 3x3 grid).
+     */
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    /**
+     * Retrieves the number of cells on the board, including the empty one.
+     *
+     * @return The cell count.
+     */
+    public int getCellCount() {
+        return cellCount;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.fifteenpuzzlegame;
+
+import java.util.SplittableRandom;
+
+/**
+ * Generates random solvable, unsolved boards in a primitive array.
+ * <p>
+ * A board is produced by a single Fisher-Yates pass. Instead of retrying until the parity happens
+ * to be right, an unsolvable result is repaired by swapping two numbered tiles, which flips the
+ * inversion parity while leaving the empty cell's row alone. Generating a board therefore costs
+ * the same every time. With a fixed seed the sequence of boards is reproducible.
+ * <p>
+ * Instances keep scratch space between calls and are not thread-safe.
+ */
+public final class BoardShuffler {
+
+    private final SplittableRandom random;
+    private int[] scratch = new int[0];
+
+    /**
+     * Constructor to initialize a shuffler with a random seed.
+     */
+    public BoardShuffler() {
+        this.random = new SplittableRandom();
+    }
+
+    /**
+     * Constructor to initialize a shuffler with a fixed seed.
+     *
+     * @param seed The seed; equal seeds produce equal board sequences.
+     */
+    public BoardShuffler(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Fills an array with a random solvable board that is not already solved.
+     *
+     * @param tiles    The array to fill, of length {@code gridSize * gridSize}.
+     * @param gridSize The size of the grid.
+     * @return The index of the empty cell.
+     */
+    public int shuffle(int[] tiles, int gridSize) {
+        return shuffle(tiles, gridSize, gridSize);
+    }
+
+    /**
+     * Fills an array with a random solvable rectangular board that is not already solved.
+     *
+     * @param tiles   The array to fill, of length {@code rows * columns}.
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     * @return The index of the empty cell.
+     */
+    public int shuffle(int[] tiles, int rows, int columns) {
+        int size = tiles.length;
+        for (int i = 0; i < size; i++) {
+            tiles[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = tiles[i];
+            tiles[i] = tiles[j];
+            tiles[j] = temp;
+        }
+
+        if (scratch.length < size) {
+            scratch = new int[size];
+        }
+        if (!Solvability.isSolvable(tiles, rows, columns, scratch)) {
+            swapFirstTwoTiles(tiles);
+        }
+
+        int blank = indexOfBlank(tiles);
+        if (isSolved(tiles)) {
+            // Any legal move keeps the board solvable and makes it unsolved; take the tile above
+            int from = blank - columns;
+            tiles[blank] = tiles[from];
+            tiles[from] = 0;
+            blank = from;
+        }
+        return blank;
+    }
+
+    private static void swapFirstTwoTiles(int[] tiles) {
+        int first = tiles[0] != 0 ? 0 : 1;
+        int second = tiles[first + 1] != 0 ? first + 1 : first + 2;
+        int temp = tiles[first];
+        tiles[first] = tiles[second];
+        tiles[second] = temp;
+    }
+
+    private static int indexOfBlank(int[] tiles) {
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isSolved(int[] tiles) {
+        for (int i = 0; i < tiles.length - 1; i++) {
+            if (tiles[i] != i + 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.fifteenpuzzlegame;
+
+import java.util.Arrays;
+
+/**
+ * The optimal distance to the solved state of every solvable 3x3 board.
+ * <p>
+ * A 3x3 board has only 9 * 8! / 2 = 181,440 solvable arrangements, so instead of searching, every one
+ * of them is looked up in a table filled by a breadth-first search back from the solved board. The
+ * table is indexed by the boards' {@link BoardCode} IDs, which number the solvable boards densely from
+ * 0. Distances are at most 31 and stored in five bits each, twelve to a {@code long}: about 118 KB in
+ * total.
+ * <p>
+ * The table is built on first use of {@link #get()}, which takes a fraction of a second, so call it
+ * off the UI thread; it is shared and immutable afterwards. Lookups, the next optimal move and whole solutions then cost
+ * constant time per move. The table is also an exact, hence admissible, {@link Heuristic}, with which
+ * {@link IdaStarSolver} walks straight to the goal.
+ */
+public final class DistanceTable implements Heuristic {
+
+    /** The only grid size the table covers. */
+    public static final int GRID_SIZE = 3;
+    /** The number of solvable 3x3 boards. */
+    public static final int STATE_COUNT = 181_440;
+
+    private static final int CELL_COUNT = GRID_SIZE * GRID_SIZE;
+
+    private static final int BITS_PER_ENTRY = 5;
+    private static final int ENTRIES_PER_WORD = Long.SIZE / BITS_PER_ENTRY;
+    private static final long ENTRY_MASK = (1L << BITS_PER_ENTRY) - 1;
+
+    private final long[] distances;
+    private final int maxDistance;
+
+    private DistanceTable(long[] distances, int maxDistance) {
+        this.distances = distances;
+        this.maxDistance = maxDistance;
+    }
+
+    /**
+     * Returns the shared table, building it on the first call.
+     *
+     * @return The table.
+     */
+    public static DistanceTable get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Defers the build until the table is first requested; the JVM makes it happen exactly once.
+     */
+    private static final class Holder {
+        static final DistanceTable INSTANCE = build();
+    }
+
+    /**
+     * Fills the table by a breadth-first search from the solved board.
+     */
+    private static DistanceTable build() {
+        byte[] depth = new byte[STATE_COUNT];
+        Arrays.fill(depth, (byte) -1);
+        int[] queue = new int[STATE_COUNT];
+        BoardLayout layout = BoardLayout.of(GRID_SIZE);
+
+        int solved = rank(solvedTiles());
+        depth[solved] = 0;
+        queue[0] = solved;
+        int head = 0;
+        int tail = 1;
+        int maxDistance = 0;
+        while (head < tail) {
+            int state = queue[head++];
+            int next = depth[state] + 1;
+            int[] tiles = unrank(state);
+            int blank = SearchWorker.indexOfBlank(tiles);
+            for (int from : layout.neighbors(blank)) {
+                tiles[blank] = tiles[from];
+                tiles[from] = 0;
+                int neighbor = rank(tiles);
+                tiles[from] = tiles[blank];
+                tiles[blank] = 0;
+                if (depth[neighbor] < 0) {
+                    depth[neighbor] = (byte) next;
+                    queue[tail++] = neighbor;
+                    maxDistance = next;
+                }
+            }
+        }
+
+        long[] distances = new long[(STATE_COUNT + ENTRIES_PER_WORD - 1) / ENTRIES_PER_WORD];
+        for (int i = 0; i < STATE_COUNT; i++) {
+            distances[i / ENTRIES_PER_WORD] |= (long) depth[i] << (i % ENTRIES_PER_WORD) * BITS_PER_ENTRY;
+        }
+        return new DistanceTable(distances, maxDistance);
+    }
+
+    /**
+     * Computes the table index of a 3x3 board, which is its {@link BoardCode} ID.
+     *
+     * @param tiles The row-major tile values, 0 being the empty cell.
+     * @return The index, from 0 to {@link #STATE_COUNT} - 1, or -1 if the board is not solvable.
+     * @throws IllegalArgumentException If the tiles are not a permutation of 0..8.
+     */
+    public static int rank(int[] tiles) {
+        return (int) BoardCode.idIfSolvable(GRID_SIZE, GRID_SIZE, tiles);
+    }
+
+    /**
+     * Reconstructs the board with a given table index.
+     *
+     * @param index The index, from 0 to {@link #STATE_COUNT} - 1.
+     * @return The row-major tile values, 0 being the empty cell.
+     * @throws IllegalArgumentException If the index is out of range.
+     */
+    public static int[] unrank(int index) {
+        if (index < 0 || index >= STATE_COUNT) {
+            throw new IllegalArgumentException("Index out of range: " + index);
+        }
+        return BoardCode.fromId(GRID_SIZE, GRID_SIZE, index);
+    }
+
+    private static int[] solvedTiles() {
+        int[] tiles = new int[CELL_COUNT];
+        for (int i = 0; i < CELL_COUNT - 1; i++) {
+            tiles[i] = i + 1;
+        }
+        return tiles;
+    }
+
+    private int distanceAt(int index) {
+        return (int) (distances[index / ENTRIES_PER_WORD] >>> (index % ENTRIES_PER_WORD) * BITS_PER_ENTRY & ENTRY_MASK);
+    }
+
+    /**
+     * Looks up the optimal number of moves needed to solve a board.
+     *
+     * @param tiles The row-major tile values of a 3x3 board, 0 being the empty cell.
+     * @return The distance, or -1 if the board is not solvable.
+     * @throws IllegalArgumentException If the tiles are not a permutation of 0..8.
+     */
+    public int distance(int[] tiles) {
+        int index = rank(tiles);
+        return index < 0 ? -1 : distanceAt(index);
+    }
+
+    /**
+     * Finds a move that starts an optimal solution.
+     *
+     * @param tiles The row-major tile values of a 3x3 board, 0 being the empty cell; not modified.
+     * @return The row-major index of the tile to tap, or -1 if the board is solved or not solvable.
+     * @throws IllegalArgumentException If the tiles are not a permutation of 0..8.
+     */
+    public int nextMove(int[] tiles) {
+        int distance = distance(tiles);
+        if (distance <= 0) {
+            return -1;
+        }
+        int[] board = tiles.clone();
+        int blank = SearchWorker.indexOfBlank(board);
+        for (int from : BoardLayout.of(GRID_SIZE).neighbors(blank)) {
+            board[blank] = board[from];
+            board[from] = 0;
+            int neighbor = distanceAt(rank(board));
+            board[from] = board[blank];
+            board[blank] = 0;
+            if (neighbor == distance - 1) {
+                return from;
+            }
+        }
+        throw new IllegalStateException("Distance table is inconsistent");
+    }
+
+    /**
+     * Solves a board by following the table, without searching.
+     *
+     * @param start The row-major tile values of a 3x3 board, 0 being the empty cell; not modified.
+     * @return An optimal solution; its node count is the number of lookups that led to the goal.
+     * @throws IllegalArgumentException If the board is not a solvable 3x3 board.
+     */
+    public Solution solve(int[] start) {
+        long startNanos = System.nanoTime();
+        int distance = distance(start);
+        if (distance < 0) {
+            throw new IllegalArgumentException("Board cannot be solved");
+        }
+        int[] board = start.clone();
+        int[] moves = new int[distance];
+        for (int step = 0; step < distance; step++) {
+            int from = nextMove(board);
+            int blank = SearchWorker.indexOfBlank(board);
+            board[blank] = board[from];
+            board[from] = 0;
+            moves[step] = from;
+        }
+        return new Solution(GRID_SIZE, moves, distance, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Retrieves the largest distance in the table, i.e. the most moves any 3x3 board needs.
+     *
+     * @return The maximum distance.
+     */
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    @Override
+    public int estimate(int[] tiles) {
+        int distance = distance(tiles);
+        if (distance < 0) {
+            throw new IllegalArgumentException("Board cannot be solved");
+        }
+        return distance;
+    }
+
+    @Override
+    public int delta(int[] tiles, int tile, int from, int to) {
+        int after = estimate(tiles);
+        // Undo the move in place for the second lookup instead of copying the board
+        tiles[from] = tile;
+        tiles[to] = 0;
+        int before = distance(tiles);
+        tiles[to] = tile;
+        tiles[from] = 0;
+        return after - before;
+    }
+}
@@ -0,0 +1,531 @@
+package com.example.fifteenpuzzlegame;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Append-only store of completed games.
+ * <p>
+ * Every game is one fixed-size 32-byte record: board size, outcome, move count, start time, duration
+ * and shuffle seed. Records are appended to a single file; a record torn by a crash is cut off the
+ * next time the file is opened. For queries the file is memory-mapped and an in-memory index keeps,
+ * per board size, the record numbers sorted by start time. A query binary-searches the index and
+ * reads only the fields of the records in range, so thousands of games are summarized without
+ * being loaded as objects.
+ * <p>
+ * All methods are thread-safe.
+ */
+public final class GameHistory implements Closeable {
+
+    /**
+     * How a game ended.
+     */
+    public enum Outcome {
+        /** The puzzle was solved. */
+        WON,
+        /** A new game was started before the puzzle was solved. */
+        ABANDONED
+    }
+
+    /**
+     * Receives the records of a query in start-time order.
+     */
+    public interface Visitor {
+        /**
+         * Called once per record.
+         *
+         * @param record The record; only valid during the call, as it may be reused.
+         */
+        void visit(Record record);
+    }
+
+    /**
+     * One completed game.
+     */
+    public static final class Record {
+        private int rows;
+        private int columns;
+        private Outcome outcome;
+        private int moveCount;
+        private long startTime;
+        private long duration;
+        private long seed;
+
+        /**
+         * Constructor to initialize a record.
+         *
+         * @param gridSize  The size of the grid.
+         * @param outcome   How the game ended.
+         * @param moveCount The number of moves made.
+         * @param startTime The wall-clock start time in milliseconds since the epoch.
+         * @param duration  The playing time in milliseconds.
+         * @param seed      The seed the board was shuffled with.
+         */
+        public Record(int gridSize, Outcome outcome, int moveCount, long startTime, long duration, long seed) {
+            this(gridSize, gridSize, outcome, moveCount, startTime, duration, seed);
+        }
+
+        /**
+         * Constructor to initialize a record of a rectangular board.
+         *
+         * @param rows      The number of rows.
+         * @param columns   The number of columns.
+         * @param outcome   How the game ended.
+         * @param moveCount The number of moves made.
+         * @param startTime The wall-clock start time in milliseconds since the epoch.
+         * @param duration  The playing time in milliseconds.
+         * @param seed      The seed the board was shuffled with.
+         */
+        public Record(int rows, int columns, Outcome outcome, int moveCount, long startTime, long duration, long seed) {
+            this.rows = rows;
+            this.columns = columns;
+            this.outcome = outcome;
+            this.moveCount = moveCount;
+            this.startTime = startTime;
+            this.duration = duration;
+            this.seed = seed;
+        }
+
+        /**
+         * Retrieves the size of the grid; on a rectangular board, the number of columns.
+         *
+         * @return The grid size (e.g., 3 for 3x3 grid).
+         */
+        public int getGridSize() {
+            return columns;
+        }
+
+        /**
+         * Retrieves the number of rows.
+         *
+         * @return The number of rows.
+         */
+        public int getRows() {
+            return rows;
+        }
+
+        /**
+         * Retrieves the number of columns.
+         *
+         * @return The number of columns.
+         */
+        public int getColumns() {
+            return columns;
+        }
+
+        /**
+         * Retrieves how the game ended.
+         *
+         * @return The outcome.
+         */
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        /**
+         * Retrieves the number of moves made.
+         *
+         * @return The move count.
+         */
+        public int getMoveCount() {
+            return moveCount;
+        }
+
+        /**
+         * Retrieves the start time.
+         *
+         * @return Milliseconds since the epoch.
+         */
+        public long getStartTime() {
+            return startTime;
+        }
+
+        /**
+         * Retrieves the playing time.
+         *
+         * @return The duration in milliseconds.
+         */
+        public long getDuration() {
+            return duration;
+        }
+
+        /**
+         * Retrieves the shuffle seed, which reproduces the starting board.
+         *
+         * @return The seed.
+         */
+        public long getSeed() {
+            return seed;
+        }
+    }
+
+    /**
+     * Aggregated statistics over a range of games.
+     */
+    public static final class Summary {
+        private int gamesPlayed;
+        private int gamesWon;
+        private long bestTime = Long.MAX_VALUE;
+        private int bestMoveCount;
+        private long totalWinningTime;
+
+        /**
+         * Retrieves the number of games played.
+         *
+         * @return The number of records in range.
+         */
+        public int getGamesPlayed() {
+            return gamesPlayed;
+        }
+
+        /**
+         * Retrieves the number of games won.
+         *
+         * @return The number of won games in range.
+         */
+        public int getGamesWon() {
+            return gamesWon;
+        }
+
+        /**
+         * Retrieves the win percentage.
+         *
+         * @return The percentage of games won, 0 if none were played.
+         */
+        public double getWinPercentage() {
+            return gamesPlayed == 0 ? 0.0 : 100.0 * gamesWon / gamesPlayed;
+        }
+
+        /**
+         * Retrieves the shortest winning time.
+         *
+         * @return The best time in milliseconds, or {@code Long.MAX_VALUE} if no game was won.
+         */
+        public long getBestTime() {
+            return bestTime;
+        }
+
+        /**
+         * Retrieves the lowest winning move count.
+         *
+         * @return The best move count, or 0 if no game was won.
+         */
+        public int getBestMoveCount() {
+            return bestMoveCount;
+        }
+
+        /**
+         * Retrieves the average winning time.
+         *
+         * @return The average time in milliseconds, or 0 if no game was won.
+         */
+        public long getAverageWinningTime() {
+            return gamesWon == 0 ? 0 : totalWinningTime / gamesWon;
+        }
+
+        private void add(Record record) {
+            gamesPlayed++;
+            if (record.outcome == Outcome.WON) {
+                gamesWon++;
+                totalWinningTime += record.duration;
+                bestTime = Math.min(bestTime, record.duration);
+                if (bestMoveCount == 0 || record.moveCount < bestMoveCount) {
+                    bestMoveCount = record.moveCount;
+                }
+            }
+        }
+    }
+
+    private static final int MAGIC = 0x47485331; // "GHS1"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_SIZE = 32;
+
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    /**
+     * Start times and record numbers of one board size, sorted by start time.
+     */
+    private static final class Index {
+        long[] startTimes = new long[16];
+        int[] recordNumbers = new int[16];
+        int size;
+
+        void insert(long startTime, int recordNumber) {
+            if (size == startTimes.length) {
+                startTimes = Arrays.copyOf(startTimes, size * 2);
+                recordNumbers = Arrays.copyOf(recordNumbers, size * 2);
+            }
+            // Records arrive roughly in time order, so this is nearly always an append
+            int position = size;
+            while (position > 0 && startTimes[position - 1] > startTime) {
+                startTimes[position] = startTimes[position - 1];
+                recordNumbers[position] = recordNumbers[position - 1];
+                position--;
+            }
+            startTimes[position] = startTime;
+            recordNumbers[position] = recordNumber;
+            size++;
+        }
+
+        /**
+         * Returns the first position whose start time is at least {@code time}.
+         */
+        int lowerBound(long time) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (startTimes[middle] < time) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final Map<Integer, Index> indexes = new HashMap<>();
+    private final ByteBuffer appendBuffer = ByteBuffer.allocate(RECORD_SIZE);
+    private int recordCount;
+    private MappedByteBuffer mapped;
+    private int mappedRecordCount;
+
+    private GameHistory(RandomAccessFile file) {
+        this.file = file;
+        this.channel = file.getChannel();
+    }
+
+    /**
+     * Opens or creates a history file and builds its index.
+     *
+     * @param path The history file.
+     * @return The history.
+     * @throws IOException If the file cannot be opened or is not a history file.
+     */
+    public static GameHistory open(File path) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(path, "rw");
+        try {
+            GameHistory history = new GameHistory(file);
+            history.load();
+            return history;
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    private void load() throws IOException {
+        long length = channel.size();
+        if (length < HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(VERSION);
+            header.flip();
+            channel.truncate(0);
+            channel.write(header, 0);
+            length = HEADER_SIZE;
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a game history file");
+            }
+        }
+        recordCount = (int) ((length - HEADER_SIZE) / RECORD_SIZE);
+        long validLength = HEADER_SIZE + (long) recordCount * RECORD_SIZE;
+        if (validLength != length) {
+            // A record torn by a crash
+            channel.truncate(validLength);
+        }
+        remap();
+        for (int i = 0; i < recordCount; i++) {
+            int base = HEADER_SIZE + i * RECORD_SIZE;
+            int rows = mapped.get(base) & 0xFF;
+            indexFor(rows, columnsAt(base, rows)).insert(mapped.getLong(base + 8), i);
+        }
+    }
+
+    /**
+     * Appends a completed game.
+     *
+     * @param record The game.
+     * @throws IOException If the record cannot be written.
+     */
+    public synchronized void append(Record record) throws IOException {
+        appendBuffer.clear();
+        appendBuffer.put((byte) record.rows)
+                .put((byte) record.outcome.ordinal())
+                .put((byte) (record.columns == record.rows ? 0 : record.columns))
+                .put((byte) 0)
+                .putInt(record.moveCount)
+                .putLong(record.startTime)
+                .putLong(record.duration)
+                .putLong(record.seed)
+                .flip();
+        long position = HEADER_SIZE + (long) recordCount * RECORD_SIZE;
+        while (appendBuffer.hasRemaining()) {
+            position += channel.write(appendBuffer, position);
+        }
+        indexFor(record.rows, record.columns).insert(record.startTime, recordCount);
+        recordCount++;
+    }
+
+    /**
+     * Visits the games of a grid size that started within a time range, in start-time order.
+     *
+     * @param gridSize The size of the grid.
+     * @param fromTime The earliest start time, inclusive.
+     * @param toTime   The latest start time, exclusive.
+     * @param visitor  Receives the records.
+     * @throws IOException If the file cannot be mapped.
+     */
+    public void query(int gridSize, long fromTime, long toTime, Visitor visitor) throws IOException {
+        query(gridSize, gridSize, fromTime, toTime, visitor);
+    }
+
+    /**
+     * Visits the games of a board size that started within a time range, in start-time order.
+     *
+     * @param rows     The number of rows.
+     * @param columns  The number of columns.
+     * @param fromTime The earliest start time, inclusive.
+     * @param toTime   The latest start time, exclusive.
+     * @param visitor  Receives the records.
+     * @throws IOException If the file cannot be mapped.
+     */
+    public synchronized void query(int rows, int columns, long fromTime, long toTime, Visitor visitor) throws IOException {
+        Index index = indexes.get(sizeKey(rows, columns));
+        if (index == null) {
+            return;
+        }
+        if (mappedRecordCount != recordCount) {
+            remap();
+        }
+        Record record = new Record(rows, columns, Outcome.WON, 0, 0, 0, 0);
+        for (int i = index.lowerBound(fromTime); i < index.size && index.startTimes[i] < toTime; i++) {
+            read(index.recordNumbers[i], record);
+            visitor.visit(record);
+        }
+    }
+
+    /**
+     * Summarizes the games of a grid size that started within a time range.
+     *
+     * @param gridSize The size of the grid.
+     * @param fromTime The earliest start time, inclusive.
+     * @param toTime   The latest start time, exclusive.
+     * @return The summary.
+     * @throws IOException If the file cannot be mapped.
+     */
+    public Summary summarize(int gridSize, long fromTime, long toTime) throws IOException {
+        return summarize(gridSize, gridSize, fromTime, toTime);
+    }
+
+    /**
+     * Summarizes the games of a board size that started within a time range.
+     *
+     * @param rows     The number of rows.
+     * @param columns  The number of columns.
+     * @param fromTime The earliest start time, inclusive.
+     * @param toTime   The latest start time, exclusive.
+     * @return The summary.
+     * @throws IOException If the file cannot be mapped.
+     */
+    public Summary summarize(int rows, int columns, long fromTime, long toTime) throws IOException {
+        Summary summary = new Summary();
+        query(rows, columns, fromTime, toTime, summary::add);
+        return summary;
+    }
+
+    /**
+     * Summarizes all games of a grid size.
+     *
+     * @param gridSize The size of the grid.
+     * @return The summary.
+     * @throws IOException If the file cannot be mapped.
+     */
+    public Summary summarize(int gridSize) throws IOException {
+        return summarize(gridSize, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Retrieves the number of games recorded for a grid size.
+     *
+     * @param gridSize The size of the grid.
+     * @return The number of records.
+     */
+    public synchronized int count(int gridSize) {
+        Index index = indexes.get(sizeKey(gridSize, gridSize));
+        return index == null ? 0 : index.size;
+    }
+
+    /**
+     * Retrieves the number of games recorded for all grid sizes.
+     *
+     * @return The number of records.
+     */
+    public synchronized int size() {
+        return recordCount;
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @throws IOException If closing fails.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        mapped = null;
+        file.close();
+    }
+
+    private Index indexFor(int rows, int columns) {
+        int key = sizeKey(rows, columns);
+        Index index = indexes.get(key);
+        if (index == null) {
+            index = new Index();
+            indexes.put(key, index);
+        }
+        return index;
+    }
+
+    private static int sizeKey(int rows, int columns) {
+        return rows << 8 | columns;
+    }
+
+    /**
+     * Reads the column count of a mapped record; records of square boards leave it 0.
+     */
+    private int columnsAt(int base, int rows) {
+        int columns = mapped.get(base + 2) & 0xFF;
+        return columns == 0 ? rows : columns;
+    }
+
+    private void remap() throws IOException {
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE + (long) recordCount * RECORD_SIZE);
+        mappedRecordCount = recordCount;
+    }
+
+    private void read(int recordNumber, Record record) {
+        int base = HEADER_SIZE + recordNumber * RECORD_SIZE;
+        record.rows = mapped.get(base) & 0xFF;
+        record.columns = columnsAt(base, record.rows);
+        int outcome = mapped.get(base + 1);
+        record.outcome = outcome >= 0 && outcome < OUTCOMES.length ? OUTCOMES[outcome] : Outcome.ABANDONED;
+        record.moveCount = mapped.getInt(base + 4);
+        record.startTime = mapped.getLong(base + 8);
+        record.duration = mapped.getLong(base + 16);
+        record.seed = mapped.getLong(base + 24);
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.fifteenpuzzlegame;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A game recorded for replay: the starting board plus every move with the playing time at which it
+ * was made. Undone and redone moves are recorded as ordinary moves, so playback shows exactly what
+ * the player saw.
+ * <p>
+ * Moves are stored as the cell the empty cell moved to, which is also the cell
+ * {@link PuzzleBoard#moveTiles(int, int)} expects, so any recorded move can be replayed by tapping it.
+ */
+public final class GameRecording {
+
+    private static final int MAGIC = 0x47524331; // "GRC1"
+
+    private final int rows;
+    private final int columns;
+    private final int[] startTiles;
+    private int[] cells = new int[64];
+    private int[] times = new int[64];
+    private int size;
+
+    /**
+     * Constructor to initialize an empty recording.
+     *
+     * @param gridSize   The size of the grid.
+     * @param startTiles The row-major starting tiles, 0 being the empty cell; copied.
+     */
+    public GameRecording(int gridSize, int[] startTiles) {
+        this(gridSize, gridSize, startTiles);
+    }
+
+    /**
+     * Constructor to initialize an empty recording of a rectangular board.
+     *
+     * @param rows       The number of rows.
+     * @param columns    The number of columns.
+     * @param startTiles The row-major starting tiles, 0 being the empty cell; copied.
+     */
+    public GameRecording(int rows, int columns, int[] startTiles) {
+        if (startTiles.length != rows * columns) {
+            throw new IllegalArgumentException("Expected " + rows * columns + " tiles, got " + startTiles.length);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.startTiles = startTiles.clone();
+    }
+
+    /**
+     * Appends a move.
+     *
+     * @param cell        The row-major index the empty cell moved to, i.e. the tapped tile.
+     * @param timeMillis  The playing time of the move in milliseconds; earlier times are raised to the previous move's.
+     */
+    public void record(int cell, long timeMillis) {
+        if (size == cells.length) {
+            cells = Arrays.copyOf(cells, size * 2);
+            times = Arrays.copyOf(times, size * 2);
+        }
+        int previous = size == 0 ? 0 : times[size - 1];
+        cells[size] = cell;
+        times[size] = (int) Math.max(previous, Math.min(timeMillis, Integer.MAX_VALUE));
+        size++;
+    }
+
+    /**
+     * Retrieves the size of the grid; on a rectangular board, the number of columns.
+     *
+     * @return The grid size (e.g., 3 for 3x3 grid).
+     */
+    public int getGridSize() {
+        return columns;
+    }
+
+    /**
+     * Retrieves the number of rows.
+     *
+     * @return The number of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Retrieves the number of columns.
+     *
+     * @return The number of columns.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the starting board.
+     *
+     * @return A copy of the row-major starting tiles.
+     */
+    public int[] getStartTiles() {
+        return startTiles.clone();
+    }
+
+    /**
+     * Retrieves the number of recorded moves.
+     *
+     * @return The move count.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retrieves the cell of a move.
+     *
+     * @param index The move index, from 0.
+     * @return The row-major index the empty cell moved to.
+     */
+    public int getCell(int index) {
+        return cells[index];
+    }
+
+    /**
+     * Retrieves the playing time of a move.
+     *
+     * @param index The move index, from 0.
+     * @return Milliseconds since the start of the game; never less than the previous move's.
+     */
+    public long getTime(int index) {
+        return times[index];
+    }
+
+    /**
+     * Retrieves the playing time of the last move.
+     *
+     * @return The duration in milliseconds, 0 if no move was recorded.
+     */
+    public long getDuration() {
+        return size == 0 ? 0 : times[size - 1];
+    }
+
+    /**
+     * Counts the moves made up to a point in time.
+     *
+     * @param timeMillis The playing time in milliseconds.
+     * @return The number of moves whose time is at most {@code timeMillis}.
+     */
+    public int countMovesUntil(long timeMillis) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (times[middle] <= timeMillis) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Serializes the recording: header, starting tiles, then per move one byte for the cell and the
+     * time since the previous move in a variable-length encoding, which takes one or two bytes at
+     * typical tapping speeds. Boards up to 16x16 are supported.
+     *
+     * @return The serialized recording.
+     */
+    public byte[] toByteArray() {
+        if (startTiles.length > 256) {
+            throw new IllegalStateException("Boards larger than 16x16 cannot be serialized");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(10 + startTiles.length + size * 6);
+        buffer.putInt(MAGIC).put((byte) rows).put((byte) columns);
+        for (int tile : startTiles) {
+            buffer.put((byte) tile);
+        }
+        buffer.putInt(size);
+        int previous = 0;
+        for (int i = 0; i < size; i++) {
+            buffer.put((byte) cells[i]);
+            int delta = times[i] - previous;
+            while (delta >= 0x80) {
+                buffer.put((byte) (delta & 0x7F | 0x80));
+                delta >>>= 7;
+            }
+            buffer.put((byte) delta);
+            previous = times[i];
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    /**
+     * Restores a recording serialized with {@link #toByteArray()}.
+     *
+     * @param bytes The serialized recording.
+     * @return The recording.
+     * @throws IllegalArgumentException If the bytes are not a valid recording.
+     */
+    public static GameRecording fromByteArray(byte[] bytes) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a game recording");
+            }
+            int rows = buffer.get() & 0xFF;
+            int columns = buffer.get() & 0xFF;
+            int[] tiles = new int[rows * columns];
+            for (int i = 0; i < tiles.length; i++) {
+                tiles[i] = buffer.get() & 0xFF;
+            }
+            if (rows < 2 || columns < 2 || !isPermutation(tiles)) {
+                throw new IllegalArgumentException("Invalid starting board");
+            }
+            GameRecording recording = new GameRecording(rows, columns, tiles);
+            int count = buffer.getInt();
+            if (count < 0 || count > buffer.remaining() / 2) {
+                throw new IllegalArgumentException("Invalid move count " + count);
+            }
+            long time = 0;
+            for (int i = 0; i < count; i++) {
+                int cell = buffer.get() & 0xFF;
+                int delta = 0;
+                int shift = 0;
+                int b;
+                do {
+                    b = buffer.get();
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0 && shift < 35);
+                time += delta;
+                recording.record(cell, time);
+            }
+            return recording;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated game recording", e);
+        }
+    }
+
+    private static boolean isPermutation(int[] tiles) {
+        boolean[] seen = new boolean[tiles.length];
+        for (int tile : tiles) {
+            if (tile >= tiles.length || seen[tile]) {
+                return false;
+            }
+            seen[tile] = true;
+        }
+        return true;
+    }
+}
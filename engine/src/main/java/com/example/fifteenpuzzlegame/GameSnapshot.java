@@ -0,0 +1,181 @@
+package com.example.fifteenpuzzlegame;
+
+/**
+ * The saved state of a game in progress: the board, its undo/redo log, the move count and the timer.
+ * <p>
+ * Snapshots are immutable values handed to a {@link StateCodec}. The move log is kept in its packed form
+ * (see {@link MoveLog#toByteArray()}) so that taking a snapshot costs one copy on the calling thread
+ * and encoding can happen anywhere.
+ */
+public final class GameSnapshot {
+
+    private final int rows;
+    private final int columns;
+    private final int[] tiles;
+    private final byte[] moveLog;
+    private final int moveCount;
+    private final long pauseOffset;
+    private final boolean isPaused;
+    private final boolean isGameFinished;
+
+    /**
+     * Constructor to initialize a snapshot from its parts.
+     *
+     * @param rows           The number of rows.
+     * @param columns        The number of columns.
+     * @param tiles          The row-major tile values, 0 being the empty cell; copied here.
+     * @param moveLog        The packed undo/redo log, or null for an empty one; copied here.
+     * @param moveCount      The number of moves made so far.
+     * @param pauseOffset    The chronometer offset in milliseconds.
+     * @param isPaused       Whether the game is paused.
+     * @param isGameFinished Whether the game has been won.
+     * @throws IllegalArgumentException If the size is unsupported or the tiles are not a permutation of
+     *                                  {@code 0..rows*columns-1}.
+     */
+    public GameSnapshot(int rows, int columns, int[] tiles, byte[] moveLog, int moveCount, long pauseOffset,
+                        boolean isPaused, boolean isGameFinished) {
+        if (rows < 2 || columns < 2 || rows > PuzzleBoard.MAX_SIZE || columns > PuzzleBoard.MAX_SIZE) {
+            throw new IllegalArgumentException("Unsupported board size " + rows + "x" + columns);
+        }
+        int cellCount = rows * columns;
+        if (tiles.length != cellCount) {
+            throw new IllegalArgumentException("Expected " + cellCount + " tiles, got " + tiles.length);
+        }
+        boolean[] seen = new boolean[cellCount];
+        for (int tile : tiles) {
+            if (tile < 0 || tile >= cellCount || seen[tile]) {
+                throw new IllegalArgumentException("Tile " + tile + " is out of range or repeated");
+            }
+            seen[tile] = true;
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.tiles = tiles.clone();
+        this.moveLog = moveLog == null ? new MoveLog().toByteArray() : moveLog.clone();
+        this.moveCount = moveCount;
+        this.pauseOffset = pauseOffset;
+        this.isPaused = isPaused;
+        this.isGameFinished = isGameFinished;
+    }
+
+    /**
+     * Takes a snapshot of a board.
+     *
+     * @param board       The board; its tiles and move log are copied.
+     * @param moveCount   The number of moves made so far.
+     * @param pauseOffset The chronometer offset in milliseconds.
+     * @param isPaused    Whether the game is paused.
+     * @return The snapshot.
+     */
+    public static GameSnapshot of(PuzzleBoard board, int moveCount, long pauseOffset, boolean isPaused) {
+        byte[] moveLog = board.getMoveLog() == null ? null : board.getMoveLog().toByteArray();
+        return new GameSnapshot(board.getRows(), board.getColumns(), board.getTiles(), moveLog, moveCount,
+                pauseOffset, isPaused, board.isGameFinished());
+    }
+
+    /**
+     * Retrieves the number of rows.
+     *
+     * @return The number of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Retrieves the number of columns.
+     *
+     * @return The number of columns.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Retrieves the board.
+     *
+     * @return A copy of the row-major tile values, 0 being the empty cell.
+     */
+    public int[] getTiles() {
+        return tiles.clone();
+    }
+
+    /**
+     * Retrieves one tile without copying the board.
+     *
+     * @param index The row-major cell index.
+     * @return The tile value, 0 for the empty cell.
+     */
+    public int getTile(int index) {
+        return tiles[index];
+    }
+
+    /**
+     * Retrieves the position of the empty cell.
+     *
+     * @return Its row-major index.
+     */
+    public int getEmptyIndex() {
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] == 0) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Board has no empty cell");
+    }
+
+    /**
+     * Retrieves the packed undo/redo log.
+     *
+     * @return A copy of the bytes, as returned by {@link MoveLog#toByteArray()}.
+     */
+    public byte[] getMoveLogBytes() {
+        return moveLog.clone();
+    }
+
+    /**
+     * Restores the undo/redo log.
+     *
+     * @return A new log.
+     * @throws IllegalArgumentException If the stored bytes are not a valid log.
+     */
+    public MoveLog getMoveLog() {
+        return MoveLog.fromByteArray(moveLog);
+    }
+
+    /**
+     * Retrieves the move count.
+     *
+     * @return The number of moves made so far.
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Retrieves the pause offset.
+     *
+     * @return The chronometer offset in milliseconds.
+     */
+    public long getPauseOffset() {
+        return pauseOffset;
+    }
+
+    /**
+     * Checks whether the game was paused.
+     *
+     * @return True if the game was paused.
+     */
+    public boolean isPaused() {
+        return isPaused;
+    }
+
+    /**
+     * Checks whether the game had been won.
+     *
+     * @return True if the game was finished.
+     */
+    public boolean isGameFinished() {
+        return isGameFinished;
+    }
+}
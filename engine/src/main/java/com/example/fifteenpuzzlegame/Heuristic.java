@@ -0,0 +1,30 @@
+package com.example.fifteenpuzzlegame;
+
+/**
+ * An admissible distance estimate used to guide the puzzle solver.
+ * <p>
+ * Boards are passed as row-major tile arrays where 0 is the empty cell. Implementations must be
+ * stateless so that a single instance can be shared between searches.
+ */
+public interface Heuristic {
+
+    /**
+     * Computes the estimate for a whole board.
+     *
+     * @param tiles The row-major tile values.
+     * @return A lower bound on the number of moves needed to solve the board.
+     */
+    int estimate(int[] tiles);
+
+    /**
+     * Computes the change in estimate caused by a single move that has already been applied to
+     * {@code tiles}: {@code tile} slid from cell {@code from} into the previously empty cell {@code to}.
+     *
+     * @param tiles The row-major tile values after the move.
+     * @param tile  The tile that moved.
+     * @param from  The cell the tile left (now empty).
+     * @param to    The cell the tile entered.
+     * @return The new estimate minus the old estimate.
+     */
+    int delta(int[] tiles, int tile, int from, int to);
+}
@@ -0,0 +1,263 @@
+package com.example.fifteenpuzzlegame;
+
+import java.io.File;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes "best next move" hints on a background thread.
+ * <p>
+ * Requests run on a single-thread executor whose queue holds one pending request; a newer request
+ * replaces one that has not started yet. Every request can be cancelled, and the search also stops
+ * once the latency budget is spent. In that case the hint falls back to the neighbouring tile that
+ * lowers the heuristic estimate the most, so the caller always gets an answer on time.
+ * <p>
+ * Pattern databases are picked up from {@code pattern_db_<gridSize>.bin} in the heuristic
+ * directory when present; otherwise the linear-conflict heuristic is used. 3x3 hints are not
+ * searched at all but looked up in the {@link DistanceTable}, and boards larger than
+ * {@value #MAX_SEARCH_GRID_SIZE}x{@value #MAX_SEARCH_GRID_SIZE} get the best-effort move straight away.
+ * Every request that is not cancelled gets a callback, with no cell if there is no hint to give.
+ */
+public class HintEngine {
+
+    /** The default time allowed for the optimal search before a best-effort hint is returned. */
+    public static final long DEFAULT_BUDGET_MILLIS = 100;
+
+    /** Larger boards are not searched at all; their hints would never be optimal in time. */
+    private static final int MAX_SEARCH_GRID_SIZE = 8;
+
+    /**
+     * Receives the result of a hint request. Called on the hint thread.
+     */
+    public interface Callback {
+        /**
+         * Called once the hint is ready, unless the request was cancelled.
+         *
+         * @param request The request that produced the hint.
+         * @param hint    The hint.
+         */
+        void onHint(Request request, Hint hint);
+    }
+
+    /**
+     * A suggested move.
+     */
+    public static final class Hint {
+        private final int cell;
+        private final boolean optimal;
+        private final int movesToSolve;
+
+        Hint(int cell, boolean optimal, int movesToSolve) {
+            this.cell = cell;
+            this.optimal = optimal;
+            this.movesToSolve = movesToSolve;
+        }
+
+        /**
+         * Retrieves the cell to tap.
+         *
+         * @return The row-major index of the tile to move, or -1 if the board is already solved or
+         * there is no hint for it.
+         */
+        public int getCell() {
+            return cell;
+        }
+
+        /**
+         * Checks whether the hint comes from a completed optimal search.
+         *
+         * @return True for an optimal move, false for a best-effort move.
+         */
+        public boolean isOptimal() {
+            return optimal;
+        }
+
+        /**
+         * Retrieves the optimal solution length from the current position.
+         *
+         * @return The number of moves, or -1 if the search did not finish.
+         */
+        public int getMovesToSolve() {
+            return movesToSolve;
+        }
+    }
+
+    /**
+     * A pending hint request.
+     */
+    public static final class Request implements Runnable {
+        private final HintEngine engine;
+        private final int[] tiles;
+        private final int gridSize;
+        private final Callback callback;
+        private volatile boolean cancelled;
+
+        Request(HintEngine engine, int[] tiles, int gridSize, Callback callback) {
+            this.engine = engine;
+            this.tiles = tiles;
+            this.gridSize = gridSize;
+            this.callback = callback;
+        }
+
+        /**
+         * Cancels the request. The callback will not be called unless it is already running.
+         */
+        public void cancel() {
+            cancelled = true;
+            engine.executor.remove(this);
+        }
+
+        /**
+         * Checks whether the request was cancelled.
+         *
+         * @return True if {@link #cancel()} was called.
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+            Hint hint = engine.computeHint(this);
+            if (hint != null && !cancelled) {
+                callback.onHint(this, hint);
+            }
+        }
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final File heuristicDirectory;
+    private final long budgetNanos;
+    private final Heuristic[] heuristics = new Heuristic[PuzzleBoard.MAX_SIZE + 1];
+    private boolean distanceTablePrepared;
+
+    /**
+     * Constructor to initialize a hint engine.
+     *
+     * @param heuristicDirectory The directory searched for pattern database files; may be null.
+     * @param budgetMillis       The time allowed for the optimal search of each request.
+     */
+    public HintEngine(File heuristicDirectory, long budgetMillis) {
+        this.heuristicDirectory = heuristicDirectory;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(1), runnable -> {
+            Thread thread = new Thread(runnable, "hint-solver");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardOldestPolicy());
+    }
+
+    /**
+     * Queues a hint request for a game's current position.
+     *
+     * @param game     The game; its tiles are copied, so it may change right after this call.
+     * @param callback Receives the hint on the hint thread.
+     * @return The request, which can be cancelled.
+     */
+    public Request requestHint(PuzzleBoard game, Callback callback) {
+        Request request = new Request(this, game.getTiles(), game.getGridSize(), callback);
+        executor.execute(request);
+        return request;
+    }
+
+    /**
+     * Starts building what hints on a board size need ahead of the first request, so that the build
+     * does not eat into a hint's budget: for 3x3 boards, the {@link DistanceTable}. The build runs on
+     * its own low-priority thread, leaving the hint queue alone; a hint that needs the table before it
+     * is ready waits for the build to finish. Call it when a game starts.
+     *
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     */
+    public void prepare(int rows, int columns) {
+        if (rows == DistanceTable.GRID_SIZE && columns == DistanceTable.GRID_SIZE && !distanceTablePrepared) {
+            distanceTablePrepared = true;
+            Thread thread = new Thread(DistanceTable::get, "distance-table");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            thread.start();
+        }
+    }
+
+    /**
+     * Stops the hint thread. Pending requests are dropped.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private Hint computeHint(Request request) {
+        // The solvers and heuristics only handle square boards
+        if (request.tiles.length != request.gridSize * request.gridSize
+                || !Solvability.isSolvable(request.tiles, request.gridSize)) {
+            return new Hint(-1, false, -1);
+        }
+        if (request.gridSize == DistanceTable.GRID_SIZE) {
+            DistanceTable table = DistanceTable.get();
+            return new Hint(table.nextMove(request.tiles), true, table.distance(request.tiles));
+        }
+        Heuristic heuristic = heuristicFor(request.gridSize);
+        if (request.gridSize > MAX_SEARCH_GRID_SIZE) {
+            return new Hint(greedyMove(request.tiles, request.gridSize, heuristic), false, -1);
+        }
+        long deadline = System.nanoTime() + budgetNanos;
+        try {
+            Solution solution = new IdaStarSolver(request.gridSize, heuristic)
+                    .solve(request.tiles, () -> request.cancelled || System.nanoTime() > deadline);
+            return new Hint(solution.getFirstMove(), true, solution.length());
+        } catch (CancellationException e) {
+            if (request.cancelled) {
+                return null;
+            }
+            return new Hint(greedyMove(request.tiles, request.gridSize, heuristic), false, -1);
+        }
+    }
+
+    /**
+     * Picks the neighbouring tile whose move lowers the estimate the most, or -1 on a solved board.
+     */
+    private static int greedyMove(int[] tiles, int gridSize, Heuristic heuristic) {
+        if (heuristic.estimate(tiles) == 0) {
+            return -1;
+        }
+        int blank = SearchWorker.indexOfBlank(tiles);
+        int bestCell = -1;
+        int bestDelta = Integer.MAX_VALUE;
+        for (int from : BoardLayout.of(gridSize).neighbors(blank)) {
+            int tile = tiles[from];
+            tiles[blank] = tile;
+            tiles[from] = 0;
+            int delta = heuristic.delta(tiles, tile, from, blank);
+            tiles[from] = tile;
+            tiles[blank] = 0;
+            if (delta < bestDelta) {
+                bestDelta = delta;
+                bestCell = from;
+            }
+        }
+        return bestCell;
+    }
+
+    /**
+     * Returns the heuristic for a grid size, mapping its pattern database on first use. Only called
+     * on the hint thread.
+     */
+    private Heuristic heuristicFor(int gridSize) {
+        Heuristic heuristic = heuristics[gridSize];
+        if (heuristic == null) {
+            heuristic = PatternDatabase.find(heuristicDirectory, gridSize);
+            if (heuristic == null) {
+                heuristic = new LinearConflictHeuristic(gridSize);
+            }
+            heuristics[gridSize] = heuristic;
+        }
+        return heuristic;
+    }
+}
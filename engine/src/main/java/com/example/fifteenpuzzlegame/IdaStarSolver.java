@@ -0,0 +1,140 @@
+package com.example.fifteenpuzzlegame;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Finds optimal solutions with iterative-deepening A* (IDA*) on a single thread.
+ * <p>
+ * Node expansion is allocation-free and prunes moves that undo the previous move (see
+ * {@link SearchWorker}). Each call to {@code solve} uses its own search buffers, so one solver
+ * instance can be shared between threads.
+ */
+public class IdaStarSolver {
+
+    private final int gridSize;
+    private final BoardLayout layout;
+    private final Heuristic heuristic;
+
+    /**
+     * Constructor to initialize a solver using the Manhattan distance plus linear-conflict heuristic.
+     *
+     * @param gridSize The size of the grids this solver handles.
+     */
+    public IdaStarSolver(int gridSize) {
+        this(gridSize, new LinearConflictHeuristic(gridSize));
+    }
+
+    /**
+     * Constructor to initialize a solver with a custom heuristic.
+     *
+     * @param gridSize  The size of the grids this solver handles.
+     * @param heuristic An admissible heuristic for that grid size.
+     */
+    public IdaStarSolver(int gridSize, Heuristic heuristic) {
+        this.gridSize = gridSize;
+        this.layout = BoardLayout.of(gridSize);
+        this.heuristic = heuristic;
+    }
+
+    /**
+     * Solves the current position of a game.
+     *
+     * @param game The game to solve; it is not modified.
+     * @return An optimal solution.
+     */
+    public Solution solve(PuzzleBoard game) {
+        checkGridSize(game, gridSize);
+        return solve(game.getTiles());
+    }
+
+    /**
+     * Solves a board given as row-major tile values.
+     *
+     * @param start The row-major tile values, 0 being the empty cell; it is not modified.
+     * @return An optimal solution.
+     * @throws IllegalArgumentException If the board has the wrong size or cannot be solved.
+     */
+    public Solution solve(int[] start) {
+        return solve(start, null);
+    }
+
+    /**
+     * Solves a board, giving up when the cancellation check returns true.
+     *
+     * @param start        The row-major tile values, 0 being the empty cell; it is not modified.
+     * @param cancellation Polled every few thousand expansions; may be null.
+     * @return An optimal solution.
+     * @throws IllegalArgumentException If the board has the wrong size or cannot be solved.
+     * @throws CancellationException    If the search was cancelled.
+     */
+    public Solution solve(int[] start, BooleanSupplier cancellation) {
+        return solve(start, Integer.MAX_VALUE, cancellation);
+    }
+
+    /**
+     * Solves a board if it can be solved in at most {@code maxLength} moves. The search stops as soon
+     * as the iteration bound passes that length, which is far cheaper than finishing it.
+     *
+     * @param start        The row-major tile values, 0 being the empty cell; it is not modified.
+     * @param maxLength    The longest solution of interest.
+     * @param cancellation Polled every few thousand expansions; may be null.
+     * @return An optimal solution, or null if every solution is longer than {@code maxLength}.
+     * @throws IllegalArgumentException If the board has the wrong size or cannot be solved.
+     * @throws CancellationException    If the search was cancelled.
+     */
+    public Solution solve(int[] start, int maxLength, BooleanSupplier cancellation) {
+        checkBoard(start, layout);
+
+        long startTime = System.nanoTime();
+        SearchWorker worker = new SearchWorker(layout, heuristic, cancellation);
+        int blank = worker.load(start);
+        int estimate = worker.estimate();
+        int bound = estimate;
+        while (bound <= maxLength) {
+            worker.ensurePathCapacity(bound);
+            int next = worker.search(blank, -1, 0, estimate, bound);
+            if (next == SearchWorker.FOUND) {
+                return new Solution(gridSize, Arrays.copyOf(worker.path, worker.solutionLength),
+                        worker.nodesExpanded, System.nanoTime() - startTime);
+            }
+            if (next == SearchWorker.ABORTED) {
+                throw new CancellationException("Search cancelled");
+            }
+            bound = next;
+        }
+        return null;
+    }
+
+    /**
+     * Rejects games whose grid size differs from the solver's.
+     */
+    static void checkGridSize(PuzzleBoard game, int gridSize) {
+        if (game.getGridSize() != gridSize) {
+            throw new IllegalArgumentException("Solver is for " + gridSize + "x" + gridSize
+                    + " grids, game is " + game.getGridSize() + "x" + game.getGridSize());
+        }
+    }
+
+    /**
+     * Rejects boards of the wrong size or parity.
+     */
+    static void checkBoard(int[] start, BoardLayout layout) {
+        if (start.length != layout.getCellCount()) {
+            throw new IllegalArgumentException("Expected " + layout.getCellCount() + " tiles, got " + start.length);
+        }
+        if (!Solvability.isSolvable(start, layout.getGridSize())) {
+            throw new IllegalArgumentException("Puzzle is not solvable");
+        }
+    }
+
+    /**
+     * Retrieves the size of the grids this solver handles.
+     *
+     * @return The grid size (e.g., 3 for 3x3 grid).
+     */
+    public int getGridSize() {
+        return gridSize;
+    }
+}
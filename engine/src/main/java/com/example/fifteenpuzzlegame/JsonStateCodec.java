@@ -0,0 +1,388 @@
+package com.example.fifteenpuzzlegame;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A readable JSON encoding of a {@link GameSnapshot}, written and parsed by hand in a single pass
+ * without reflection or an intermediate tree.
+ * <p>
+ * Version 1 looks like
+ * <pre>
+ * {"version":1,"rows":3,"columns":3,"tiles":[1,2,3,4,5,6,7,0,8],"moveCount":1,"pauseOffset":2500,
+ *  "isPaused":false,"isGameFinished":false,"moveLog":"0100000001000000..."}
+ * </pre>
+ * with the packed move log in hex. Unknown keys are skipped. Objects without a {@code version} are
+ * boards that older versions of the app stored with Gson, which are read as well: a square
+ * {@code gridSize} with a two-dimensional {@code tiles} array.
+ */
+public final class JsonStateCodec implements StateCodec {
+
+    private static final int VERSION = 1;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    @Override
+    public int getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public byte[] encode(GameSnapshot snapshot) {
+        return toJson(snapshot).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public GameSnapshot decode(byte[] bytes) {
+        return fromJson(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes a snapshot as JSON with the current format version.
+     *
+     * @param snapshot The snapshot.
+     * @return The JSON text.
+     */
+    public String toJson(GameSnapshot snapshot) {
+        int cellCount = snapshot.getRows() * snapshot.getColumns();
+        byte[] moveLog = snapshot.getMoveLogBytes();
+        StringBuilder json = new StringBuilder(160 + 3 * cellCount + 2 * moveLog.length);
+        json.append("{\"version\":").append(VERSION)
+                .append(",\"rows\":").append(snapshot.getRows())
+                .append(",\"columns\":").append(snapshot.getColumns())
+                .append(",\"tiles\":[");
+        for (int i = 0; i < cellCount; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(snapshot.getTile(i));
+        }
+        json.append("],\"moveCount\":").append(snapshot.getMoveCount())
+                .append(",\"pauseOffset\":").append(snapshot.getPauseOffset())
+                .append(",\"isPaused\":").append(snapshot.isPaused())
+                .append(",\"isGameFinished\":").append(snapshot.isGameFinished())
+                .append(",\"moveLog\":\"");
+        for (byte b : moveLog) {
+            json.append(HEX_DIGITS[(b >>> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+        }
+        return json.append("\"}").toString();
+    }
+
+    /**
+     * Parses a snapshot written by {@link #toJson(GameSnapshot)} or a board saved by an older version.
+     *
+     * @param json The JSON text.
+     * @return The snapshot.
+     * @throws IllegalArgumentException If the text is not valid JSON or does not describe a valid board.
+     */
+    public GameSnapshot fromJson(CharSequence json) {
+        return new Parser(json).parseSnapshot();
+    }
+
+    /**
+     * A pull parser over the characters of one JSON object that reads the snapshot fields as they come.
+     */
+    private static final class Parser {
+        private final CharSequence json;
+        private int position;
+
+        private int version;
+        private int rows;
+        private int columns;
+        private int gridSize;
+        private int[] tiles = new int[16];
+        private int tileCount;
+        private byte[] moveLog;
+        private int moveCount;
+        private long pauseOffset;
+        private boolean isPaused;
+        private boolean isGameFinished;
+
+        Parser(CharSequence json) {
+            this.json = json;
+        }
+
+        GameSnapshot parseSnapshot() {
+            expect('{');
+            if (!consume('}')) {
+                do {
+                    String key = readString();
+                    expect(':');
+                    readField(key);
+                } while (consume(','));
+                expect('}');
+            }
+            skipWhitespace();
+            if (position != json.length()) {
+                throw error("Trailing characters");
+            }
+            if (version > VERSION) {
+                throw new IllegalArgumentException("Unsupported JSON state version " + version);
+            }
+            if (rows == 0 && columns == 0) {
+                rows = gridSize;
+                columns = gridSize;
+            }
+            if (rows < 2 || columns < 2 || rows > PuzzleBoard.MAX_SIZE || columns > PuzzleBoard.MAX_SIZE) {
+                throw new IllegalArgumentException("Missing or unsupported board size " + rows + "x" + columns);
+            }
+            int cellCount = rows * columns;
+            if (tileCount != cellCount) {
+                throw new IllegalArgumentException("Expected " + cellCount + " tiles, got " + tileCount);
+            }
+            if (moveLog != null) {
+                MoveLog.fromByteArray(moveLog);
+            }
+            return new GameSnapshot(rows, columns, Arrays.copyOf(tiles, cellCount), moveLog, moveCount, pauseOffset,
+                    isPaused, isGameFinished);
+        }
+
+        private void readField(String key) {
+            switch (key) {
+                case "version":
+                    version = (int) readLong();
+                    break;
+                case "rows":
+                    rows = (int) readLong();
+                    break;
+                case "columns":
+                    columns = (int) readLong();
+                    break;
+                case "gridSize":
+                    gridSize = (int) readLong();
+                    break;
+                case "tiles":
+                    readTiles(0);
+                    break;
+                case "moveCount":
+                    moveCount = (int) readLong();
+                    break;
+                case "pauseOffset":
+                    pauseOffset = readLong();
+                    break;
+                case "isPaused":
+                    isPaused = readBoolean();
+                    break;
+                case "isGameFinished":
+                    isGameFinished = readBoolean();
+                    break;
+                case "moveLog":
+                    if (peek() == '"') {
+                        moveLog = parseHex(readString());
+                    } else {
+                        // The log object of a reflectively serialized board; its layout is not stable
+                        skipValue();
+                    }
+                    break;
+                default:
+                    skipValue();
+                    break;
+            }
+        }
+
+        /**
+         * Reads a tile array into {@link #tiles}, flattening rows of a two-dimensional one.
+         */
+        private void readTiles(int depth) {
+            expect('[');
+            if (consume(']')) {
+                return;
+            }
+            do {
+                if (peek() == '[') {
+                    if (depth > 0) {
+                        throw error("Tiles nested too deeply");
+                    }
+                    readTiles(depth + 1);
+                } else {
+                    if (tileCount == tiles.length) {
+                        if (tileCount >= PuzzleBoard.MAX_SIZE * PuzzleBoard.MAX_SIZE) {
+                            throw error("Too many tiles");
+                        }
+                        tiles = Arrays.copyOf(tiles, 2 * tileCount);
+                    }
+                    tiles[tileCount++] = (int) readLong();
+                }
+            } while (consume(','));
+            expect(']');
+        }
+
+        private void skipValue() {
+            char c = peek();
+            if (c == '{') {
+                expect('{');
+                if (!consume('}')) {
+                    do {
+                        readString();
+                        expect(':');
+                        skipValue();
+                    } while (consume(','));
+                    expect('}');
+                }
+            } else if (c == '[') {
+                expect('[');
+                if (!consume(']')) {
+                    do {
+                        skipValue();
+                    } while (consume(','));
+                    expect(']');
+                }
+            } else if (c == '"') {
+                readString();
+            } else if (c == 't' || c == 'f') {
+                readBoolean();
+            } else if (c == 'n') {
+                expectWord("null");
+            } else {
+                readNumber();
+            }
+        }
+
+        private long readLong() {
+            String number = readNumber();
+            try {
+                return Long.parseLong(number);
+            } catch (NumberFormatException e) {
+                double value = Double.parseDouble(number);
+                if (value != Math.rint(value)) {
+                    throw error("Expected an integer, got " + number);
+                }
+                return (long) value;
+            }
+        }
+
+        private String readNumber() {
+            skipWhitespace();
+            int start = position;
+            while (position < json.length() && "+-.0123456789eE".indexOf(json.charAt(position)) >= 0) {
+                position++;
+            }
+            if (start == position) {
+                throw error("Expected a value");
+            }
+            String number = json.subSequence(start, position).toString();
+            try {
+                Double.parseDouble(number);
+            } catch (NumberFormatException e) {
+                throw error("Malformed number " + number);
+            }
+            return number;
+        }
+
+        private boolean readBoolean() {
+            if (peek() == 't') {
+                expectWord("true");
+                return true;
+            }
+            expectWord("false");
+            return false;
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                if (position >= json.length()) {
+                    throw error("Unterminated string");
+                }
+                char c = json.charAt(position++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (position >= json.length()) {
+                    throw error("Unterminated string");
+                }
+                char escaped = json.charAt(position++);
+                switch (escaped) {
+                    case 'b':
+                        value.append('\b');
+                        break;
+                    case 'f':
+                        value.append('\f');
+                        break;
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 'r':
+                        value.append('\r');
+                        break;
+                    case 't':
+                        value.append('\t');
+                        break;
+                    case 'u':
+                        if (position + 4 > json.length()) {
+                            throw error("Truncated escape");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(json.subSequence(position, position + 4).toString(), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Malformed escape");
+                        }
+                        position += 4;
+                        break;
+                    default:
+                        value.append(escaped);
+                        break;
+                }
+            }
+        }
+
+        private byte[] parseHex(String hex) {
+            if (hex.length() % 2 != 0) {
+                throw error("Odd number of hex digits");
+            }
+            byte[] bytes = new byte[hex.length() / 2];
+            for (int i = 0; i < bytes.length; i++) {
+                int high = Character.digit(hex.charAt(2 * i), 16);
+                int low = Character.digit(hex.charAt(2 * i + 1), 16);
+                if (high < 0 || low < 0) {
+                    throw error("Not a hex digit");
+                }
+                bytes[i] = (byte) (high << 4 | low);
+            }
+            return bytes;
+        }
+
+        private void expectWord(String word) {
+            skipWhitespace();
+            for (int i = 0; i < word.length(); i++) {
+                if (position >= json.length() || json.charAt(position) != word.charAt(i)) {
+                    throw error("Expected " + word);
+                }
+                position++;
+            }
+        }
+
+        private void expect(char c) {
+            if (!consume(c)) {
+                throw error("Expected '" + c + "'");
+            }
+        }
+
+        private boolean consume(char c) {
+            if (peek() == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private char peek() {
+            skipWhitespace();
+            return position < json.length() ? json.charAt(position) : 0;
+        }
+
+        private void skipWhitespace() {
+            while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at offset " + position);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.fifteenpuzzlegame;
+
+/**
+ * Manhattan distance plus linear conflicts.
+ * <p>
+ * Two tiles are in linear conflict when both sit in their goal row (or column) but in reversed
+ * order; resolving that costs at least two extra moves. For each line the heuristic adds two moves
+ * for every tile that must leave the line, i.e. the line's goal tiles minus the longest increasing
+ * subsequence of their goal positions. Per-line conflict counts are precomputed into a lookup table
+ * so evaluating a line needs no scratch memory.
+ */
+public final class LinearConflictHeuristic implements Heuristic {
+
+    /** Lines longer than this are evaluated directly instead of through the lookup table. */
+    private static final int MAX_TABLE_GRID_SIZE = 6;
+
+    private final int gridSize;
+    private final int cellCount;
+    private final int[] goalRow;
+    private final int[] goalCol;
+    private final int[] distance;
+    private final byte[] conflictTable;
+
+    /**
+     * Constructor to initialize the heuristic for a grid size.
+     *
+     * @param gridSize The size of the grid (e.g., 4 for a 4x4 grid).
+     */
+    public LinearConflictHeuristic(int gridSize) {
+        this.gridSize = gridSize;
+        this.cellCount = gridSize * gridSize;
+        this.goalRow = new int[cellCount];
+        this.goalCol = new int[cellCount];
+        for (int tile = 1; tile < cellCount; tile++) {
+            goalRow[tile] = (tile - 1) / gridSize;
+            goalCol[tile] = (tile - 1) % gridSize;
+        }
+
+        this.distance = new int[cellCount * cellCount];
+        for (int tile = 1; tile < cellCount; tile++) {
+            for (int cell = 0; cell < cellCount; cell++) {
+                distance[tile * cellCount + cell] = Math.abs(cell / gridSize - goalRow[tile])
+                        + Math.abs(cell % gridSize - goalCol[tile]);
+            }
+        }
+
+        this.conflictTable = gridSize <= MAX_TABLE_GRID_SIZE ? buildConflictTable(gridSize) : null;
+    }
+
+    /**
+     * Precomputes the conflict count for every possible line. A line is keyed in base
+     * {@code gridSize + 1}: digit 0 marks a cell without a goal tile of this line, digit {@code k}
+     * a tile whose goal position along the line is {@code k - 1}.
+     */
+    private static byte[] buildConflictTable(int gridSize) {
+        int radix = gridSize + 1;
+        int size = 1;
+        for (int i = 0; i < gridSize; i++) {
+            size *= radix;
+        }
+        byte[] table = new byte[size];
+        int[] positions = new int[gridSize];
+        for (int key = 0; key < size; key++) {
+            int count = 0;
+            int rest = key;
+            for (int i = 0; i < gridSize; i++) {
+                int digit = rest % radix;
+                rest /= radix;
+                if (digit != 0) {
+                    positions[count++] = digit - 1;
+                }
+            }
+            table[key] = (byte) (count - longestIncreasingRun(positions, count));
+        }
+        return table;
+    }
+
+    /**
+     * Returns the length of the longest strictly increasing subsequence of the first {@code count} values.
+     */
+    private static int longestIncreasingRun(int[] values, int count) {
+        int[] lengths = new int[count];
+        int best = 0;
+        for (int i = 0; i < count; i++) {
+            lengths[i] = 1;
+            for (int j = 0; j < i; j++) {
+                if (values[j] < values[i] && lengths[j] + 1 > lengths[i]) {
+                    lengths[i] = lengths[j] + 1;
+                }
+            }
+            best = Math.max(best, lengths[i]);
+        }
+        return best;
+    }
+
+    @Override
+    public int estimate(int[] tiles) {
+        int manhattan = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            int tile = tiles[cell];
+            if (tile != 0) {
+                manhattan += distance[tile * cellCount + cell];
+            }
+        }
+        int conflicts = 0;
+        for (int line = 0; line < gridSize; line++) {
+            conflicts += rowConflicts(tiles, line, -1, 0);
+            conflicts += columnConflicts(tiles, line, -1, 0);
+        }
+        return manhattan + 2 * conflicts;
+    }
+
+    @Override
+    public int delta(int[] tiles, int tile, int from, int to) {
+        int result = distance[tile * cellCount + to] - distance[tile * cellCount + from];
+
+        // Only the lines that the moved tile belongs to can change their conflict count
+        if (from / gridSize == to / gridSize) {
+            int column = goalCol[tile];
+            if (column == to % gridSize) {
+                result += 2 * (columnConflicts(tiles, column, -1, 0) - columnConflicts(tiles, column, to, 0));
+            } else if (column == from % gridSize) {
+                result += 2 * (columnConflicts(tiles, column, -1, 0) - columnConflicts(tiles, column, from, tile));
+            }
+        } else {
+            int row = goalRow[tile];
+            if (row == to / gridSize) {
+                result += 2 * (rowConflicts(tiles, row, -1, 0) - rowConflicts(tiles, row, to, 0));
+            } else if (row == from / gridSize) {
+                result += 2 * (rowConflicts(tiles, row, -1, 0) - rowConflicts(tiles, row, from, tile));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Counts the conflicts of a row, optionally pretending that {@code overrideCell} holds {@code overrideTile}.
+     */
+    private int rowConflicts(int[] tiles, int row, int overrideCell, int overrideTile) {
+        if (conflictTable == null) {
+            return directConflicts(tiles, row * gridSize, 1, overrideCell, overrideTile, goalRow, row, goalCol);
+        }
+        int key = 0;
+        int start = row * gridSize;
+        for (int col = gridSize - 1; col >= 0; col--) {
+            int cell = start + col;
+            int tile = cell == overrideCell ? overrideTile : tiles[cell];
+            key *= gridSize + 1;
+            if (tile != 0 && goalRow[tile] == row) {
+                key += goalCol[tile] + 1;
+            }
+        }
+        return conflictTable[key];
+    }
+
+    /**
+     * Counts the conflicts of a column, optionally pretending that {@code overrideCell} holds {@code overrideTile}.
+     */
+    private int columnConflicts(int[] tiles, int col, int overrideCell, int overrideTile) {
+        if (conflictTable == null) {
+            return directConflicts(tiles, col, gridSize, overrideCell, overrideTile, goalCol, col, goalRow);
+        }
+        int key = 0;
+        for (int row = gridSize - 1; row >= 0; row--) {
+            int cell = row * gridSize + col;
+            int tile = cell == overrideCell ? overrideTile : tiles[cell];
+            key *= gridSize + 1;
+            if (tile != 0 && goalCol[tile] == col) {
+                key += goalRow[tile] + 1;
+            }
+        }
+        return conflictTable[key];
+    }
+
+    /**
+     * Evaluates a line without the lookup table, for grids too large to tabulate.
+     */
+    private int directConflicts(int[] tiles, int start, int stride, int overrideCell, int overrideTile,
+                                int[] goalLine, int line, int[] goalPosition) {
+        int[] positions = new int[gridSize];
+        int count = 0;
+        for (int i = 0, cell = start; i < gridSize; i++, cell += stride) {
+            int tile = cell == overrideCell ? overrideTile : tiles[cell];
+            if (tile != 0 && goalLine[tile] == line) {
+                positions[count++] = goalPosition[tile];
+            }
+        }
+        return count - longestIncreasingRun(positions, count);
+    }
+}
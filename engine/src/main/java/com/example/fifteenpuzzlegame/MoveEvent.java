@@ -0,0 +1,193 @@
+package com.example.fifteenpuzzlegame;
+
+/**
+ * Describes one slide on a {@link PuzzleBoard}: the line the tiles moved along, the direction the empty
+ * cell moved in, and the cells that changed.
+ * <p>
+ * A slide always changes a contiguous run of cells on one row or column, from the old empty cell to
+ * the new one, so the whole delta fits in a few ints. Events are kept in a small pool and reused: a
+ * board obtains one per move, hands it to its listeners and recycles it once they return, so playing
+ * allocates nothing. An event is only valid during the callback; a listener that needs it later must
+ * keep a copy from {@link #obtain(MoveEvent)} and {@link #recycle()} it when done.
+ */
+public final class MoveEvent {
+
+    /** The move was made by tapping a tile. */
+    public static final int MOVE = 0;
+    /** The move reverted the last move from the move log. */
+    public static final int UNDO = 1;
+    /** The move reapplied the last undone move from the move log. */
+    public static final int REDO = 2;
+
+    // Enough for a board's dispatch plus a view's full queue of slides
+    private static final int MAX_POOL_SIZE = 32;
+    private static final Object poolLock = new Object();
+    private static MoveEvent pool;
+    private static int poolSize;
+
+    private MoveEvent next;
+    private boolean isRecycled;
+
+    private int kind;
+    private int direction;
+    private int length;
+    private int previousEmptyIndex;
+    private int columns;
+
+    private MoveEvent() {
+    }
+
+    /**
+     * Retrieves an event from the pool, or creates one if the pool is empty.
+     *
+     * @param kind               How the move was made: {@link #MOVE}, {@link #UNDO} or {@link #REDO}.
+     * @param previousEmptyIndex The row-major index of the empty cell before the move.
+     * @param direction          The direction the empty cell moved, one of the {@link MoveLog} directions.
+     * @param length             The number of tiles that slid, at least 1.
+     * @param columns            The number of columns of the board.
+     * @return The event, which the caller must recycle.
+     */
+    public static MoveEvent obtain(int kind, int previousEmptyIndex, int direction, int length, int columns) {
+        MoveEvent event;
+        synchronized (poolLock) {
+            event = pool;
+            if (event != null) {
+                pool = event.next;
+                event.next = null;
+                poolSize--;
+            }
+        }
+        if (event == null) {
+            event = new MoveEvent();
+        }
+        event.isRecycled = false;
+        event.kind = kind;
+        event.previousEmptyIndex = previousEmptyIndex;
+        event.direction = direction;
+        event.length = length;
+        event.columns = columns;
+        return event;
+    }
+
+    /**
+     * Retrieves a copy of an event from the pool, e.g. to keep it beyond the listener callback.
+     *
+     * @param other The event to copy.
+     * @return The copy, which the caller must recycle.
+     */
+    public static MoveEvent obtain(MoveEvent other) {
+        return obtain(other.kind, other.previousEmptyIndex, other.direction, other.length, other.columns);
+    }
+
+    /**
+     * Returns the event to the pool. It must not be used afterwards.
+     *
+     * @throws IllegalStateException If the event has already been recycled.
+     */
+    public void recycle() {
+        if (isRecycled) {
+            throw new IllegalStateException("MoveEvent recycled twice");
+        }
+        isRecycled = true;
+        synchronized (poolLock) {
+            if (poolSize < MAX_POOL_SIZE) {
+                next = pool;
+                pool = this;
+                poolSize++;
+            }
+        }
+    }
+
+    /**
+     * Retrieves how the move was made.
+     *
+     * @return {@link #MOVE}, {@link #UNDO} or {@link #REDO}.
+     */
+    public int getKind() {
+        return kind;
+    }
+
+    /**
+     * Retrieves the direction the empty cell moved; the tiles slid the opposite way.
+     *
+     * @return One of {@link MoveLog#UP}, {@link MoveLog#DOWN}, {@link MoveLog#LEFT} or {@link MoveLog#RIGHT}.
+     */
+    public int getDirection() {
+        return direction;
+    }
+
+    /**
+     * Checks whether the tiles slid along a row.
+     *
+     * @return True for a horizontal slide, false for a vertical one.
+     */
+    public boolean isHorizontal() {
+        return direction == MoveLog.LEFT || direction == MoveLog.RIGHT;
+    }
+
+    /**
+     * Retrieves the line the tiles slid along.
+     *
+     * @return The row index for a horizontal slide, the column index for a vertical one.
+     */
+    public int getLine() {
+        return isHorizontal() ? previousEmptyIndex / columns : previousEmptyIndex % columns;
+    }
+
+    /**
+     * Retrieves the number of tiles that slid.
+     *
+     * @return The slide length, at least 1.
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Retrieves the empty cell before the move, which is the first affected cell.
+     *
+     * @return The row-major index of the old empty cell.
+     */
+    public int getPreviousEmptyIndex() {
+        return previousEmptyIndex;
+    }
+
+    /**
+     * Retrieves the empty cell after the move, which is the last affected cell. For a tap this is
+     * the tapped cell.
+     *
+     * @return The row-major index of the new empty cell.
+     */
+    public int getEmptyIndex() {
+        return previousEmptyIndex + getStep() * length;
+    }
+
+    /**
+     * Retrieves the index offset between neighbouring affected cells.
+     *
+     * @return The offset from the old empty cell towards the new one: 1 or -1 along a row, the
+     * number of columns or its negation along a column.
+     */
+    public int getStep() {
+        return MoveLog.offset(direction, columns);
+    }
+
+    /**
+     * Retrieves the number of cells whose content changed: the slid tiles and both empty cells.
+     *
+     * @return The slide length plus one.
+     */
+    public int getCellCount() {
+        return length + 1;
+    }
+
+    /**
+     * Retrieves an affected cell, counting from the old empty cell.
+     *
+     * @param i The position along the slide, from 0 to {@link #getCellCount()} - 1.
+     * @return The row-major index of the cell.
+     */
+    public int getCell(int i) {
+        return previousEmptyIndex + getStep() * i;
+    }
+}
@@ -0,0 +1,382 @@
+package com.example.fifteenpuzzlegame;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary journal of a game in progress.
+ * <p>
+ * The file starts with a snapshot of the board, undo/redo log, move count and timer, encoded with
+ * {@link BinaryStateCodec} and protected by a CRC32, followed by one two-byte record per move: the
+ * tapped cell and a check byte. Undo and redo are recorded the same way as control records with a
+ * different check byte. Recording a move therefore costs the same small write regardless of the
+ * board size. Writes are not synced, so they survive a process crash (the data is in the kernel's
+ * page cache) but may be lost on power failure; snapshots are synced and replace the file
+ * atomically via rename.
+ * <p>
+ * On recovery the snapshot is loaded and the move tail is replayed. A torn or corrupt record ends
+ * the tail, and the file is truncated to the last valid record before new moves are appended.
+ * <p>
+ * A journal is not thread-safe; confine it to one writer thread.
+ */
+public final class MoveJournal implements Closeable {
+
+    private static final int MAGIC = 0x4D4A4E31; // "MJN1"
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = 5;
+
+    /** XORed into the cell to form the check byte; a zero-filled tail never validates. */
+    private static final int CHECK = 0x5A;
+    /** XORed into the operation to form the check byte of an undo or redo record. */
+    private static final int CONTROL_CHECK = 0xA5;
+    private static final int UNDO_OPERATION = 0;
+    private static final int REDO_OPERATION = 1;
+
+    /** Passed instead of a cell to {@link #appendMoves(int[], int, int)} to record an undo. */
+    public static final int UNDO = -1;
+    /** Passed instead of a cell to {@link #appendMoves(int[], int, int)} to record a redo. */
+    public static final int REDO = -2;
+
+    /** Cells are stored in one byte, which covers boards up to 16x16. */
+    private static final int MAX_CELLS = 256;
+
+    /**
+     * The state recovered from a journal.
+     */
+    public static final class Recovered {
+        private final int rows;
+        private final int columns;
+        private final int[] tiles;
+        private final int moveCount;
+        private final long pauseOffset;
+        private final boolean isPaused;
+        private final int replayedMoves;
+        private final MoveLog moveLog;
+
+        Recovered(int rows, int columns, int[] tiles, MoveLog moveLog, int moveCount, long pauseOffset,
+                  boolean isPaused, int replayedMoves) {
+            this.rows = rows;
+            this.columns = columns;
+            this.tiles = tiles;
+            this.moveLog = moveLog;
+            this.moveCount = moveCount;
+            this.pauseOffset = pauseOffset;
+            this.isPaused = isPaused;
+            this.replayedMoves = replayedMoves;
+        }
+
+        /**
+         * Retrieves the number of rows.
+         *
+         * @return The number of rows.
+         */
+        public int getRows() {
+            return rows;
+        }
+
+        /**
+         * Retrieves the number of columns.
+         *
+         * @return The number of columns.
+         */
+        public int getColumns() {
+            return columns;
+        }
+
+        /**
+         * Returns the board after replaying the journaled moves.
+         *
+         * @return The row-major tile values, 0 being the empty cell.
+         */
+        public int[] getTiles() {
+            return tiles.clone();
+        }
+
+        /**
+         * Retrieves the undo/redo log after replaying the journaled moves.
+         *
+         * @return The log; empty if the game has none.
+         */
+        public MoveLog getMoveLog() {
+            return moveLog;
+        }
+
+        /**
+         * Retrieves the move count after replaying the journaled moves.
+         *
+         * @return The number of moves made in the game.
+         */
+        public int getMoveCount() {
+            return moveCount;
+        }
+
+        /**
+         * Retrieves the pause offset stored with the snapshot.
+         *
+         * @return The chronometer offset in milliseconds.
+         */
+        public long getPauseOffset() {
+            return pauseOffset;
+        }
+
+        /**
+         * Checks whether the game was paused when the snapshot was taken.
+         *
+         * @return True if the game was paused.
+         */
+        public boolean isPaused() {
+            return isPaused;
+        }
+
+        /**
+         * Retrieves the number of records replayed on top of the snapshot.
+         *
+         * @return The number of valid move, undo and redo records.
+         */
+        public int getReplayedMoves() {
+            return replayedMoves;
+        }
+    }
+
+    private final File file;
+    private ByteBuffer moveRecords = ByteBuffer.allocate(64);
+    private RandomAccessFile appendFile;
+    private FileChannel channel;
+    private int movesSinceSnapshot;
+
+    /**
+     * Constructor to initialize a journal backed by a file. Nothing is read or written until
+     * {@link #recover()} or {@link #writeSnapshot} is called.
+     *
+     * @param file The journal file.
+     */
+    public MoveJournal(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Loads the snapshot, replays the valid move tail and opens the journal for appending after it.
+     *
+     * @return The recovered state, or null if there is no journal or its snapshot is damaged.
+     * @throws IOException If the file cannot be read or reopened.
+     */
+    public Recovered recover() throws IOException {
+        close();
+        if (!file.isFile()) {
+            return null;
+        }
+        ByteBuffer data = readFully(file);
+        if (data.remaining() < HEADER_SIZE || data.getInt() != MAGIC) {
+            return null;
+        }
+        if (data.get() != VERSION) {
+            return null;
+        }
+        int snapshotStart = data.position();
+        int length = data.remaining() >= 4 ? data.getInt() : -1;
+        if (length < 0 || length > data.remaining() - 4) {
+            return null;
+        }
+        // Check the CRC before decoding so that damaged bytes never reach the decoder
+        CRC32 crc = new CRC32();
+        crc.update(data.array(), snapshotStart, 4 + length);
+        if (data.getInt(snapshotStart + 4 + length) != (int) crc.getValue()) {
+            return null;
+        }
+        byte[] encoded = new byte[length];
+        data.get(encoded);
+        data.getInt();
+        GameSnapshot snapshot;
+        try {
+            snapshot = StateCodecs.BINARY.decode(encoded);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+
+        int rows = snapshot.getRows();
+        int columns = snapshot.getColumns();
+        int cellCount = rows * columns;
+        int moveCount = snapshot.getMoveCount();
+        MoveLog moveLog = snapshot.getMoveLog();
+        PuzzleBoard board = new PuzzleBoard(rows, columns, snapshot.getTiles());
+        board.setMoveLog(moveLog);
+        int replayed = 0;
+        int validEnd = data.position();
+        while (data.remaining() >= 2) {
+            int value = data.get() & 0xFF;
+            int check = data.get() & 0xFF;
+            if (check == (value ^ CHECK) && value < cellCount && board.moveTiles(value / columns, value % columns)) {
+                moveCount++;
+            } else if (check == (value ^ CONTROL_CHECK) && value == UNDO_OPERATION && board.undoMove()) {
+                moveCount--;
+            } else if (check == (value ^ CONTROL_CHECK) && value == REDO_OPERATION && board.redoMove()) {
+                moveCount++;
+            } else {
+                break;
+            }
+            replayed++;
+            validEnd = data.position();
+        }
+
+        openForAppend(validEnd);
+        movesSinceSnapshot = replayed;
+        return new Recovered(rows, columns, board.getTiles(), moveLog, moveCount, snapshot.getPauseOffset(),
+                snapshot.isPaused(), replayed);
+    }
+
+    /**
+     * Replaces the journal with a snapshot of the given state and opens it for appending.
+     *
+     * @param rows        The number of rows, at most 16.
+     * @param columns     The number of columns, at most 16.
+     * @param tiles       The row-major tile values, 0 being the empty cell.
+     * @param moveLog     The serialized undo/redo log (see {@link MoveLog#toByteArray()}), or null for none.
+     * @param moveCount   The number of moves made so far.
+     * @param pauseOffset The chronometer offset in milliseconds.
+     * @param isPaused    Whether the game is paused.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    public void writeSnapshot(int rows, int columns, int[] tiles, byte[] moveLog, int moveCount, long pauseOffset,
+                              boolean isPaused) throws IOException {
+        if (tiles.length > MAX_CELLS) {
+            throw new IllegalArgumentException("Boards larger than 16x16 cannot be journaled");
+        }
+        writeSnapshot(new GameSnapshot(rows, columns, tiles, moveLog, moveCount, pauseOffset, isPaused, false));
+    }
+
+    /**
+     * Replaces the journal with a snapshot and opens it for appending.
+     *
+     * @param state The state to write.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    public void writeSnapshot(GameSnapshot state) throws IOException {
+        byte[] encoded = StateCodecs.BINARY.encode(state);
+        close();
+        ByteBuffer snapshot = ByteBuffer.allocate(HEADER_SIZE + 4 + encoded.length + 4);
+        snapshot.putInt(MAGIC).put(VERSION);
+        snapshot.putInt(encoded.length).put(encoded);
+        CRC32 crc = new CRC32();
+        crc.update(snapshot.array(), HEADER_SIZE, snapshot.position() - HEADER_SIZE);
+        snapshot.putInt((int) crc.getValue());
+
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            out.write(snapshot.array(), 0, snapshot.position());
+            out.getFD().sync();
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("Cannot replace " + file);
+        }
+        openForAppend(snapshot.position());
+        movesSinceSnapshot = 0;
+    }
+
+    /**
+     * Appends a move record.
+     *
+     * @param cell The row-major index of the tapped tile, as passed to {@link PuzzleBoard#moveTiles(int, int)}.
+     * @throws IOException If the record cannot be written.
+     */
+    public void appendMove(int cell) throws IOException {
+        appendMoves(new int[] {cell}, 0, 1);
+    }
+
+    /**
+     * Appends several move records with a single write, e.g. a burst of moves coalesced by the caller.
+     *
+     * @param cells  The row-major indices of the tapped tiles, in the order they were tapped, or
+     *               {@link #UNDO} and {@link #REDO} for undone and redone moves.
+     * @param offset The index of the first cell to append.
+     * @param count  The number of cells to append.
+     * @throws IOException If the records cannot be written.
+     */
+    public void appendMoves(int[] cells, int offset, int count) throws IOException {
+        if (channel == null) {
+            throw new IllegalStateException("Journal has no snapshot; call recover() or writeSnapshot() first");
+        }
+        if (moveRecords.capacity() < 2 * count) {
+            moveRecords = ByteBuffer.allocate(Math.max(2 * count, 2 * moveRecords.capacity()));
+        }
+        moveRecords.clear();
+        for (int i = offset; i < offset + count; i++) {
+            if (cells[i] < 0) {
+                int operation = cells[i] == UNDO ? UNDO_OPERATION : REDO_OPERATION;
+                moveRecords.put((byte) operation).put((byte) (operation ^ CONTROL_CHECK));
+            } else {
+                moveRecords.put((byte) cells[i]).put((byte) (cells[i] ^ CHECK));
+            }
+        }
+        moveRecords.flip();
+        while (moveRecords.hasRemaining()) {
+            channel.write(moveRecords);
+        }
+        movesSinceSnapshot += count;
+    }
+
+    /**
+     * Retrieves the number of move records after the snapshot.
+     *
+     * @return The length of the replay tail.
+     */
+    public int getMovesSinceSnapshot() {
+        return movesSinceSnapshot;
+    }
+
+    /**
+     * Checks whether the journal is open for appending.
+     *
+     * @return True after a successful {@link #recover()} or {@link #writeSnapshot}.
+     */
+    public boolean isOpen() {
+        return channel != null;
+    }
+
+    /**
+     * Closes the journal and deletes its file.
+     *
+     * @throws IOException If closing fails.
+     */
+    public void delete() throws IOException {
+        close();
+        if (file.exists() && !file.delete()) {
+            throw new IOException("Cannot delete " + file);
+        }
+    }
+
+    /**
+     * Closes the journal; it can be reopened with {@link #recover()} or {@link #writeSnapshot}.
+     *
+     * @throws IOException If closing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        if (appendFile != null) {
+            channel = null;
+            RandomAccessFile closing = appendFile;
+            appendFile = null;
+            closing.close();
+        }
+    }
+
+    private void openForAppend(long position) throws IOException {
+        appendFile = new RandomAccessFile(file, "rw");
+        channel = appendFile.getChannel();
+        channel.truncate(position);
+        channel.position(position);
+    }
+
+    private static ByteBuffer readFully(File file) throws IOException {
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            byte[] bytes = new byte[(int) in.length()];
+            in.readFully(bytes);
+            return ByteBuffer.wrap(bytes);
+        }
+    }
+}
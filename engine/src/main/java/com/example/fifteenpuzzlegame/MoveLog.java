@@ -0,0 +1,301 @@
+package com.example.fifteenpuzzlegame;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Compact undo/redo log of the moves made on a board.
+ * <p>
+ * A move is stored as the direction the empty cell travelled in two bits plus a one-bit slide flag.
+ * Only line slides, where one tap moves several tiles, also store their length, as a four-bit entry in
+ * a separate array; the log tracks how many slides lie before the cursor, so undo and redo find that
+ * entry without scanning and run in constant time. A single-tile move costs three bits and a slide seven,
+ * so a 500-move game serializes to 200 to 400 bytes.
+ * <p>
+ * Undone moves stay in the log for redo until a new move is recorded.
+ */
+public final class MoveLog {
+
+    /** The empty cell moved up, i.e. the tile above it slid down. */
+    public static final int UP = 0;
+    /** The empty cell moved down. */
+    public static final int DOWN = 1;
+    /** The empty cell moved left. */
+    public static final int LEFT = 2;
+    /** The empty cell moved right. */
+    public static final int RIGHT = 3;
+
+    /** Slide lengths are stored minus two in four bits, which covers boards up to 17 cells wide. */
+    private static final int MAX_SLIDE_LENGTH = 17;
+
+    private long[] directions = new long[4];   // 32 two-bit entries per word
+    private long[] slideFlags = new long[2];   // 64 one-bit entries per word
+    private long[] slideLengths = new long[2]; // 16 four-bit entries per word
+    private int position;
+    private int limit;
+    private int slidePosition;
+    private int slideLimit;
+
+    /**
+     * Records a move after the current position, discarding any moves that could have been redone.
+     *
+     * @param direction The direction the empty cell moved, one of {@link #UP}, {@link #DOWN}, {@link #LEFT}, {@link #RIGHT}.
+     * @param length    The number of tiles that moved.
+     */
+    public void record(int direction, int length) {
+        if (length < 1 || length > MAX_SLIDE_LENGTH) {
+            throw new IllegalArgumentException("Unsupported slide length " + length);
+        }
+        ensureCapacity(position + 1);
+        setDirection(position, direction);
+        setSlideFlag(position, length > 1);
+        if (length > 1) {
+            ensureSlideCapacity(slidePosition + 1);
+            setSlideLength(slidePosition++, length - 2);
+        }
+        position++;
+        limit = position;
+        slideLimit = slidePosition;
+    }
+
+    /**
+     * Checks whether there is a move to undo.
+     *
+     * @return True if at least one move lies before the current position.
+     */
+    public boolean canUndo() {
+        return position > 0;
+    }
+
+    /**
+     * Checks whether there is a move to redo.
+     *
+     * @return True if at least one undone move lies after the current position.
+     */
+    public boolean canRedo() {
+        return position < limit;
+    }
+
+    /**
+     * Steps back over the last move. The caller reverts it by moving the empty cell
+     * {@link #lengthOf(int)} cells in the {@link #opposite(int)} direction.
+     *
+     * @return The undone move, decoded with {@link #directionOf(int)} and {@link #lengthOf(int)}.
+     */
+    public int undo() {
+        if (!canUndo()) {
+            throw new IllegalStateException("Nothing to undo");
+        }
+        position--;
+        int length = 1;
+        if (getSlideFlag(position)) {
+            length = getSlideLength(--slidePosition) + 2;
+        }
+        return encode(getDirection(position), length);
+    }
+
+    /**
+     * Steps forward over the next undone move. The caller reapplies it by moving the empty cell
+     * {@link #lengthOf(int)} cells in its {@link #directionOf(int)}.
+     *
+     * @return The redone move, decoded with {@link #directionOf(int)} and {@link #lengthOf(int)}.
+     */
+    public int redo() {
+        if (!canRedo()) {
+            throw new IllegalStateException("Nothing to redo");
+        }
+        int length = 1;
+        if (getSlideFlag(position)) {
+            length = getSlideLength(slidePosition++) + 2;
+        }
+        return encode(getDirection(position++), length);
+    }
+
+    /**
+     * Retrieves the number of moves before the current position.
+     *
+     * @return The number of moves that can be undone.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Retrieves the number of recorded moves, including undone ones.
+     *
+     * @return The number of moves in the log.
+     */
+    public int size() {
+        return limit;
+    }
+
+    /**
+     * Extracts the direction from a move returned by {@link #undo()} or {@link #redo()}.
+     *
+     * @param move The encoded move.
+     * @return The direction the empty cell moved when the move was made.
+     */
+    public static int directionOf(int move) {
+        return move & 3;
+    }
+
+    /**
+     * Extracts the slide length from a move returned by {@link #undo()} or {@link #redo()}.
+     *
+     * @param move The encoded move.
+     * @return The number of tiles that moved.
+     */
+    public static int lengthOf(int move) {
+        return move >>> 2;
+    }
+
+    /**
+     * Returns the direction that reverts a move in the given direction.
+     *
+     * @param direction A direction.
+     * @return The opposite direction.
+     */
+    public static int opposite(int direction) {
+        return direction ^ 1;
+    }
+
+    /**
+     * Returns the change of the row-major index when the empty cell moves one cell in a direction.
+     *
+     * @param direction A direction.
+     * @param gridSize  The width of the board.
+     * @return The index offset.
+     */
+    public static int offset(int direction, int gridSize) {
+        switch (direction) {
+            case UP:
+                return -gridSize;
+            case DOWN:
+                return gridSize;
+            case LEFT:
+                return -1;
+            default:
+                return 1;
+        }
+    }
+
+    /**
+     * Serializes the log, including moves that can be redone.
+     *
+     * @return The packed log.
+     */
+    public byte[] toByteArray() {
+        int directionBytes = (limit + 3) / 4;
+        int flagBytes = (limit + 7) / 8;
+        int lengthBytes = (slideLimit + 1) / 2;
+        ByteBuffer buffer = ByteBuffer.allocate(8 + directionBytes + flagBytes + lengthBytes);
+        buffer.putInt(limit).putInt(position);
+        putBytes(buffer, directions, directionBytes);
+        putBytes(buffer, slideFlags, flagBytes);
+        putBytes(buffer, slideLengths, lengthBytes);
+        return buffer.array();
+    }
+
+    /**
+     * Restores a log serialized with {@link #toByteArray()}.
+     *
+     * @param bytes The packed log.
+     * @return The log.
+     * @throws IllegalArgumentException If the bytes are not a valid log.
+     */
+    public static MoveLog fromByteArray(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.remaining() < 8) {
+            throw new IllegalArgumentException("Truncated move log");
+        }
+        int limit = buffer.getInt();
+        int position = buffer.getInt();
+        if (limit < 0 || position < 0 || position > limit || buffer.remaining() < (limit + 3) / 4 + (limit + 7) / 8) {
+            throw new IllegalArgumentException("Corrupt move log");
+        }
+        MoveLog log = new MoveLog();
+        log.ensureCapacity(limit);
+        getBytes(buffer, log.directions, (limit + 3) / 4);
+        getBytes(buffer, log.slideFlags, (limit + 7) / 8);
+        for (int i = 0; i < limit; i++) {
+            if (log.getSlideFlag(i)) {
+                log.slideLimit++;
+                if (i < position) {
+                    log.slidePosition++;
+                }
+            }
+        }
+        int lengthBytes = (log.slideLimit + 1) / 2;
+        if (buffer.remaining() != lengthBytes) {
+            throw new IllegalArgumentException("Corrupt move log");
+        }
+        log.ensureSlideCapacity(log.slideLimit);
+        getBytes(buffer, log.slideLengths, lengthBytes);
+        log.limit = limit;
+        log.position = position;
+        return log;
+    }
+
+    private static int encode(int direction, int length) {
+        return direction | length << 2;
+    }
+
+    private void ensureCapacity(int moves) {
+        if (moves > directions.length * 32) {
+            int words = Math.max(moves / 32 + 1, directions.length * 2);
+            directions = Arrays.copyOf(directions, words);
+            slideFlags = Arrays.copyOf(slideFlags, words / 2 + 1);
+        }
+    }
+
+    private void ensureSlideCapacity(int slides) {
+        if (slides > slideLengths.length * 16) {
+            slideLengths = Arrays.copyOf(slideLengths, Math.max(slides / 16 + 1, slideLengths.length * 2));
+        }
+    }
+
+    private int getDirection(int index) {
+        return (int) (directions[index >>> 5] >>> ((index & 31) << 1)) & 3;
+    }
+
+    private void setDirection(int index, int direction) {
+        int shift = (index & 31) << 1;
+        directions[index >>> 5] = directions[index >>> 5] & ~(3L << shift) | (long) (direction & 3) << shift;
+    }
+
+    private boolean getSlideFlag(int index) {
+        return (slideFlags[index >>> 6] >>> (index & 63) & 1) != 0;
+    }
+
+    private void setSlideFlag(int index, boolean isSlide) {
+        if (isSlide) {
+            slideFlags[index >>> 6] |= 1L << (index & 63);
+        } else {
+            slideFlags[index >>> 6] &= ~(1L << (index & 63));
+        }
+    }
+
+    private int getSlideLength(int index) {
+        return (int) (slideLengths[index >>> 4] >>> ((index & 15) << 2)) & 15;
+    }
+
+    private void setSlideLength(int index, int value) {
+        int shift = (index & 15) << 2;
+        slideLengths[index >>> 4] = slideLengths[index >>> 4] & ~(15L << shift) | (long) value << shift;
+    }
+
+    /**
+     * Writes the low {@code count} bytes of the words, least significant byte first.
+     */
+    private static void putBytes(ByteBuffer buffer, long[] words, int count) {
+        for (int i = 0; i < count; i++) {
+            buffer.put((byte) (words[i >>> 3] >>> ((i & 7) << 3)));
+        }
+    }
+
+    private static void getBytes(ByteBuffer buffer, long[] words, int count) {
+        for (int i = 0; i < count; i++) {
+            words[i >>> 3] |= (buffer.get() & 0xFFL) << ((i & 7) << 3);
+        }
+    }
+}
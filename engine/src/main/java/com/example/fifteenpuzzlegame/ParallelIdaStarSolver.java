@@ -0,0 +1,320 @@
+package com.example.fifteenpuzzlegame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Finds optimal solutions with IDA* spread over a {@link ForkJoinPool}.
+ * <p>
+ * Every iteration first expands the tree breadth-first down to a shallow depth, until there are
+ * enough subtrees to keep all workers busy (several per thread, so work stealing can even out
+ * their very different sizes). The subtrees are then searched in parallel against the shared
+ * iteration bound, and the smallest f-value that exceeded it becomes the next bound.
+ * <p>
+ * As soon as one subtree reaches the goal the others are cancelled. In deterministic mode only the
+ * subtrees that come <em>after</em> the successful one are cancelled, and the solution of the first
+ * successful subtree in expansion order is returned, so the result does not depend on scheduling.
+ */
+public class ParallelIdaStarSolver {
+
+    /** Subtrees generated per worker thread before the parallel phase starts. */
+    private static final int SUBTREES_PER_THREAD = 16;
+
+    /** Depth at which splitting stops even if there are not enough subtrees. */
+    private static final int MAX_SPLIT_DEPTH = 12;
+
+    private final int gridSize;
+    private final BoardLayout layout;
+    private final Heuristic heuristic;
+    private final ForkJoinPool pool;
+    private final boolean deterministic;
+
+    /**
+     * Constructor to initialize a solver on the common pool.
+     *
+     * @param gridSize  The size of the grids this solver handles.
+     * @param heuristic An admissible heuristic for that grid size.
+     */
+    public ParallelIdaStarSolver(int gridSize, Heuristic heuristic) {
+        this(gridSize, heuristic, ForkJoinPool.commonPool(), false);
+    }
+
+    /**
+     * Constructor to initialize a solver.
+     *
+     * @param gridSize      The size of the grids this solver handles.
+     * @param heuristic     An admissible heuristic for that grid size; it is shared by all workers.
+     * @param pool          The pool that runs the subtree searches.
+     * @param deterministic Whether the returned solution must be independent of thread scheduling.
+     */
+    public ParallelIdaStarSolver(int gridSize, Heuristic heuristic, ForkJoinPool pool, boolean deterministic) {
+        this.gridSize = gridSize;
+        this.layout = BoardLayout.of(gridSize);
+        this.heuristic = heuristic;
+        this.pool = pool;
+        this.deterministic = deterministic;
+    }
+
+    /**
+     * Solves the current position of a game.
+     *
+     * @param game The game to solve; it is not modified.
+     * @return An optimal solution.
+     */
+    public Solution solve(PuzzleBoard game) {
+        IdaStarSolver.checkGridSize(game, gridSize);
+        return solve(game.getTiles());
+    }
+
+    /**
+     * Solves a board given as row-major tile values.
+     *
+     * @param start The row-major tile values, 0 being the empty cell; it is not modified.
+     * @return An optimal solution.
+     */
+    public Solution solve(int[] start) {
+        return solve(start, null);
+    }
+
+    /**
+     * Solves a board, giving up when the cancellation check returns true.
+     *
+     * @param start        The row-major tile values, 0 being the empty cell; it is not modified.
+     * @param cancellation Polled by every worker; may be null.
+     * @return An optimal solution.
+     * @throws IllegalArgumentException If the board has the wrong size or cannot be solved.
+     * @throws CancellationException    If the search was cancelled.
+     */
+    public Solution solve(int[] start, BooleanSupplier cancellation) {
+        IdaStarSolver.checkBoard(start, layout);
+
+        long startTime = System.nanoTime();
+        SearchWorker scratch = new SearchWorker(layout, heuristic, null);
+        scratch.load(start);
+        int bound = scratch.estimate();
+        long nodes = 0;
+        int target = pool.getParallelism() * SUBTREES_PER_THREAD;
+
+        while (true) {
+            Iteration iteration = new Iteration(bound, cancellation);
+            List<Node> frontier = split(start, scratch, iteration, target);
+            if (iteration.solution == null && !frontier.isEmpty()) {
+                SubtreeTask[] tasks = new SubtreeTask[frontier.size()];
+                for (int i = 0; i < tasks.length; i++) {
+                    tasks[i] = new SubtreeTask(start, frontier.get(i), i, iteration);
+                }
+                pool.invoke(new IterationTask(tasks));
+            }
+            nodes += iteration.nodesExpanded.get();
+
+            if (iteration.solution != null) {
+                return new Solution(gridSize, iteration.solution, nodes, System.nanoTime() - startTime);
+            }
+            if (iteration.isExternallyCancelled()) {
+                throw new CancellationException("Search cancelled");
+            }
+            bound = iteration.nextBound.get();
+        }
+    }
+
+    /**
+     * Expands the tree level by level until it has at least {@code target} open nodes. Nodes over the
+     * bound are dropped (their f-values feed the next bound), and a goal found on the way is stored
+     * directly in the iteration. A cancellation stops the expansion and leaves no nodes to search.
+     */
+    private List<Node> split(int[] start, SearchWorker scratch, Iteration iteration, int target) {
+        int startBlank = scratch.load(start);
+        List<Node> level = new ArrayList<>();
+        level.add(new Node(new int[0], startBlank, -1, scratch.estimate()));
+
+        for (int depth = 0; depth < MAX_SPLIT_DEPTH && level.size() < target; depth++) {
+            List<Node> nextLevel = new ArrayList<>(level.size() * 3);
+            for (Node node : level) {
+                if (iteration.pollCancellation()) {
+                    return new ArrayList<>();
+                }
+                if (node.estimate == 0 && isGoal(start, node, scratch)) {
+                    iteration.solution = node.path;
+                    return nextLevel;
+                }
+                iteration.nodesExpanded.incrementAndGet();
+                scratch.load(start);
+                scratch.applyPrefix(startBlank, node.path, node.path.length);
+                int[] tiles = scratch.tiles;
+                for (int from : layout.neighbors(node.blank)) {
+                    if (from == node.previousBlank) {
+                        continue;
+                    }
+                    int tile = tiles[from];
+                    tiles[node.blank] = tile;
+                    tiles[from] = 0;
+                    int estimate = node.estimate + heuristic.delta(tiles, tile, from, node.blank);
+                    tiles[from] = tile;
+                    tiles[node.blank] = 0;
+
+                    int cost = depth + 1 + estimate;
+                    if (cost > iteration.bound) {
+                        iteration.offerNextBound(cost);
+                        continue;
+                    }
+                    int[] path = Arrays.copyOf(node.path, depth + 1);
+                    path[depth] = from;
+                    nextLevel.add(new Node(path, from, node.blank, estimate));
+                }
+            }
+            level = nextLevel;
+        }
+        return level;
+    }
+
+    private boolean isGoal(int[] start, Node node, SearchWorker scratch) {
+        int blank = scratch.load(start);
+        scratch.applyPrefix(blank, node.path, node.path.length);
+        for (int i = 0; i < scratch.tiles.length - 1; i++) {
+            if (scratch.tiles[i] != i + 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retrieves the size of the grids this solver handles.
+     *
+     * @return The grid size (e.g., 3 for 3x3 grid).
+     */
+    public int getGridSize() {
+        return gridSize;
+    }
+
+    /**
+     * An open node at the split depth: the moves leading to it plus the state needed to resume the search.
+     */
+    private static final class Node {
+        final int[] path;
+        final int blank;
+        final int previousBlank;
+        final int estimate;
+
+        Node(int[] path, int blank, int previousBlank, int estimate) {
+            this.path = path;
+            this.blank = blank;
+            this.previousBlank = previousBlank;
+            this.estimate = estimate;
+        }
+    }
+
+    /**
+     * State shared by all subtree searches of one IDA* iteration.
+     */
+    private final class Iteration {
+        final int bound;
+        final BooleanSupplier cancellation;
+        final AtomicInteger winner = new AtomicInteger(Integer.MAX_VALUE);
+        final AtomicInteger nextBound = new AtomicInteger(Integer.MAX_VALUE);
+        final AtomicLong nodesExpanded = new AtomicLong();
+        volatile int[] solution;
+        private volatile boolean externallyCancelled;
+
+        Iteration(int bound, BooleanSupplier cancellation) {
+            this.bound = bound;
+            this.cancellation = cancellation;
+        }
+
+        boolean shouldStop(int index) {
+            int found = winner.get();
+            if (deterministic ? found < index : found != Integer.MAX_VALUE) {
+                return true;
+            }
+            return pollCancellation();
+        }
+
+        boolean pollCancellation() {
+            if (cancellation != null && cancellation.getAsBoolean()) {
+                externallyCancelled = true;
+            }
+            return externallyCancelled;
+        }
+
+        boolean isExternallyCancelled() {
+            return externallyCancelled;
+        }
+
+        void offerNextBound(int cost) {
+            int current;
+            do {
+                current = nextBound.get();
+            } while (cost < current && !nextBound.compareAndSet(current, cost));
+        }
+
+        synchronized void offerSolution(int index, int[] path) {
+            if (index < winner.get()) {
+                winner.set(index);
+                solution = path;
+            }
+        }
+    }
+
+    /**
+     * Forks all subtree searches of one iteration and waits for them.
+     */
+    private static final class IterationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final SubtreeTask[] tasks;
+
+        IterationTask(SubtreeTask[] tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected void compute() {
+            invokeAll(tasks);
+        }
+    }
+
+    /**
+     * Searches the subtree below one frontier node.
+     */
+    private final class SubtreeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] start;
+        private final Node node;
+        private final int index;
+        private final Iteration iteration;
+
+        SubtreeTask(int[] start, Node node, int index, Iteration iteration) {
+            this.start = start;
+            this.node = node;
+            this.index = index;
+            this.iteration = iteration;
+        }
+
+        @Override
+        protected void compute() {
+            if (iteration.shouldStop(index)) {
+                return;
+            }
+            SearchWorker worker = new SearchWorker(layout, heuristic, () -> iteration.shouldStop(index));
+            int blank = worker.load(start);
+            worker.applyPrefix(blank, node.path, node.path.length);
+            worker.ensurePathCapacity(iteration.bound);
+
+            int result = worker.search(node.blank, node.previousBlank, node.path.length, node.estimate, iteration.bound);
+            iteration.nodesExpanded.addAndGet(worker.nodesExpanded);
+            if (result == SearchWorker.FOUND) {
+                iteration.offerSolution(index, Arrays.copyOf(worker.path, worker.solutionLength));
+            } else if (result != SearchWorker.ABORTED) {
+                iteration.offerNextBound(result);
+            }
+        }
+    }
+}
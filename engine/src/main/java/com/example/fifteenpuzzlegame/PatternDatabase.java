@@ -0,0 +1,299 @@
+package com.example.fifteenpuzzlegame;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Additive pattern-database heuristic backed by a memory-mapped file.
+ * <p>
+ * The tiles are split into disjoint groups (e.g. 6-6-3 for 4x4). For every placement of a group's
+ * tiles the file stores the minimum number of moves of <em>that group's</em> tiles needed to bring
+ * them home; because each move only moves one tile, the values of all groups can be added.
+ * <p>
+ * The tables are never parsed onto the heap: the file is mapped read-only, so pages are loaded
+ * lazily by the operating system the first time a lookup touches them. Lookups use absolute reads
+ * and the instance can be shared between threads.
+ *
+ * <pre>
+ * File layout (big-endian):
+ *   int  magic          'PDB1'
+ *   int  version        1
+ *   int  gridSize
+ *   int  patternCount
+ *   per pattern:
+ *     int   tileCount
+ *     int[] tiles
+ *     int   dataOffset   absolute offset of the pattern's table
+ *     int   entryCount   cells! / (cells - tileCount)!
+ *   tables: one byte per entry, indexed by {@link #rank(long, int, int)}
+ * </pre>
+ */
+public final class PatternDatabase implements Heuristic {
+
+    static final int MAGIC = 0x50444231;
+    static final int VERSION = 1;
+
+    /** Largest group a table may describe; positions of one group are packed into a single {@code long}. */
+    static final int MAX_PATTERN_SIZE = 8;
+
+    /** The 6-6-3 partition used for 4x4 boards. */
+    public static final int[][] PARTITION_4X4 = {
+            {1, 2, 5, 6, 9, 10},
+            {3, 4, 7, 8, 11, 12},
+            {13, 14, 15}
+    };
+
+    /** The 5-5-5-5-4 partition used for 5x5 boards. */
+    public static final int[][] PARTITION_5X5 = {
+            {1, 2, 3, 6, 7},
+            {4, 5, 8, 9, 10},
+            {11, 12, 16, 17, 21},
+            {13, 14, 15, 18, 19},
+            {20, 22, 23, 24}
+    };
+
+    private final ByteBuffer data;
+    private final int gridSize;
+    private final int cellCount;
+    private final int[][] patterns;
+    private final int[] patternOffsets;
+    private final int[] patternOf;
+    private final int[] slotOf;
+
+    private PatternDatabase(ByteBuffer data) {
+        this.data = data;
+        if (data.capacity() < 16 || data.getInt(0) != MAGIC || data.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Not a pattern database file");
+        }
+        this.gridSize = data.getInt(8);
+        // Group placements are ranked with one bit per cell in a long
+        if (gridSize < 2 || gridSize * gridSize > Long.SIZE) {
+            throw new IllegalArgumentException("Unsupported grid size: " + gridSize);
+        }
+        this.cellCount = gridSize * gridSize;
+        int patternCount = data.getInt(12);
+        if (patternCount < 1 || patternCount >= cellCount) {
+            throw new IllegalArgumentException("Unsupported pattern count: " + patternCount);
+        }
+
+        this.patterns = new int[patternCount][];
+        this.patternOffsets = new int[patternCount];
+        this.patternOf = new int[cellCount];
+        this.slotOf = new int[cellCount];
+        boolean[] isCovered = new boolean[cellCount];
+        int position = 16;
+        for (int p = 0; p < patternCount; p++) {
+            int tileCount = readHeaderInt(position);
+            position += 4;
+            if (tileCount < 1 || tileCount > MAX_PATTERN_SIZE) {
+                throw new IllegalArgumentException("Unsupported pattern size: " + tileCount);
+            }
+            int[] tiles = new int[tileCount];
+            for (int slot = 0; slot < tileCount; slot++) {
+                int tile = readHeaderInt(position);
+                position += 4;
+                if (tile < 1 || tile >= cellCount || isCovered[tile]) {
+                    throw new IllegalArgumentException("Tile " + tile + " is out of range or in two patterns");
+                }
+                isCovered[tile] = true;
+                tiles[slot] = tile;
+                patternOf[tile] = p;
+                slotOf[tile] = slot;
+            }
+            patterns[p] = tiles;
+            patternOffsets[p] = readHeaderInt(position);
+            int entryCount = readHeaderInt(position + 4);
+            position += 8;
+            if (entryCount != entryCount(cellCount, tileCount) || patternOffsets[p] < position
+                    || (long) patternOffsets[p] + entryCount > data.capacity()) {
+                throw new IllegalArgumentException("Pattern database file is truncated");
+            }
+        }
+        for (int tile = 1; tile < cellCount; tile++) {
+            if (!isCovered[tile]) {
+                throw new IllegalArgumentException("Tile " + tile + " is in no pattern");
+            }
+        }
+    }
+
+    /**
+     * Reads an int of the header, rejecting files that end inside it.
+     */
+    private int readHeaderInt(int position) {
+        if (position + 4 > data.capacity()) {
+            throw new IllegalArgumentException("Pattern database file is truncated");
+        }
+        return data.getInt(position);
+    }
+
+    /**
+     * Maps a pattern database file into memory without reading it.
+     *
+     * @param file The file written by {@link PatternDatabaseBuilder}.
+     * @return The pattern database.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    public static PatternDatabase open(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            // The mapping stays valid after the channel is closed
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new PatternDatabase(buffer.order(ByteOrder.BIG_ENDIAN));
+        }
+    }
+
+    /**
+     * Opens the database for a grid size from a directory of databases named {@code pattern_db_<gridSize>.bin}.
+     *
+     * @param directory The directory to look in; may be null.
+     * @param gridSize  The size of the grid.
+     * @return The pattern database, or null if the directory has no usable one for this grid size.
+     */
+    public static PatternDatabase find(File directory, int gridSize) {
+        if (directory == null) {
+            return null;
+        }
+        File file = new File(directory, "pattern_db_" + gridSize + ".bin");
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            PatternDatabase database = open(file);
+            return database.getGridSize() == gridSize ? database : null;
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Wraps an in-memory table image, e.g. one just produced by {@link PatternDatabaseBuilder}.
+     *
+     * @param image The complete file contents.
+     * @return The pattern database.
+     */
+    public static PatternDatabase wrap(ByteBuffer image) {
+        return new PatternDatabase(image.duplicate().order(ByteOrder.BIG_ENDIAN));
+    }
+
+    /**
+     * Returns the default partition for a grid size.
+     *
+     * @param gridSize The size of the grid.
+     * @return The tile groups, or null if there is no default for this size.
+     */
+    public static int[][] defaultPartition(int gridSize) {
+        switch (gridSize) {
+            case 4:
+                return PARTITION_4X4;
+            case 5:
+                return PARTITION_5X5;
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public int estimate(int[] tiles) {
+        long[] positions = new long[patterns.length];
+        for (int cell = 0; cell < cellCount; cell++) {
+            int tile = tiles[cell];
+            if (tile != 0) {
+                positions[patternOf[tile]] |= (long) cell << (slotOf[tile] * 8);
+            }
+        }
+        int total = 0;
+        for (int p = 0; p < patterns.length; p++) {
+            total += lookup(p, positions[p]);
+        }
+        return total;
+    }
+
+    @Override
+    public int delta(int[] tiles, int tile, int from, int to) {
+        int pattern = patternOf[tile];
+        long positions = 0;
+        for (int cell = 0; cell < cellCount; cell++) {
+            int value = tiles[cell];
+            if (value != 0 && patternOf[value] == pattern) {
+                positions |= (long) cell << (slotOf[value] * 8);
+            }
+        }
+        int shift = slotOf[tile] * 8;
+        long previous = (positions & ~(0xFFL << shift)) | ((long) from << shift);
+        return lookup(pattern, positions) - lookup(pattern, previous);
+    }
+
+    private int lookup(int pattern, long positions) {
+        long index = rank(positions, patterns[pattern].length, cellCount);
+        return data.get(patternOffsets[pattern] + (int) index) & 0xFF;
+    }
+
+    /**
+     * Ranks the placement of a group's tiles as a partial permutation of the cells.
+     *
+     * @param positions The cell of slot {@code i} stored in bits {@code 8i..8i+7}.
+     * @param tileCount The number of tiles in the group.
+     * @param cellCount The number of cells on the board.
+     * @return A dense index in {@code [0, cellCount! / (cellCount - tileCount)!)}.
+     */
+    static long rank(long positions, int tileCount, int cellCount) {
+        long index = 0;
+        long used = 0;
+        for (int slot = 0; slot < tileCount; slot++) {
+            int cell = (int) ((positions >>> (slot * 8)) & 0xFF);
+            int smaller = Long.bitCount(used & ((1L << cell) - 1));
+            index = index * (cellCount - slot) + (cell - smaller);
+            used |= 1L << cell;
+        }
+        return index;
+    }
+
+    /**
+     * Inverse of {@link #rank(long, int, int)}.
+     */
+    static long unrank(long index, int tileCount, int cellCount) {
+        long digits = 0;
+        for (int slot = tileCount - 1; slot >= 0; slot--) {
+            int radix = cellCount - slot;
+            digits |= (index % radix) << (slot * 8);
+            index /= radix;
+        }
+        long positions = 0;
+        long used = 0;
+        for (int slot = 0; slot < tileCount; slot++) {
+            // Select the n-th cell that is still free, n being this slot's digit
+            long free = ~used;
+            for (int skip = (int) ((digits >>> (slot * 8)) & 0xFF); skip > 0; skip--) {
+                free &= free - 1;
+            }
+            int cell = Long.numberOfTrailingZeros(free);
+            positions |= (long) cell << (slot * 8);
+            used |= 1L << cell;
+        }
+        return positions;
+    }
+
+    /**
+     * Number of entries in a table for a group of {@code tileCount} tiles.
+     */
+    static long entryCount(int cellCount, int tileCount) {
+        long count = 1;
+        for (int i = 0; i < tileCount; i++) {
+            count *= cellCount - i;
+        }
+        return count;
+    }
+
+    /**
+     * Retrieves the size of the grid this database was built for.
+     *
+     * @return The grid size (e.g., 4 for 4x4 grid).
+     */
+    public int getGridSize() {
+        return gridSize;
+    }
+}
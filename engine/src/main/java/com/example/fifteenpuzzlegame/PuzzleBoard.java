@@ -0,0 +1,621 @@
+package com.example.fifteenpuzzlegame;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents the logic and state of a Fifteen Puzzle board, including tile movements, shuffling, and solving.
+ * <p>
+ * Boards may be rectangular, from 2x2 up to {@value #MAX_SIZE}x{@value #MAX_SIZE}. The tiles are held in
+ * a single row-major byte array, one unsigned byte per cell, so a board is one small allocation and a
+ * tap that slides a whole line is a block shift: {@link System#arraycopy} within a row, one strided
+ * pass down a column. Tiles are deliberately not packed into {@code long} words: reads and slides
+ * stay plain array accesses on every size up to 16x16, and {@link #isSolved()} is already O(1)
+ * through the incremental count of tiles in place.
+ * <p>
+ * This class has no Android dependencies, so it can be solved, benchmarked and tested on a plain JVM;
+ * the app's {@code PuzzleGame} adds parceling on top of it.
+ */
+public class PuzzleBoard {
+
+    /**
+     * Receives every slide made on a board, so that views, storage and recorders can react to the
+     * cells that changed instead of rereading the whole board.
+     */
+    public interface MoveListener {
+        /**
+         * Called after tiles slid. The board already shows the new state.
+         *
+         * @param board The board the move was made on.
+         * @param event The move; it is recycled when this call returns.
+         */
+        void onMove(PuzzleBoard board, MoveEvent event);
+    }
+
+    /** The largest number of rows or columns; every tile value then fits in an unsigned byte. */
+    public static final int MAX_SIZE = 16;
+
+    private final int rows;
+    private final int columns;
+    private final byte[] tiles;
+    private int emptyIndex;
+    private boolean isGameFinished;
+
+    // Only boards that are played by a user keep a log; solvers and benchmarks leave it null
+    private MoveLog moveLog;
+
+    // Listeners belong to whoever shows the board, so they are neither serialized nor parcelled
+    private transient List<MoveListener> moveListeners;
+
+    // Derived from the tiles; rebuilt lazily after deserialization, then kept up to date per move
+    private transient long zobristHash;
+    private transient int tilesInPlace;
+    private transient boolean isDerivedStateValid;
+
+    /**
+     * Constructor to initialize a new PuzzleBoard.
+     *
+     * @param gridSize The size of the grid (e.g., 3x3, 4x4).
+     */
+    public PuzzleBoard(int gridSize) {
+        this(gridSize, gridSize, new BoardShuffler());
+    }
+
+    /**
+     * Constructor to initialize a new PuzzleBoard with a reproducible starting board.
+     *
+     * @param gridSize The size of the grid (e.g., 3x3, 4x4).
+     * @param seed     The shuffle seed; equal seeds give equal boards.
+     */
+    public PuzzleBoard(int gridSize, long seed) {
+        this(gridSize, gridSize, new BoardShuffler(seed));
+    }
+
+    /**
+     * Constructor to initialize a new rectangular PuzzleBoard.
+     *
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     */
+    public PuzzleBoard(int rows, int columns) {
+        this(rows, columns, new BoardShuffler());
+    }
+
+    /**
+     * Constructor to initialize a new rectangular PuzzleBoard with a reproducible starting board.
+     *
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     * @param seed    The shuffle seed; equal seeds give equal boards.
+     */
+    public PuzzleBoard(int rows, int columns, long seed) {
+        this(rows, columns, new BoardShuffler(seed));
+    }
+
+    private PuzzleBoard(int rows, int columns, BoardShuffler shuffler) {
+        checkSize(rows, columns);
+        this.rows = rows;
+        this.columns = columns;
+        this.tiles = new byte[rows * columns];
+        initializeTiles();
+        shuffleTiles(shuffler);
+    }
+
+    /**
+     * Constructor to initialize a board with a given arrangement.
+     *
+     * @param gridSize The size of the grid (e.g., 3x3, 4x4).
+     * @param tiles    The row-major tile values, 0 being the empty cell; it is not modified.
+     */
+    public PuzzleBoard(int gridSize, int[] tiles) {
+        this(gridSize, gridSize, tiles);
+    }
+
+    /**
+     * Constructor to initialize a rectangular board with a given arrangement.
+     *
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     * @param tiles   The row-major tile values, 0 being the empty cell; it is not modified.
+     */
+    public PuzzleBoard(int rows, int columns, int[] tiles) {
+        checkSize(rows, columns);
+        if (tiles.length != rows * columns) {
+            throw new IllegalArgumentException("Expected " + rows * columns + " tiles, got " + tiles.length);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.tiles = new byte[tiles.length];
+        for (int i = 0; i < tiles.length; i++) {
+            this.tiles[i] = (byte) tiles[i];
+            if (tiles[i] == 0) {
+                emptyIndex = i;
+            }
+        }
+    }
+
+    /**
+     * Constructor to restore a saved board.
+     *
+     * @param rows           The number of rows.
+     * @param columns        The number of columns.
+     * @param tiles          The row-major tiles as returned by {@link #getTileBytes()}; not copied.
+     * @param emptyIndex     The row-major index of the empty cell.
+     * @param isGameFinished Whether the game was finished.
+     */
+    protected PuzzleBoard(int rows, int columns, byte[] tiles, int emptyIndex, boolean isGameFinished) {
+        checkSize(rows, columns);
+        if (tiles.length != rows * columns) {
+            throw new IllegalArgumentException("Expected " + rows * columns + " tiles, got " + tiles.length);
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.tiles = tiles;
+        this.emptyIndex = emptyIndex;
+        this.isGameFinished = isGameFinished;
+    }
+
+    private static void checkSize(int rows, int columns) {
+        if (rows < 2 || columns < 2 || rows > MAX_SIZE || columns > MAX_SIZE) {
+            throw new IllegalArgumentException("Unsupported board size " + rows + "x" + columns);
+        }
+    }
+
+    /**
+     * Initializes the tiles in ascending order with the last tile as empty.
+     */
+    private void initializeTiles() {
+        for (int i = 0; i < tiles.length - 1; i++) {
+            tiles[i] = (byte) (i + 1);
+        }
+        tiles[tiles.length - 1] = 0;
+        emptyIndex = tiles.length - 1;
+        isDerivedStateValid = false;
+    }
+
+    /**
+     * Shuffles the tiles randomly, ensuring the puzzle remains solvable and not already solved.
+     */
+    public void shuffleTiles() {
+        shuffleTiles(new BoardShuffler());
+    }
+
+    /**
+     * Shuffles the tiles with the given shuffler, ensuring the puzzle remains solvable and not already solved.
+     *
+     * @param shuffler The source of randomness; seeded shufflers give reproducible boards.
+     */
+    public void shuffleTiles(BoardShuffler shuffler) {
+        int[] flatTiles = new int[tiles.length];
+        emptyIndex = shuffler.shuffle(flatTiles, rows, columns);
+        for (int i = 0; i < flatTiles.length; i++) {
+            tiles[i] = (byte) flatTiles[i];
+        }
+        isDerivedStateValid = false;
+    }
+
+    /**
+     * Attempts to move the tiles, either horizontally or vertically. A successful move is recorded
+     * in the move log, if there is one, and reported to the move listeners.
+     *
+     * @param row The row of the tile to move.
+     * @param col The column of the tile to move.
+     * @return True if the tile was successfully moved, false otherwise.
+     */
+    public boolean moveTiles(int row, int col) {
+        int from = emptyIndex;
+        if (!slideEmptyTo(row, col)) {
+            return false;
+        }
+        int direction;
+        int length;
+        if (emptyIndex / columns == from / columns) {
+            direction = emptyIndex > from ? MoveLog.RIGHT : MoveLog.LEFT;
+            length = Math.abs(emptyIndex - from);
+        } else {
+            direction = emptyIndex > from ? MoveLog.DOWN : MoveLog.UP;
+            length = Math.abs(emptyIndex - from) / columns;
+        }
+        if (moveLog != null) {
+            moveLog.record(direction, length);
+        }
+        dispatchMove(MoveEvent.MOVE, from, direction, length);
+        return true;
+    }
+
+    /**
+     * Reverts the last move recorded in the move log. Costs one slide, the same as the move itself.
+     *
+     * @return True if a move was undone, false if there is no log or nothing to undo.
+     */
+    public boolean undoMove() {
+        if (moveLog == null || !moveLog.canUndo()) {
+            return false;
+        }
+        int move = moveLog.undo();
+        int from = emptyIndex;
+        int direction = MoveLog.opposite(MoveLog.directionOf(move));
+        applyMove(direction, MoveLog.lengthOf(move));
+        dispatchMove(MoveEvent.UNDO, from, direction, MoveLog.lengthOf(move));
+        return true;
+    }
+
+    /**
+     * Reapplies the last undone move from the move log.
+     *
+     * @return True if a move was redone, false if there is no log or nothing to redo.
+     */
+    public boolean redoMove() {
+        if (moveLog == null || !moveLog.canRedo()) {
+            return false;
+        }
+        int move = moveLog.redo();
+        int from = emptyIndex;
+        applyMove(MoveLog.directionOf(move), MoveLog.lengthOf(move));
+        dispatchMove(MoveEvent.REDO, from, MoveLog.directionOf(move), MoveLog.lengthOf(move));
+        return true;
+    }
+
+    /**
+     * Adds a listener that is told about every successful move, undo and redo.
+     *
+     * @param listener The listener to add.
+     */
+    public void addMoveListener(MoveListener listener) {
+        if (moveListeners == null) {
+            moveListeners = new ArrayList<>(2);
+        }
+        moveListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added with {@link #addMoveListener(MoveListener)}.
+     *
+     * @param listener The listener to remove.
+     */
+    public void removeMoveListener(MoveListener listener) {
+        if (moveListeners != null) {
+            moveListeners.remove(listener);
+        }
+    }
+
+    /**
+     * Hands a pooled event describing a slide to the listeners. Boards without listeners skip the pool.
+     */
+    private void dispatchMove(int kind, int from, int direction, int length) {
+        if (moveListeners == null || moveListeners.isEmpty()) {
+            return;
+        }
+        MoveEvent event = MoveEvent.obtain(kind, from, direction, length, columns);
+        for (int i = 0; i < moveListeners.size(); i++) {
+            moveListeners.get(i).onMove(this, event);
+        }
+        event.recycle();
+    }
+
+    /**
+     * Moves the empty cell along a line without recording the move.
+     *
+     * @param direction The direction the empty cell moves.
+     * @param length    The number of cells it moves.
+     */
+    private void applyMove(int direction, int length) {
+        int target = emptyIndex + MoveLog.offset(direction, columns) * length;
+        slideEmptyTo(target / columns, target % columns);
+    }
+
+    /**
+     * Slides the tiles between the empty cell and the given cell, if they share a row or column.
+     *
+     * @param row The row of the tile to move.
+     * @param col The column of the tile to move.
+     * @return True if tiles moved.
+     */
+    private boolean slideEmptyTo(int row, int col) {
+        int emptyRow = emptyIndex / columns;
+        int emptyCol = emptyIndex % columns;
+        if (row == emptyRow && col == emptyCol) {
+            return false;
+        }
+        if (row == emptyRow || col == emptyCol) {
+            if (row == emptyRow) {
+                moveHorizontally(row, col);
+            } else {
+                moveVertically(row, col);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Shifts the tiles between the empty cell and the target one cell along the row in one copy.
+     */
+    private void moveHorizontally(int row, int col) {
+        int target = row * columns + col;
+        trackSlide(target, target > emptyIndex ? 1 : -1);
+        if (target > emptyIndex) {
+            System.arraycopy(tiles, emptyIndex + 1, tiles, emptyIndex, target - emptyIndex);
+        } else {
+            System.arraycopy(tiles, target, tiles, target + 1, emptyIndex - target);
+        }
+        tiles[target] = 0;
+        emptyIndex = target;
+    }
+
+    /**
+     * Shifts the tiles between the empty cell and the target one cell along the column in one strided pass.
+     */
+    private void moveVertically(int row, int col) {
+        int target = row * columns + col;
+        int step = target > emptyIndex ? columns : -columns;
+        trackSlide(target, step);
+        for (int index = emptyIndex; index != target; index += step) {
+            tiles[index] = tiles[index + step];
+        }
+        tiles[target] = 0;
+        emptyIndex = target;
+    }
+
+    /**
+     * Updates the hash and the in-place count for a slide that is about to happen. Every tile from
+     * the one next to the empty cell up to the target moves one cell back towards the empty cell.
+     *
+     * @param target The row-major index the empty cell moves to.
+     * @param step   The index offset from the empty cell towards the target.
+     */
+    private void trackSlide(int target, int step) {
+        if (!isDerivedStateValid) {
+            return;
+        }
+        ZobristKeys keys = ZobristKeys.of(rows, columns);
+        for (int index = emptyIndex + step; ; index += step) {
+            int tile = tiles[index] & 0xFF;
+            int to = index - step;
+            zobristHash ^= keys.moveDelta(tile, index, to);
+            if (tile == index + 1) {
+                tilesInPlace--;
+            } else if (tile == to + 1) {
+                tilesInPlace++;
+            }
+            if (index == target) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Checks whether the current puzzle configuration is solvable.
+     *
+     * @return True if the puzzle is solvable, false otherwise.
+     */
+    public boolean isSolvable() {
+        return Solvability.isSolvable(getTiles(), rows, columns);
+    }
+
+    /**
+     * Checks whether the puzzle is currently solved. Runs in constant time using the in-place count
+     * that every move keeps up to date.
+     *
+     * @return True if the puzzle is solved, false otherwise.
+     */
+    public boolean isSolved() {
+        ensureDerivedState();
+        return tilesInPlace == tiles.length - 1;
+    }
+
+    /**
+     * Retrieves the value of a specific tile.
+     *
+     * @param row The row of the tile.
+     * @param col The column of the tile.
+     * @return The value of the tile.
+     */
+    public int getTileValue(int row, int col) {
+        return tiles[row * columns + col] & 0xFF;
+    }
+
+    /**
+     * Returns the board as row-major tile values, 0 being the empty cell.
+     *
+     * @return A new array of {@code rows * columns} tile values.
+     */
+    public int[] getTiles() {
+        int[] result = new int[tiles.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = tiles[i] & 0xFF;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the 64-bit Zobrist hash of the current tile arrangement.
+     * <p>
+     * The hash is maintained incrementally by every move and is stable across runs, so it can be
+     * used as a key for transposition tables, solution caches and duplicate detection.
+     *
+     * @return The board hash.
+     */
+    public long getZobristHash() {
+        ensureDerivedState();
+        return zobristHash;
+    }
+
+    /**
+     * Retrieves the canonical ID of the current tile arrangement: its index among all solvable boards
+     * of this size (see {@link BoardCode}). Unlike the Zobrist hash it never collides, and the IDs of a
+     * size are dense, so they can index arrays and bit sets directly.
+     *
+     * @return The ID, from 0 to {@code (rows * columns)! / 2 - 1}.
+     * @throws IllegalStateException If the board has more than {@value BoardCode#MAX_LONG_CELLS} cells;
+     *                               use {@link #getBigId()} for those.
+     */
+    public long getId() {
+        if (tiles.length > BoardCode.MAX_LONG_CELLS) {
+            throw new IllegalStateException("IDs of " + rows + "x" + columns + " boards do not fit a long");
+        }
+        return BoardCode.toId(rows, columns, getTiles());
+    }
+
+    /**
+     * Retrieves the canonical ID of the current tile arrangement, for boards of any size.
+     *
+     * @return The ID, from 0 to {@code (rows * columns)! / 2 - 1}.
+     */
+    public BigInteger getBigId() {
+        return BoardCode.toBigId(rows, columns, getTiles());
+    }
+
+    /**
+     * Retrieves the shareable code of the current tile arrangement, which includes the board size.
+     *
+     * @return The code, letters and digits only.
+     */
+    public String getCode() {
+        return BoardCode.encode(rows, columns, getTiles());
+    }
+
+    /**
+     * Retrieves the number of numbered tiles currently on their home cell.
+     *
+     * @return A value between 0 and {@code rows * columns - 1}.
+     */
+    public int getTilesInPlace() {
+        ensureDerivedState();
+        return tilesInPlace;
+    }
+
+    /**
+     * Rebuilds the hash and the in-place count with one full scan if they are not current.
+     */
+    private void ensureDerivedState() {
+        if (isDerivedStateValid) {
+            return;
+        }
+        zobristHash = ZobristKeys.of(rows, columns).hash(getTiles());
+        tilesInPlace = 0;
+        for (int i = 0; i < tiles.length - 1; i++) {
+            if ((tiles[i] & 0xFF) == i + 1) {
+                tilesInPlace++;
+            }
+        }
+        isDerivedStateValid = true;
+    }
+
+    /**
+     * Compares tile arrangements. Two boards are equal when they have the same dimensions and every
+     * tile is in the same place; finished state is not compared.
+     *
+     * @param o The object to compare with.
+     * @return True if the boards are identical.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PuzzleBoard)) {
+            return false;
+        }
+        PuzzleBoard other = (PuzzleBoard) o;
+        return rows == other.rows && columns == other.columns && Arrays.equals(tiles, other.tiles);
+    }
+
+    /**
+     * Derives the hash code from the Zobrist hash. Like {@link #equals(Object)} it changes whenever
+     * a tile moves, so a board must not be mutated while it is used as a hash key.
+     *
+     * @return The hash code.
+     */
+    @Override
+    public int hashCode() {
+        long hash = getZobristHash();
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * Returns a copy of the flat tile array.
+     *
+     * @return The row-major tiles, one unsigned byte per cell.
+     */
+    public byte[] getTileBytes() {
+        return tiles.clone();
+    }
+
+    /**
+     * Retrieves the row-major index of the empty cell.
+     *
+     * @return The index of the empty cell.
+     */
+    public int getEmptyIndex() {
+        return emptyIndex;
+    }
+
+    /**
+     * Retrieves the undo/redo log of this board.
+     *
+     * @return The log, or null if moves are not logged.
+     */
+    public MoveLog getMoveLog() {
+        return moveLog;
+    }
+
+    /**
+     * Starts logging moves into the given log, or stops logging when it is null. The log must
+     * describe the moves that led to the current arrangement.
+     *
+     * @param moveLog The log to record into.
+     */
+    public void setMoveLog(MoveLog moveLog) {
+        this.moveLog = moveLog;
+    }
+
+    /**
+     * Checks if the game is finished.
+     *
+     * @return True if the game is finished, false otherwise.
+     */
+    public boolean isGameFinished() {
+        return isGameFinished;
+    }
+
+    /**
+     * Retrieves the size of the puzzle grid. Row-major cell indices divide by it, so on a
+     * rectangular board it is the number of columns.
+     *
+     * @return The grid size (e.g., 3 for 3x3 grid).
+     */
+    public int getGridSize() {
+        return columns;
+    }
+
+    /**
+     * Retrieves the number of rows.
+     *
+     * @return The number of rows.
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Retrieves the number of columns.
+     *
+     * @return The number of columns.
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Checks whether the board has as many rows as columns. Solvers, hints and pattern databases
+     * only handle square boards.
+     *
+     * @return True if the board is square.
+     */
+    public boolean isSquare() {
+        return rows == columns;
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.fifteenpuzzlegame;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates puzzles whose difficulty falls into a target band and streams them to a sink.
+ * <p>
+ * Difficulty is either the optimal solution length (found with IDA*) or the heuristic estimate,
+ * which is much cheaper and the only practical choice for 5x5. Candidates are produced by random
+ * walks from the solved board whose length is drawn around the band, so easy bands are reached
+ * as readily as hard ones; a uniform shuffle almost never yields an easy 4x4 board.
+ * <p>
+ * Candidates are rated in parallel in fixed-size batches. Candidate {@code i} depends only on the
+ * seed and {@code i}, and accepted puzzles are emitted in candidate order, so the output for a seed
+ * is identical regardless of how many threads rate it. Only one batch is held in memory at a time.
+ */
+public class PuzzleGenerator {
+
+    /**
+     * How the difficulty of a candidate is measured.
+     */
+    public enum Measure {
+        /** The length of an optimal solution. */
+        OPTIMAL_LENGTH,
+        /** The heuristic lower bound on the solution length. */
+        HEURISTIC_ESTIMATE
+    }
+
+    /**
+     * Receives accepted puzzles in generation order.
+     */
+    public interface Sink {
+        /**
+         * Called for every accepted puzzle.
+         *
+         * @param puzzle The puzzle.
+         * @throws IOException If the puzzle cannot be written.
+         */
+        void accept(RatedPuzzle puzzle) throws IOException;
+    }
+
+    /**
+     * A generated board with its difficulty.
+     */
+    public static final class RatedPuzzle {
+        private final int gridSize;
+        private final int[] tiles;
+        private final int difficulty;
+
+        RatedPuzzle(int gridSize, int[] tiles, int difficulty) {
+            this.gridSize = gridSize;
+            this.tiles = tiles;
+            this.difficulty = difficulty;
+        }
+
+        /**
+         * Retrieves the size of the grid.
+         *
+         * @return The grid size (e.g., 3 for 3x3 grid).
+         */
+        public int getGridSize() {
+            return gridSize;
+        }
+
+        /**
+         * Returns a copy of the board.
+         *
+         * @return The row-major tile values, 0 being the empty cell.
+         */
+        public int[] getTiles() {
+            return tiles.clone();
+        }
+
+        /**
+         * Retrieves the measured difficulty.
+         *
+         * @return The optimal length or heuristic estimate, depending on the generator's measure.
+         */
+        public int getDifficulty() {
+            return difficulty;
+        }
+    }
+
+    /** Candidates rated per batch. */
+    private static final int BATCH_SIZE = 256;
+
+    /** Upper bound on candidates examined per requested puzzle before giving up on the band. */
+    static final int MAX_ATTEMPTS_PER_PUZZLE = 10_000;
+
+    private final int gridSize;
+    private final Heuristic heuristic;
+    private final Measure measure;
+    private final int minDifficulty;
+    private final int maxDifficulty;
+    private final long seed;
+    private final IdaStarSolver solver;
+
+    /**
+     * Constructor to initialize a generator.
+     *
+     * @param gridSize      The size of the grid.
+     * @param heuristic     The heuristic used for rating (and for solving, with {@link Measure#OPTIMAL_LENGTH}).
+     * @param measure       How difficulty is measured.
+     * @param minDifficulty The smallest accepted difficulty, inclusive.
+     * @param maxDifficulty The largest accepted difficulty, inclusive.
+     * @param seed          The seed; equal seeds produce equal output.
+     */
+    public PuzzleGenerator(int gridSize, Heuristic heuristic, Measure measure,
+                           int minDifficulty, int maxDifficulty, long seed) {
+        if (minDifficulty < 1 || maxDifficulty < minDifficulty) {
+            throw new IllegalArgumentException("Invalid difficulty band " + minDifficulty + ".." + maxDifficulty);
+        }
+        this.gridSize = gridSize;
+        this.heuristic = heuristic;
+        this.measure = measure;
+        this.minDifficulty = minDifficulty;
+        this.maxDifficulty = maxDifficulty;
+        this.seed = seed;
+        this.solver = new IdaStarSolver(gridSize, heuristic);
+    }
+
+    /**
+     * Command-line entry point:
+     * {@code PuzzleGenerator <gridSize> <minDifficulty> <maxDifficulty> <count> <seed> <outputFile> [patternDatabase]}.
+     * Boards up to 4x4 are rated by optimal length, larger ones by heuristic estimate.
+     *
+     * @param args The generator settings and the output path.
+     * @throws IOException          If the output cannot be written.
+     * @throws InterruptedException If generation is interrupted.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 6 && args.length != 7) {
+            System.err.println("Usage: PuzzleGenerator <gridSize> <minDifficulty> <maxDifficulty>"
+                    + " <count> <seed> <outputFile> [patternDatabase]");
+            System.exit(2);
+        }
+        int gridSize = Integer.parseInt(args[0]);
+        int count = Integer.parseInt(args[3]);
+        Heuristic heuristic;
+        if (args.length == 7) {
+            heuristic = PatternDatabase.open(new File(args[6]));
+        } else if (gridSize == DistanceTable.GRID_SIZE) {
+            heuristic = DistanceTable.get();
+        } else {
+            heuristic = new LinearConflictHeuristic(gridSize);
+        }
+        Measure measure = gridSize <= 4 ? Measure.OPTIMAL_LENGTH : Measure.HEURISTIC_ESTIMATE;
+        PuzzleGenerator generator = new PuzzleGenerator(gridSize, heuristic, measure,
+                Integer.parseInt(args[1]), Integer.parseInt(args[2]), Long.parseLong(args[4]));
+
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        int written;
+        try (Writer out = new BufferedWriter(new FileWriter(args[5]))) {
+            written = generator.generate(count, executor, out);
+        } finally {
+            executor.shutdownNow();
+        }
+        System.out.printf("Wrote %d puzzles to %s in %.1f s%n", written, args[5], (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Generates puzzles and passes them to a sink as they are accepted.
+     *
+     * @param count    The number of puzzles to produce.
+     * @param executor Rates the candidates of each batch in parallel.
+     * @param sink     Receives the accepted puzzles in order.
+     * @return The number of puzzles produced; less than {@code count} only if the band is too rare.
+     * @throws IOException          If the sink fails.
+     * @throws InterruptedException If the calling thread is interrupted.
+     */
+    public int generate(int count, ExecutorService executor, Sink sink) throws IOException, InterruptedException {
+        long maxAttempts = (long) count * MAX_ATTEMPTS_PER_PUZZLE;
+        int produced = 0;
+        List<Callable<RatedPuzzle>> batch = new ArrayList<>(BATCH_SIZE);
+        for (long next = 0; produced < count && next < maxAttempts; ) {
+            batch.clear();
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                long index = next++;
+                batch.add(() -> rate(index));
+            }
+            for (Future<RatedPuzzle> future : executor.invokeAll(batch)) {
+                RatedPuzzle puzzle = get(future);
+                if (puzzle != null && produced < count) {
+                    sink.accept(puzzle);
+                    produced++;
+                }
+            }
+        }
+        return produced;
+    }
+
+    /**
+     * Generates puzzles and writes them as lines of {@code <tiles>\t<difficulty>}, the tiles being in
+     * {@link BoardFormat}.
+     *
+     * @param count    The number of puzzles to produce.
+     * @param executor Rates the candidates of each batch in parallel.
+     * @param out      The destination; it is not closed.
+     * @return The number of puzzles written.
+     * @throws IOException          If writing fails.
+     * @throws InterruptedException If the calling thread is interrupted.
+     */
+    public int generate(int count, ExecutorService executor, Writer out) throws IOException, InterruptedException {
+        StringBuilder line = new StringBuilder();
+        int written = generate(count, executor, puzzle -> {
+            line.setLength(0);
+            BoardFormat.append(puzzle.tiles, line).append('\t').append(puzzle.difficulty).append('\n');
+            out.write(line.toString());
+        });
+        out.flush();
+        return written;
+    }
+
+    /**
+     * Builds and rates candidate {@code index}.
+     *
+     * @return The rated puzzle, or null if it falls outside the band.
+     */
+    private RatedPuzzle rate(long index) {
+        SplittableRandom random = new SplittableRandom(seed ^ (index * 0x9E3779B97F4A7C15L));
+        int[] tiles = randomWalk(random);
+
+        int estimate = heuristic.estimate(tiles);
+        if (estimate > maxDifficulty) {
+            return null;
+        }
+        int difficulty = estimate;
+        if (measure == Measure.OPTIMAL_LENGTH) {
+            Solution solution = solver.solve(tiles, maxDifficulty, null);
+            if (solution == null) {
+                return null;
+            }
+            difficulty = solution.length();
+        }
+        if (difficulty < minDifficulty || difficulty > maxDifficulty) {
+            return null;
+        }
+        return new RatedPuzzle(gridSize, tiles, difficulty);
+    }
+
+    /**
+     * Walks the empty cell randomly from the solved board, never undoing the previous step. The walk
+     * length is drawn between the band's lower end and three times its upper end.
+     */
+    private int[] randomWalk(SplittableRandom random) {
+        BoardLayout layout = BoardLayout.of(gridSize);
+        int[] tiles = new int[layout.getCellCount()];
+        for (int i = 0; i < tiles.length - 1; i++) {
+            tiles[i] = i + 1;
+        }
+        int blank = tiles.length - 1;
+        int previous = -1;
+        int steps = minDifficulty + random.nextInt(3 * maxDifficulty - minDifficulty + 1);
+        for (int step = 0; step < steps; step++) {
+            int[] moves = layout.neighbors(blank);
+            int from;
+            do {
+                from = moves[random.nextInt(moves.length)];
+            } while (from == previous);
+            tiles[blank] = tiles[from];
+            tiles[from] = 0;
+            previous = blank;
+            blank = from;
+        }
+        return tiles;
+    }
+
+    private static RatedPuzzle get(Future<RatedPuzzle> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
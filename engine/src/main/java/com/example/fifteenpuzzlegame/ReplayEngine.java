@@ -0,0 +1,142 @@
+package com.example.fifteenpuzzlegame;
+
+/**
+ * Plays back a {@link GameRecording} with random-access seeking.
+ * <p>
+ * When it is created the engine plays the recording once and keeps a copy of the board's tiles every
+ * {@link #CHECKPOINT_INTERVAL} moves. A seek then picks the cheapest of three routes: forward from the
+ * current position, backward from it (a move is undone by tapping the cell the empty cell came from),
+ * or forward from the nearest checkpoint before the target. A jump anywhere in a long replay
+ * therefore costs fewer than {@code CHECKPOINT_INTERVAL} moves, and stepping costs one.
+ */
+public final class ReplayEngine {
+
+    /** Moves between board checkpoints; a checkpoint costs one byte per cell. */
+    public static final int CHECKPOINT_INTERVAL = 32;
+
+    private final GameRecording recording;
+    private final int rows;
+    private final int columns;
+    private final int startEmptyIndex;
+    private final byte[][] checkpoints;
+    private final int[] checkpointEmptyIndices;
+
+    private PuzzleBoard board;
+    private int position;
+
+    /**
+     * Constructor to initialize a replay positioned at the start of the game.
+     *
+     * @param recording The recording to play; it must not change afterwards.
+     * @throws IllegalArgumentException If a recorded move is not legal on the recorded board.
+     */
+    public ReplayEngine(GameRecording recording) {
+        this.recording = recording;
+        this.rows = recording.getRows();
+        this.columns = recording.getColumns();
+        int[] startTiles = recording.getStartTiles();
+        int emptyIndex = 0;
+        while (startTiles[emptyIndex] != 0) {
+            emptyIndex++;
+        }
+        this.startEmptyIndex = emptyIndex;
+
+        int count = recording.size() / CHECKPOINT_INTERVAL + 1;
+        checkpoints = new byte[count][];
+        checkpointEmptyIndices = new int[count];
+        PuzzleBoard scratch = new PuzzleBoard(rows, columns, startTiles);
+        for (int i = 0; ; i++) {
+            if (i % CHECKPOINT_INTERVAL == 0) {
+                checkpoints[i / CHECKPOINT_INTERVAL] = scratch.getTileBytes();
+                checkpointEmptyIndices[i / CHECKPOINT_INTERVAL] = scratch.getEmptyIndex();
+            }
+            if (i == recording.size()) {
+                break;
+            }
+            if (!apply(scratch, recording.getCell(i))) {
+                throw new IllegalArgumentException("Move " + i + " to cell " + recording.getCell(i) + " is not legal");
+            }
+        }
+        restoreCheckpoint(0);
+    }
+
+    /**
+     * Retrieves the board at the current position. It changes with every seek and must not be modified.
+     *
+     * @return The board.
+     */
+    public PuzzleBoard getBoard() {
+        return board;
+    }
+
+    /**
+     * Retrieves the current position.
+     *
+     * @return The number of recorded moves applied, from 0 to {@link #getLength()}.
+     */
+    public int getPosition() {
+        return position;
+    }
+
+    /**
+     * Retrieves the number of recorded moves.
+     *
+     * @return The replay length in moves.
+     */
+    public int getLength() {
+        return recording.size();
+    }
+
+    /**
+     * Retrieves the recording being played.
+     *
+     * @return The recording.
+     */
+    public GameRecording getRecording() {
+        return recording;
+    }
+
+    /**
+     * Moves to the state after the given number of moves.
+     *
+     * @param target The number of moves to apply; clamped to the replay length.
+     * @return The number of moves applied or undone to get there.
+     */
+    public int seek(int target) {
+        target = Math.max(0, Math.min(target, recording.size()));
+        int checkpoint = target / CHECKPOINT_INTERVAL;
+        int fromCheckpoint = target - checkpoint * CHECKPOINT_INTERVAL;
+        int distance = Math.abs(target - position);
+        if (fromCheckpoint < distance) {
+            restoreCheckpoint(checkpoint);
+            distance = fromCheckpoint;
+        }
+        while (position < target) {
+            apply(board, recording.getCell(position++));
+        }
+        while (position > target) {
+            position--;
+            apply(board, position == 0 ? startEmptyIndex : recording.getCell(position - 1));
+        }
+        return distance;
+    }
+
+    /**
+     * Moves to the state at a point of the game's playing time.
+     *
+     * @param timeMillis Milliseconds since the start of the game.
+     * @return The number of moves applied or undone to get there.
+     */
+    public int seekToTime(long timeMillis) {
+        return seek(recording.countMovesUntil(timeMillis));
+    }
+
+    private void restoreCheckpoint(int index) {
+        board = new PuzzleBoard(rows, columns, checkpoints[index].clone(), checkpointEmptyIndices[index], false);
+        position = index * CHECKPOINT_INTERVAL;
+    }
+
+    private boolean apply(PuzzleBoard target, int cell) {
+        return cell < rows * columns && target.moveTiles(cell / columns, cell % columns);
+    }
+}
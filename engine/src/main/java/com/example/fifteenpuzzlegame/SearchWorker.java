@@ -0,0 +1,154 @@
+package com.example.fifteenpuzzlegame;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * The bounded depth-first search at the core of IDA*, shared by the serial and parallel solvers.
+ * <p>
+ * A worker owns one mutable tile array and a path buffer. Every expansion applies a move in place,
+ * updates the heuristic incrementally and undoes the move on the way back, so expanding a node
+ * allocates nothing. Moves that return the empty cell to where it just came from are pruned.
+ * Workers are not thread-safe; each thread uses its own.
+ */
+final class SearchWorker {
+
+    /** Returned by {@link #search} when the goal was reached; the path is in {@link #path}. */
+    static final int FOUND = -1;
+
+    /** Returned by {@link #search} when the cancellation check asked the search to stop. */
+    static final int ABORTED = -2;
+
+    /** The cancellation check is polled once every this many expansions (a power of two). */
+    private static final int CANCELLATION_INTERVAL = 4096;
+
+    private final BoardLayout layout;
+    private final Heuristic heuristic;
+    private final BooleanSupplier cancellation;
+
+    final int[] tiles;
+    int[] path = new int[0];
+    int solutionLength;
+    long nodesExpanded;
+
+    /**
+     * Constructor to initialize a worker.
+     *
+     * @param layout       The layout of the grid being searched, used for its move tables.
+     * @param heuristic    The admissible heuristic.
+     * @param cancellation Polled periodically; the search aborts once it returns true. May be null.
+     */
+    SearchWorker(BoardLayout layout, Heuristic heuristic, BooleanSupplier cancellation) {
+        this.layout = layout;
+        this.heuristic = heuristic;
+        this.cancellation = cancellation;
+        this.tiles = new int[layout.getCellCount()];
+    }
+
+    /**
+     * Loads a board and resets the statistics.
+     *
+     * @param start The row-major tile values to copy.
+     * @return The index of the empty cell.
+     */
+    int load(int[] start) {
+        System.arraycopy(start, 0, tiles, 0, tiles.length);
+        nodesExpanded = 0;
+        return indexOfBlank(tiles);
+    }
+
+    /**
+     * Applies a sequence of single-tile moves to the loaded board and records them as the path prefix.
+     *
+     * @param blank The current index of the empty cell.
+     * @param moves The cells to slide into the empty cell, in order.
+     * @param count The number of moves to apply.
+     * @return The new index of the empty cell.
+     */
+    int applyPrefix(int blank, int[] moves, int count) {
+        ensurePathCapacity(count);
+        for (int i = 0; i < count; i++) {
+            int from = moves[i];
+            tiles[blank] = tiles[from];
+            tiles[from] = 0;
+            path[i] = from;
+            blank = from;
+        }
+        return blank;
+    }
+
+    int estimate() {
+        return heuristic.estimate(tiles);
+    }
+
+    void ensurePathCapacity(int bound) {
+        if (path.length < bound) {
+            int[] grown = new int[bound];
+            System.arraycopy(path, 0, grown, 0, path.length);
+            path = grown;
+        }
+    }
+
+    /**
+     * Depth-first search below one node, bounded by {@code bound}. The path buffer must hold at least
+     * {@code bound} moves.
+     *
+     * @return {@link #FOUND}, {@link #ABORTED}, or the smallest f-value that exceeded the bound.
+     */
+    int search(int blank, int previousBlank, int depth, int estimate, int bound) {
+        int cost = depth + estimate;
+        if (cost > bound) {
+            return cost;
+        }
+        if (estimate == 0 && isGoal()) {
+            solutionLength = depth;
+            return FOUND;
+        }
+        if ((++nodesExpanded & (CANCELLATION_INTERVAL - 1)) == 0
+                && cancellation != null && cancellation.getAsBoolean()) {
+            return ABORTED;
+        }
+
+        int min = Integer.MAX_VALUE;
+        int[] moves = layout.neighbors(blank);
+        for (int i = 0; i < moves.length; i++) {
+            int from = moves[i];
+            if (from == previousBlank) {
+                continue;
+            }
+            int tile = tiles[from];
+            tiles[blank] = tile;
+            tiles[from] = 0;
+            path[depth] = from;
+
+            int result = search(from, blank, depth + 1, estimate + heuristic.delta(tiles, tile, from, blank), bound);
+
+            tiles[from] = tile;
+            tiles[blank] = 0;
+            if (result < 0) {
+                return result;
+            }
+            if (result < min) {
+                min = result;
+            }
+        }
+        return min;
+    }
+
+    private boolean isGoal() {
+        for (int i = 0; i < tiles.length - 1; i++) {
+            if (tiles[i] != i + 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int indexOfBlank(int[] tiles) {
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] == 0) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Board has no empty cell");
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.fifteenpuzzlegame;
+
+/**
+ * The result of a solver run: an optimal sequence of moves plus search statistics.
+ * <p>
+ * Each move is the row-major index of the tile to tap, which is exactly what
+ * {@link PuzzleBoard#moveTiles(int, int)} expects after splitting it into row and column.
+ */
+public final class Solution {
+
+    private final int gridSize;
+    private final int[] moves;
+    private final long nodesExpanded;
+    private final long elapsedNanos;
+
+    /**
+     * Constructor to initialize a Solution.
+     *
+     * @param gridSize      The size of the solved grid.
+     * @param moves         The cells to tap, in order.
+     * @param nodesExpanded The number of search nodes expanded.
+     * @param elapsedNanos  The wall-clock search time in nanoseconds.
+     */
+    public Solution(int gridSize, int[] moves, long nodesExpanded, long elapsedNanos) {
+        this.gridSize = gridSize;
+        this.moves = moves;
+        this.nodesExpanded = nodesExpanded;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Returns a copy of the move sequence.
+     *
+     * @return The row-major cell indices to tap, in order.
+     */
+    public int[] getMoves() {
+        return moves.clone();
+    }
+
+    /**
+     * Retrieves a single move of the sequence.
+     *
+     * @param step The zero-based step.
+     * @return The row-major cell index to tap at that step.
+     */
+    public int getMove(int step) {
+        return moves[step];
+    }
+
+    /**
+     * Retrieves the first move, which is the best hint for the current position.
+     *
+     * @return The row-major cell index to tap, or -1 if the board is already solved.
+     */
+    public int getFirstMove() {
+        return moves.length == 0 ? -1 : moves[0];
+    }
+
+    /**
+     * Retrieves the number of moves in the solution.
+     *
+     * @return The solution length.
+     */
+    public int length() {
+        return moves.length;
+    }
+
+    /**
+     * Retrieves the number of search nodes expanded while solving.
+     *
+     * @return The node count.
+     */
+    public long getNodesExpanded() {
+        return nodesExpanded;
+    }
+
+    /**
+     * Retrieves the time spent searching.
+     *
+     * @return The elapsed time in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Retrieves the size of the solved grid.
+     *
+     * @return The grid size (e.g., 3 for 3x3 grid).
+     */
+    public int getGridSize() {
+        return gridSize;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.fifteenpuzzlegame;
+
+import java.util.Arrays;
+
+/**
+ * Parity checks that decide whether a tile arrangement can be brought into the solved state.
+ */
+public final class Solvability {
+
+    private Solvability() {
+    }
+
+    /**
+     * Checks whether a board is solvable.
+     * <p>
+     * For odd grid widths a board is solvable when the number of inversions is even. For even widths
+     * the row of the empty cell matters as well: the board is solvable when the inversions plus the
+     * empty cell's row counted from the bottom (starting at 1) is odd.
+     *
+     * @param tiles    The row-major tile values, 0 being the empty cell.
+     * @param gridSize The size of the grid.
+     * @return True if the board can be solved, false otherwise.
+     */
+    public static boolean isSolvable(int[] tiles, int gridSize) {
+        return isSolvable(tiles, gridSize, gridSize, new int[tiles.length]);
+    }
+
+    /**
+     * Checks whether a rectangular board is solvable. The rule is the same as for square boards,
+     * with the width deciding whether the empty cell's row matters.
+     *
+     * @param tiles   The row-major tile values, 0 being the empty cell.
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     * @return True if the board can be solved, false otherwise.
+     */
+    public static boolean isSolvable(int[] tiles, int rows, int columns) {
+        return isSolvable(tiles, rows, columns, new int[tiles.length]);
+    }
+
+    /**
+     * Checks whether a board is solvable, using caller-provided scratch space.
+     *
+     * @param tiles    The row-major tile values, 0 being the empty cell.
+     * @param gridSize The size of the grid.
+     * @param scratch  Work space of at least {@code tiles.length} ints; its contents are overwritten.
+     * @return True if the board can be solved, false otherwise.
+     */
+    public static boolean isSolvable(int[] tiles, int gridSize, int[] scratch) {
+        return isSolvable(tiles, gridSize, gridSize, scratch);
+    }
+
+    /**
+     * Checks whether a rectangular board is solvable, using caller-provided scratch space.
+     *
+     * @param tiles   The row-major tile values, 0 being the empty cell.
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     * @param scratch Work space of at least {@code tiles.length} ints; its contents are overwritten.
+     * @return True if the board can be solved, false otherwise.
+     */
+    public static boolean isSolvable(int[] tiles, int rows, int columns, int[] scratch) {
+        int blankIndex = 0;
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] == 0) {
+                blankIndex = i;
+                break;
+            }
+        }
+
+        long inversions = countInversions(tiles, scratch);
+        if (columns % 2 == 1) {
+            return inversions % 2 == 0;
+        }
+        int blankRowFromBottom = rows - blankIndex / columns;
+        return (inversions + blankRowFromBottom) % 2 == 1;
+    }
+
+    /**
+     * Counts the pairs of numbered tiles that appear in the wrong order, ignoring the empty cell.
+     *
+     * @param tiles The row-major tile values, 0 being the empty cell.
+     * @return The number of inversions.
+     */
+    public static long countInversions(int[] tiles) {
+        return countInversions(tiles, new int[tiles.length]);
+    }
+
+    /**
+     * Counts inversions in O(n log n) with a Fenwick tree over tile values.
+     *
+     * @param tiles   The row-major tile values, 0 being the empty cell.
+     * @param scratch Work space of at least {@code tiles.length} ints; its contents are overwritten.
+     * @return The number of inversions.
+     */
+    public static long countInversions(int[] tiles, int[] scratch) {
+        int size = tiles.length;
+        Arrays.fill(scratch, 0, size, 0);
+        long inversions = 0;
+        int seen = 0;
+        for (int i = 0; i < size; i++) {
+            int tile = tiles[i];
+            if (tile == 0) {
+                continue;
+            }
+            // Tiles seen so far that are not smaller than this one are inversions
+            int smaller = 0;
+            for (int j = tile; j > 0; j -= j & -j) {
+                smaller += scratch[j];
+            }
+            inversions += seen - smaller;
+            for (int j = tile; j < size; j += j & -j) {
+                scratch[j]++;
+            }
+            seen++;
+        }
+        return inversions;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.fifteenpuzzlegame;
+
+/**
+ * Converts a {@link GameSnapshot} to bytes and back.
+ * <p>
+ * Every encoding carries the format version it was written with, and a decoder accepts all earlier
+ * versions of its format, so saved games survive format changes. Implementations must be stateless
+ * so that a single instance can be shared between threads. {@link StateCodecs} picks the decoder
+ * for bytes of unknown format.
+ */
+public interface StateCodec {
+
+    /**
+     * Retrieves the format version this codec writes.
+     *
+     * @return The version, starting at 1.
+     */
+    int getVersion();
+
+    /**
+     * Encodes a snapshot with the current format version.
+     *
+     * @param snapshot The snapshot.
+     * @return The encoded bytes.
+     */
+    byte[] encode(GameSnapshot snapshot);
+
+    /**
+     * Decodes a snapshot written with this or an earlier version of the format.
+     *
+     * @param bytes The encoded bytes.
+     * @return The snapshot.
+     * @throws IllegalArgumentException If the bytes are not a valid encoding.
+     */
+    GameSnapshot decode(byte[] bytes);
+}
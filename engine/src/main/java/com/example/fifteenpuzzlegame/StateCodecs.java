@@ -0,0 +1,37 @@
+package com.example.fifteenpuzzlegame;
+
+/**
+ * The available {@link StateCodec}s, and decoding of saved state whatever format it was written in.
+ */
+public final class StateCodecs {
+
+    /** The compact binary format, used for everything the app writes. */
+    public static final BinaryStateCodec BINARY = new BinaryStateCodec();
+    /** The JSON format, for export and for boards saved by older versions. */
+    public static final JsonStateCodec JSON = new JsonStateCodec();
+
+    private StateCodecs() {
+    }
+
+    /**
+     * Picks the codec that can read the given bytes: binary encodings start with
+     * {@link BinaryStateCodec#MAGIC}, which never starts UTF-8 text, anything else is taken for JSON.
+     *
+     * @param bytes The encoded state.
+     * @return The codec to decode it with.
+     */
+    public static StateCodec forBytes(byte[] bytes) {
+        return bytes.length > 0 && (bytes[0] & 0xFF) == BinaryStateCodec.MAGIC ? BINARY : JSON;
+    }
+
+    /**
+     * Decodes saved state in any supported format and version.
+     *
+     * @param bytes The encoded state.
+     * @return The snapshot.
+     * @throws IllegalArgumentException If the bytes are not a valid encoding.
+     */
+    public static GameSnapshot decode(byte[] bytes) {
+        return forBytes(bytes).decode(bytes);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.fifteenpuzzlegame;
+
+/**
+ * Zobrist keys for hashing puzzle boards.
+ * <p>
+ * Every (tile, cell) pair has a random 64-bit key and a board's hash is the XOR of the keys of all
+ * numbered tiles. Moving a tile from one cell to another therefore changes the hash by two XORs.
+ * The keys are generated from a fixed seed, so hashes are stable across runs and devices and may
+ * be persisted.
+ */
+public final class ZobristKeys {
+
+    private static final long SEED = 0x15F1F7EE15L;
+    private static final int MAX_CACHED_GRID_SIZE = 16;
+    private static final ZobristKeys[][] CACHE = new ZobristKeys[MAX_CACHED_GRID_SIZE + 1][MAX_CACHED_GRID_SIZE + 1];
+
+    private final int cellCount;
+    private final long[] keys;
+
+    private ZobristKeys(int rows, int columns) {
+        this.cellCount = rows * columns;
+        this.keys = new long[cellCount * cellCount];
+        long state = SEED + ((long) rows << 16 | columns);
+        for (int i = 0; i < keys.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            keys[i] = mix(state);
+        }
+    }
+
+    /**
+     * Returns the shared keys for a grid size.
+     *
+     * @param gridSize The size of the grid.
+     * @return The keys for that grid size.
+     */
+    public static ZobristKeys of(int gridSize) {
+        return of(gridSize, gridSize);
+    }
+
+    /**
+     * Returns the shared keys for a rectangular board size.
+     *
+     * @param rows    The number of rows.
+     * @param columns The number of columns.
+     * @return The keys for that board size.
+     */
+    public static ZobristKeys of(int rows, int columns) {
+        if (rows > MAX_CACHED_GRID_SIZE || columns > MAX_CACHED_GRID_SIZE) {
+            return new ZobristKeys(rows, columns);
+        }
+        ZobristKeys keys = CACHE[rows][columns];
+        if (keys == null) {
+            keys = new ZobristKeys(rows, columns);
+            CACHE[rows][columns] = keys;
+        }
+        return keys;
+    }
+
+    /**
+     * SplitMix64 finalizer; spreads consecutive seeds into well-distributed keys.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns the key of a tile standing on a cell.
+     *
+     * @param tile The tile value (1 or more).
+     * @param cell The row-major cell index.
+     * @return The key.
+     */
+    public long key(int tile, int cell) {
+        return keys[tile * cellCount + cell];
+    }
+
+    /**
+     * Returns the hash change caused by moving a tile between two cells.
+     *
+     * @param tile The tile that moved.
+     * @param from The cell it left.
+     * @param to   The cell it entered.
+     * @return The value to XOR into the board hash.
+     */
+    public long moveDelta(int tile, int from, int to) {
+        int base = tile * cellCount;
+        return keys[base + from] ^ keys[base + to];
+    }
+
+    /**
+     * Hashes a whole board.
+     *
+     * @param tiles The row-major tile values, 0 being the empty cell.
+     * @return The board hash.
+     */
+    public long hash(int[] tiles) {
+        long hash = 0;
+        for (int cell = 0; cell < tiles.length; cell++) {
+            if (tiles[cell] != 0) {
+                hash ^= key(tiles[cell], cell);
+            }
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.fifteenpuzzlegame;
+
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BoardCode}.
+ */
+public class BoardCodeTest {
+
+    private static final int[][] SIZES = {{2, 2}, {2, 3}, {3, 2}, {3, 3}, {4, 4}, {4, 5}, {5, 5}, {3, 7}, {16, 16}};
+
+    @Test
+    public void codes_roundTrip() {
+        for (int[] size : SIZES) {
+            for (long seed = 1; seed <= 20; seed++) {
+                int[] tiles = new PuzzleBoard(size[0], size[1], seed).getTiles();
+                String code = BoardCode.encode(size[0], size[1], tiles);
+
+                assertEquals(size[0], BoardCode.rowsOf(code));
+                assertEquals(size[1], BoardCode.columnsOf(code));
+                assertArrayEquals(size[0] + "x" + size[1] + " " + code, tiles, BoardCode.decode(" " + code + "\n"));
+                assertTrue(code, code.matches("[0-9A-Za-z]+"));
+            }
+        }
+    }
+
+    @Test
+    public void ids_roundTrip() {
+        for (int[] size : SIZES) {
+            for (long seed = 1; seed <= 20; seed++) {
+                int[] tiles = new PuzzleBoard(size[0], size[1], seed).getTiles();
+                BigInteger id = BoardCode.toBigId(size[0], size[1], tiles);
+
+                assertArrayEquals(tiles, BoardCode.fromBigId(size[0], size[1], id));
+                if (size[0] * size[1] <= BoardCode.MAX_LONG_CELLS) {
+                    long longId = BoardCode.toId(size[0], size[1], tiles);
+
+                    assertEquals(BigInteger.valueOf(longId), id);
+                    assertArrayEquals(tiles, BoardCode.fromId(size[0], size[1], longId));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void ids_areDense() {
+        int[][] sizes = {{2, 3}, {3, 3}};
+        for (int[] size : sizes) {
+            int count = factorial(size[0] * size[1]) / 2;
+            Set<String> boards = new HashSet<>();
+            for (int id = 0; id < count; id++) {
+                int[] tiles = BoardCode.fromId(size[0], size[1], id);
+
+                assertTrue(Solvability.isSolvable(tiles, size[0], size[1]));
+                assertEquals(id, BoardCode.toId(size[0], size[1], tiles));
+                assertTrue(boards.add(Arrays.toString(tiles)));
+            }
+            assertOutOfRange(size[0], size[1], count);
+        }
+        assertEquals(0, BoardCode.toId(3, 3, new int[]{0, 1, 2, 3, 4, 5, 6, 7, 8}));
+    }
+
+    @Test
+    public void codes_areShort() {
+        int[] tiles = new PuzzleBoard(4, 1L).getTiles();
+
+        assertTrue(BoardCode.encode(4, 4, tiles).startsWith("44"));
+        assertTrue(BoardCode.encode(4, 4, tiles).length() <= 10);
+    }
+
+    @Test
+    public void unsolvableBoard_hasNoId() {
+        int[] unsolvable = {2, 1, 3, 4, 5, 6, 7, 8, 0};
+
+        assertEquals(-1, BoardCode.idIfSolvable(3, 3, unsolvable));
+        try {
+            BoardCode.toId(3, 3, unsolvable);
+            fail("Gave an unsolvable board an ID");
+        } catch (IllegalArgumentException expected) {
+            // Rejected as it should be
+        }
+    }
+
+    @Test
+    public void invalidInput_isRejected() {
+        Runnable[] calls = {
+                () -> BoardCode.toId(3, 3, new int[]{1, 1, 3, 4, 5, 6, 7, 8, 0}),
+                () -> BoardCode.toId(3, 3, new int[]{1, 2, 3, 0}),
+                () -> BoardCode.toId(5, 5, new PuzzleBoard(5, 1L).getTiles()),
+                () -> BoardCode.fromId(2, 2, -1),
+                () -> BoardCode.decode("33"),
+                () -> BoardCode.decode("33-1"),
+                () -> BoardCode.decode("H3A"),
+        };
+        for (int i = 0; i < calls.length; i++) {
+            try {
+                calls[i].run();
+                fail("Call " + i + " was accepted");
+            } catch (IllegalArgumentException expected) {
+                // Rejected as it should be
+            }
+        }
+    }
+
+    private static void assertOutOfRange(int rows, int columns, long id) {
+        try {
+            BoardCode.fromId(rows, columns, id);
+            fail("Accepted ID " + id + " for " + rows + "x" + columns);
+        } catch (IllegalArgumentException expected) {
+            // Rejected as it should be
+        }
+    }
+
+    private static int factorial(int n) {
+        int result = 1;
+        for (int i = 2; i <= n; i++) {
+            result *= i;
+        }
+        return result;
+    }
+}
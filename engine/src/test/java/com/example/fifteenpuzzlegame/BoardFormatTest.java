@@ -0,0 +1,60 @@
+package com.example.fifteenpuzzlegame;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BoardFormat}.
+ */
+public class BoardFormatTest {
+
+    @Test
+    public void squareBoard_takesItsSizeFromTheTileCount() {
+        String line = " 1,2,3,4,5,6,7,0,8\t1 ";
+
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6, 7, 0, 8}, BoardFormat.parse(line));
+        assertEquals(3, BoardFormat.rowsOf(line));
+        assertEquals(3, BoardFormat.columnsOf(line));
+        assertArrayEquals(new String[]{"1"}, BoardFormat.extraFields(line));
+    }
+
+    @Test
+    public void rectangularBoard_takesItsSizeFromThePrefix() {
+        String line = "2x3:1,2,3,4,0,5";
+
+        assertArrayEquals(new int[]{1, 2, 3, 4, 0, 5}, BoardFormat.parse(line));
+        assertEquals(2, BoardFormat.rowsOf(line));
+        assertEquals(3, BoardFormat.columnsOf(line));
+    }
+
+    @Test
+    public void append_writesWhatParseReads() {
+        PuzzleBoard board = new PuzzleBoard(3, 5, 2L);
+        String line = BoardFormat.append(3, 5, board.getTiles(), new StringBuilder()).toString();
+
+        assertTrue(line.startsWith("3x5:"));
+        assertArrayEquals(board.getTiles(), BoardFormat.parse(line));
+        assertEquals("1,2,3,0", BoardFormat.append(2, 2, new int[]{1, 2, 3, 0}, new StringBuilder()).toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonSquareBoardWithoutPrefix_isRejected() {
+        BoardFormat.parse("1,2,3,4,0,5");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void prefixNotMatchingTheTiles_isRejected() {
+        BoardFormat.parse("3x3:1,2,3,4,0,5");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void malformedPrefix_isRejected() {
+        BoardFormat.parse("2by3:1,2,3,4,0,5");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void repeatedTile_isRejected() {
+        BoardFormat.parse("1,2,3,3");
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.fifteenpuzzlegame;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BoardShuffler}.
+ */
+public class BoardShufflerTest {
+
+    @Test
+    public void shuffledBoards_areReachableFromTheGoal() {
+        int[][] sizes = {{2, 2}, {2, 3}, {3, 2}, {3, 3}};
+        for (int[] size : sizes) {
+            Set<String> reachable = reachableBoards(size[0], size[1]);
+            BoardShuffler shuffler = new BoardShuffler(size[0] * 10 + size[1]);
+            int[] tiles = new int[size[0] * size[1]];
+            for (int i = 0; i < 2000; i++) {
+                shuffler.shuffle(tiles, size[0], size[1]);
+
+                assertTrue(size[0] + "x" + size[1] + " " + Arrays.toString(tiles), reachable.contains(Arrays.toString(tiles)));
+            }
+        }
+    }
+
+    @Test
+    public void shuffledBoards_areSolvableUnsolvedPermutations() {
+        BoardShuffler shuffler = new BoardShuffler(1L);
+        for (int rows = 2; rows <= PuzzleBoard.MAX_SIZE; rows++) {
+            for (int columns = 2; columns <= PuzzleBoard.MAX_SIZE; columns++) {
+                int[] tiles = new int[rows * columns];
+                int blank = shuffler.shuffle(tiles, rows, columns);
+
+                assertEquals(0, tiles[blank]);
+                assertTrue(Solvability.isSolvable(tiles, rows, columns));
+                assertFalse(Arrays.equals(TestBoards.solvedTiles(rows, columns), tiles));
+                int[] sorted = tiles.clone();
+                Arrays.sort(sorted);
+                for (int i = 0; i < sorted.length; i++) {
+                    assertEquals(i, sorted[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void equalSeeds_giveEqualBoards() {
+        BoardShuffler first = new BoardShuffler(42L);
+        BoardShuffler second = new BoardShuffler(42L);
+        int[] firstTiles = new int[16];
+        int[] secondTiles = new int[16];
+        for (int i = 0; i < 100; i++) {
+            first.shuffle(firstTiles, 4);
+            second.shuffle(secondTiles, 4);
+
+            assertArrayEquals(firstTiles, secondTiles);
+        }
+    }
+
+    /**
+     * Collects every board reachable from the goal by breadth-first search.
+     */
+    private static Set<String> reachableBoards(int rows, int columns) {
+        Set<String> seen = new HashSet<>();
+        ArrayDeque<int[]> queue = new ArrayDeque<>();
+        int[] goal = TestBoards.solvedTiles(rows, columns);
+        seen.add(Arrays.toString(goal));
+        queue.add(goal);
+        int[][] steps = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+        while (!queue.isEmpty()) {
+            int[] tiles = queue.poll();
+            int blank = SearchWorker.indexOfBlank(tiles);
+            for (int[] step : steps) {
+                int row = blank / columns + step[0];
+                int col = blank % columns + step[1];
+                if (row < 0 || row >= rows || col < 0 || col >= columns) {
+                    continue;
+                }
+                int from = row * columns + col;
+                int[] next = tiles.clone();
+                next[blank] = next[from];
+                next[from] = 0;
+                if (seen.add(Arrays.toString(next))) {
+                    queue.add(next);
+                }
+            }
+        }
+        return seen;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.fifteenpuzzlegame;
+
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link DistanceTable}.
+ */
+public class DistanceTableTest {
+
+    private final DistanceTable table = DistanceTable.get();
+
+    @Test
+    public void rankAndUnrank_areInverse() {
+        for (int index = 0; index < DistanceTable.STATE_COUNT; index++) {
+            int[] tiles = DistanceTable.unrank(index);
+
+            assertTrue(Solvability.isSolvable(tiles, 3));
+            assertEquals(index, DistanceTable.rank(tiles));
+        }
+    }
+
+    @Test
+    public void distances_matchBreadthFirstSearch() {
+        Map<Long, Integer> distances = IdaStarSolverTest.breadthFirstDistances(3);
+
+        assertEquals(DistanceTable.STATE_COUNT, distances.size());
+        int maxDistance = 0;
+        for (int index = 0; index < DistanceTable.STATE_COUNT; index++) {
+            int[] tiles = DistanceTable.unrank(index);
+            int expected = distances.get(IdaStarSolverTest.key(tiles));
+
+            assertEquals(expected, table.distance(tiles));
+            maxDistance = Math.max(maxDistance, expected);
+        }
+        assertEquals(maxDistance, table.getMaxDistance());
+    }
+
+    @Test
+    public void solutions_areOptimalAndSolveTheBoard() {
+        IdaStarSolver solver = new IdaStarSolver(3);
+        for (long seed = 1; seed <= 30; seed++) {
+            PuzzleBoard board = new PuzzleBoard(3, seed);
+            Solution solution = table.solve(board.getTiles());
+
+            assertEquals("Seed " + seed, solver.solve(board).length(), solution.length());
+            assertTrue("Solution does not solve seed " + seed, TestBoards.solves(board, solution));
+        }
+        assertEquals(0, table.solve(TestBoards.solvedTiles(3, 3)).length());
+        assertEquals(-1, table.nextMove(TestBoards.solvedTiles(3, 3)));
+    }
+
+    @Test
+    public void delta_matchesEstimateDifferences() {
+        int[] tiles = new int[9];
+        for (int index = 0; index < DistanceTable.STATE_COUNT; index += 97) {
+            int[] before = DistanceTable.unrank(index);
+            int blank = SearchWorker.indexOfBlank(before);
+            for (int from : BoardLayout.of(3).neighbors(blank)) {
+                System.arraycopy(before, 0, tiles, 0, 9);
+                int tile = tiles[from];
+                tiles[blank] = tile;
+                tiles[from] = 0;
+                int[] after = tiles.clone();
+
+                assertEquals(table.estimate(after) - table.estimate(before), table.delta(tiles, tile, from, blank));
+                assertArrayEquals("delta must leave the board as it was", after, tiles);
+            }
+        }
+    }
+
+    @Test
+    public void unsolvableBoard_hasNoDistance() {
+        int[] unsolvable = {2, 1, 3, 4, 5, 6, 7, 8, 0};
+
+        assertEquals(-1, DistanceTable.rank(unsolvable));
+        assertEquals(-1, table.distance(unsolvable));
+        assertEquals(-1, table.nextMove(unsolvable));
+        try {
+            table.solve(unsolvable);
+            fail("Solved an unsolvable board");
+        } catch (IllegalArgumentException expected) {
+            // Rejected as it should be
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void repeatedTile_isRejected() {
+        DistanceTable.rank(new int[]{1, 1, 3, 4, 5, 6, 7, 8, 0});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void indexOutOfRange_isRejected() {
+        DistanceTable.unrank(DistanceTable.STATE_COUNT);
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.fifteenpuzzlegame;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link GameHistory}.
+ */
+public class GameHistoryTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+    private GameHistory history;
+
+    @Before
+    public void openHistory() throws IOException {
+        file = new File(folder.getRoot(), "history.bin");
+        history = GameHistory.open(file);
+    }
+
+    @After
+    public void closeHistory() throws IOException {
+        history.close();
+    }
+
+    @Test
+    public void recordsOutOfTimeOrder_areVisitedInTimeOrder() throws IOException {
+        Random random = new Random(1L);
+        List<Long> startTimes = new ArrayList<>();
+        // Enough records to grow the index several times
+        for (int i = 0; i < 200; i++) {
+            long startTime = random.nextInt(1000);
+            startTimes.add(startTime);
+            history.append(new GameHistory.Record(4, GameHistory.Outcome.WON, i, startTime, 1000, i));
+        }
+        Collections.sort(startTimes);
+
+        assertEquals(startTimes, startTimes(history, 4, 4, Long.MIN_VALUE, Long.MAX_VALUE));
+        history.close();
+        history = GameHistory.open(file);
+        assertEquals(200, history.count(4));
+        assertEquals(startTimes, startTimes(history, 4, 4, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void query_coversFromInclusiveToExclusive() throws IOException {
+        long[] times = {50, 10, 30, 30, 20, 40, 30};
+        for (long time : times) {
+            history.append(new GameHistory.Record(3, GameHistory.Outcome.WON, 1, time, 1, 0));
+        }
+
+        assertEquals(list(30, 30, 30, 40), startTimes(history, 3, 3, 30, 50));
+        assertEquals(list(10, 20), startTimes(history, 3, 3, 0, 30));
+        assertEquals(list(50), startTimes(history, 3, 3, 41, 51));
+        assertEquals(list(), startTimes(history, 3, 3, 31, 40));
+        assertEquals(list(), startTimes(history, 3, 3, 51, Long.MAX_VALUE));
+        assertEquals(list(), startTimes(history, 4, 4, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void recordFields_roundTripAcrossReopen() throws IOException {
+        GameHistory.Record appended = new GameHistory.Record(3, 5, GameHistory.Outcome.ABANDONED, 77,
+                1_700_000_000_000L, 65_000L, -42L);
+        history.append(appended);
+        history.close();
+        history = GameHistory.open(file);
+
+        List<GameHistory.Record> records = new ArrayList<>();
+        history.query(3, 5, Long.MIN_VALUE, Long.MAX_VALUE, record -> records.add(copy(record)));
+
+        assertEquals(1, records.size());
+        GameHistory.Record record = records.get(0);
+        assertEquals(3, record.getRows());
+        assertEquals(5, record.getColumns());
+        assertEquals(GameHistory.Outcome.ABANDONED, record.getOutcome());
+        assertEquals(77, record.getMoveCount());
+        assertEquals(1_700_000_000_000L, record.getStartTime());
+        assertEquals(65_000L, record.getDuration());
+        assertEquals(-42L, record.getSeed());
+    }
+
+    @Test
+    public void rectangularBoards_areKeptApartFromSquareOnes() throws IOException {
+        history.append(new GameHistory.Record(3, GameHistory.Outcome.WON, 10, 1, 1000, 0));
+        history.append(new GameHistory.Record(3, 5, GameHistory.Outcome.WON, 20, 2, 2000, 0));
+        history.append(new GameHistory.Record(5, 3, GameHistory.Outcome.WON, 30, 3, 3000, 0));
+        history.append(new GameHistory.Record(5, GameHistory.Outcome.WON, 40, 4, 4000, 0));
+        history.close();
+
+        // Square boards leave the column byte 0; rectangular ones store their column count
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            int[] expectedColumns = {0, 5, 3, 0};
+            for (int i = 0; i < expectedColumns.length; i++) {
+                in.seek(8 + i * 32 + 2);
+                assertEquals("Record " + i, expectedColumns[i], in.read());
+            }
+        }
+
+        history = GameHistory.open(file);
+        assertEquals(list(1), startTimes(history, 3, 3, Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(list(2), startTimes(history, 3, 5, Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(list(3), startTimes(history, 5, 3, Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(list(4), startTimes(history, 5, 5, Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(1, history.count(3));
+        assertEquals(4, history.size());
+    }
+
+    @Test
+    public void tornRecord_isCutOffOnOpen() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            history.append(new GameHistory.Record(4, GameHistory.Outcome.WON, 10, i, 1000, 0));
+        }
+        history.close();
+        // Part of a fourth record, as left by a crash in the middle of a write
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.seek(out.length());
+            out.write(new byte[]{4, 0, 0, 0, 0, 0, 0, 9, 0, 0, 0});
+        }
+
+        history = GameHistory.open(file);
+
+        assertEquals(3, history.size());
+        assertEquals(8 + 3 * 32, file.length());
+        history.append(new GameHistory.Record(4, GameHistory.Outcome.WON, 10, 3, 1000, 0));
+        history.close();
+        history = GameHistory.open(file);
+        assertEquals(list(0, 1, 2, 3), startTimes(history, 4, 4, Long.MIN_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    public void summarize_aggregatesWonGames() throws IOException {
+        history.append(new GameHistory.Record(4, GameHistory.Outcome.WON, 120, 1, 90_000, 0));
+        history.append(new GameHistory.Record(4, GameHistory.Outcome.ABANDONED, 15, 2, 5_000, 0));
+        history.append(new GameHistory.Record(4, GameHistory.Outcome.WON, 80, 3, 150_000, 0));
+        history.append(new GameHistory.Record(4, GameHistory.Outcome.WON, 100, 4, 60_000, 0));
+
+        GameHistory.Summary all = history.summarize(4);
+        GameHistory.Summary firstTwo = history.summarize(4, 1, 3);
+
+        assertEquals(4, all.getGamesPlayed());
+        assertEquals(3, all.getGamesWon());
+        assertEquals(75.0, all.getWinPercentage(), 1e-9);
+        assertEquals(60_000, all.getBestTime());
+        assertEquals(80, all.getBestMoveCount());
+        assertEquals(100_000, all.getAverageWinningTime());
+        assertEquals(2, firstTwo.getGamesPlayed());
+        assertEquals(90_000, firstTwo.getBestTime());
+        assertEquals(0, history.summarize(3).getGamesPlayed());
+        assertEquals(Long.MAX_VALUE, history.summarize(3).getBestTime());
+    }
+
+    @Test(expected = IOException.class)
+    public void otherFile_isRejected() throws IOException {
+        File other = folder.newFile();
+        try (RandomAccessFile out = new RandomAccessFile(other, "rw")) {
+            out.writeLong(0x1234567890ABCDEFL);
+        }
+        GameHistory.open(other).close();
+    }
+
+    private static List<Long> startTimes(GameHistory history, int rows, int columns, long fromTime, long toTime)
+            throws IOException {
+        List<Long> startTimes = new ArrayList<>();
+        history.query(rows, columns, fromTime, toTime, record -> {
+            assertEquals(rows, record.getRows());
+            assertEquals(columns, record.getColumns());
+            startTimes.add(record.getStartTime());
+        });
+        return startTimes;
+    }
+
+    private static List<Long> list(long... values) {
+        List<Long> list = new ArrayList<>();
+        for (long value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    private static GameHistory.Record copy(GameHistory.Record record) {
+        return new GameHistory.Record(record.getRows(), record.getColumns(), record.getOutcome(),
+                record.getMoveCount(), record.getStartTime(), record.getDuration(), record.getSeed());
+    }
+}
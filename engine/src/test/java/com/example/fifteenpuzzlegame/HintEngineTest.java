@@ -0,0 +1,85 @@
+package com.example.fifteenpuzzlegame;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link HintEngine}.
+ */
+public class HintEngineTest {
+
+    private final HintEngine engine = new HintEngine(null, HintEngine.DEFAULT_BUDGET_MILLIS);
+
+    @After
+    public void shutDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    public void smallBoard_getsOptimalHint() throws InterruptedException {
+        PuzzleBoard board = new PuzzleBoard(3, 4L);
+        HintEngine.Hint hint = requestHint(board);
+
+        assertTrue(hint.isOptimal());
+        assertEquals(new IdaStarSolver(3).solve(board).length(), hint.getMovesToSolve());
+        assertTrue(isNextToEmptyCell(board, hint.getCell()));
+    }
+
+    @Test
+    public void largeBoards_getBestEffortHint() throws InterruptedException {
+        for (int gridSize = 9; gridSize <= PuzzleBoard.MAX_SIZE; gridSize++) {
+            PuzzleBoard board = new PuzzleBoard(gridSize, 1L);
+            HintEngine.Hint hint = requestHint(board);
+
+            assertFalse(hint.isOptimal());
+            assertTrue(gridSize + "x" + gridSize, isNextToEmptyCell(board, hint.getCell()));
+        }
+    }
+
+    @Test
+    public void solvedLargeBoard_getsNoCell() throws InterruptedException {
+        assertEquals(-1, requestHint(TestBoards.solved(10, 10)).getCell());
+    }
+
+    @Test
+    public void unsolvableBoard_getsNoCell() throws InterruptedException {
+        PuzzleBoard board = new PuzzleBoard(3, new int[]{2, 1, 3, 4, 5, 6, 7, 8, 0});
+
+        assertEquals(-1, requestHint(board).getCell());
+    }
+
+    @Test
+    public void prepare_keepsQueuedRequests() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(2);
+        HintEngine.Callback callback = (request, hint) -> done.countDown();
+        // The first request keeps the hint thread busy, so the second one waits in the queue
+        engine.requestHint(new PuzzleBoard(4, 9L), callback);
+        engine.requestHint(new PuzzleBoard(3, 9L), callback);
+        engine.prepare(3, 3);
+
+        assertTrue("A queued request got no callback", done.await(10, TimeUnit.SECONDS));
+    }
+
+    private HintEngine.Hint requestHint(PuzzleBoard board) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<HintEngine.Hint> result = new AtomicReference<>();
+        engine.requestHint(board, (request, hint) -> {
+            result.set(hint);
+            done.countDown();
+        });
+        assertTrue("No hint delivered", done.await(10, TimeUnit.SECONDS));
+        return result.get();
+    }
+
+    private static boolean isNextToEmptyCell(PuzzleBoard board, int cell) {
+        int empty = board.getEmptyIndex();
+        int columns = board.getColumns();
+        return cell >= 0 && Math.abs(cell / columns - empty / columns) + Math.abs(cell % columns - empty % columns) == 1;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.fifteenpuzzlegame;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link IdaStarSolver}.
+ */
+public class IdaStarSolverTest {
+
+    @Test
+    public void solvedBoard_needsNoMoves() {
+        Solution solution = new IdaStarSolver(3).solve(TestBoards.solved(3, 3));
+
+        assertEquals(0, solution.length());
+        assertEquals(-1, solution.getFirstMove());
+    }
+
+    @Test
+    public void solutions_solveTheBoard() {
+        for (int gridSize = 2; gridSize <= 4; gridSize++) {
+            IdaStarSolver solver = new IdaStarSolver(gridSize);
+            for (long seed = 1; seed <= 5; seed++) {
+                PuzzleBoard board = gridSize == 4 ? TestBoards.scrambled(4, 4, seed, 30) : new PuzzleBoard(gridSize, seed);
+                Solution solution = solver.solve(board);
+
+                assertTrue("Solution does not solve seed " + seed, TestBoards.solves(board, solution));
+            }
+        }
+    }
+
+    @Test
+    public void solutions_areOptimalOn3x3() {
+        IdaStarSolver solver = new IdaStarSolver(3);
+        Map<Long, Integer> distances = breadthFirstDistances(3);
+        for (long seed = 1; seed <= 50; seed++) {
+            int[] tiles = new PuzzleBoard(3, seed).getTiles();
+
+            assertEquals("Seed " + seed, (int) distances.get(key(tiles)), solver.solve(tiles).length());
+        }
+    }
+
+    @Test
+    public void maxLength_returnsNullWhenEverySolutionIsLonger() {
+        IdaStarSolver solver = new IdaStarSolver(3);
+        int[] tiles = new PuzzleBoard(3, 7L).getTiles();
+        int optimal = solver.solve(tiles).length();
+
+        assertNull(solver.solve(tiles, optimal - 1, null));
+        assertEquals(optimal, solver.solve(tiles, optimal, null).length());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsolvableBoard_isRejected() {
+        new IdaStarSolver(3).solve(new int[]{2, 1, 3, 4, 5, 6, 7, 8, 0});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void boardOfOtherSize_isRejected() {
+        new IdaStarSolver(3).solve(new PuzzleBoard(4, 1L));
+    }
+
+    @Test(expected = CancellationException.class)
+    public void cancelledSearch_throws() {
+        new IdaStarSolver(4).solve(new PuzzleBoard(4, 1L).getTiles(), () -> true);
+    }
+
+    /**
+     * Finds the optimal solution length of every board by a breadth-first search from the goal; only
+     * feasible for 3x3.
+     */
+    static Map<Long, Integer> breadthFirstDistances(int gridSize) {
+        int[] goal = TestBoards.solvedTiles(gridSize, gridSize);
+        Map<Long, Integer> depth = new HashMap<>();
+        ArrayDeque<int[]> queue = new ArrayDeque<>();
+        depth.put(key(goal), 0);
+        queue.add(goal);
+        while (!queue.isEmpty()) {
+            int[] tiles = queue.poll();
+            int distance = depth.get(key(tiles));
+            int blank = SearchWorker.indexOfBlank(tiles);
+            for (int from : BoardLayout.of(gridSize).neighbors(blank)) {
+                int[] next = tiles.clone();
+                next[blank] = next[from];
+                next[from] = 0;
+                if (depth.putIfAbsent(key(next), distance + 1) == null) {
+                    queue.add(next);
+                }
+            }
+        }
+        return depth;
+    }
+
+    static long key(int[] tiles) {
+        long key = 0;
+        for (int tile : tiles) {
+            key = key << 4 | tile;
+        }
+        return key;
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.fifteenpuzzlegame;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link MoveJournal}.
+ */
+public class MoveJournalTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+    private MoveJournal journal;
+    private PuzzleBoard board;
+
+    @Before
+    public void writeSnapshot() throws IOException {
+        file = new File(folder.getRoot(), "game.journal");
+        journal = new MoveJournal(file);
+        board = new PuzzleBoard(4, 5L);
+        board.setMoveLog(new MoveLog());
+        journal.writeSnapshot(4, 4, board.getTiles(), null, 7, 1234L, true);
+    }
+
+    @After
+    public void closeJournal() throws IOException {
+        journal.close();
+    }
+
+    @Test
+    public void recover_replaysMovesUndosAndRedos() throws IOException {
+        int moveCount = 7 + play(6);
+        assertTrue(board.undoMove());
+        journal.appendMove(MoveJournal.UNDO);
+        assertTrue(board.undoMove());
+        journal.appendMove(MoveJournal.UNDO);
+        assertTrue(board.redoMove());
+        journal.appendMove(MoveJournal.REDO);
+        moveCount -= 1;
+
+        MoveJournal.Recovered recovered = reopen().recover();
+
+        assertEquals(4, recovered.getRows());
+        assertEquals(4, recovered.getColumns());
+        assertArrayEquals(board.getTiles(), recovered.getTiles());
+        assertEquals(moveCount, recovered.getMoveCount());
+        assertEquals(9, recovered.getReplayedMoves());
+        assertEquals(1234L, recovered.getPauseOffset());
+        assertTrue(recovered.isPaused());
+        assertTrue(recovered.getMoveLog().canRedo());
+    }
+
+    @Test
+    public void tornRecord_endsTheTailAndIsOverwritten() throws IOException {
+        int moveCount = 7 + play(5);
+        int[] tilesBeforeTear = board.getTiles();
+        journal.close();
+        // Half of a sixth record, as left by a crash in the middle of a write
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.seek(out.length());
+            out.write(3);
+        }
+
+        MoveJournal recovering = reopen();
+        MoveJournal.Recovered recovered = recovering.recover();
+
+        assertArrayEquals(tilesBeforeTear, recovered.getTiles());
+        assertEquals(moveCount, recovered.getMoveCount());
+        assertEquals(5, recovered.getReplayedMoves());
+
+        journal = recovering;
+        moveCount += play(2);
+        recovered = reopen().recover();
+
+        assertArrayEquals(board.getTiles(), recovered.getTiles());
+        assertEquals(moveCount, recovered.getMoveCount());
+        assertEquals(7, recovered.getReplayedMoves());
+    }
+
+    @Test
+    public void corruptRecord_endsTheTail() throws IOException {
+        play(4);
+        int[] tilesAfterTwoMoves = replayedTiles(2);
+        journal.close();
+        // Flip the check byte of the third record
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            long position = out.length() - 3;
+            out.seek(position);
+            int check = out.read();
+            out.seek(position);
+            out.write(check ^ 0xFF);
+        }
+
+        MoveJournal.Recovered recovered = reopen().recover();
+
+        assertEquals(2, recovered.getReplayedMoves());
+        assertArrayEquals(tilesAfterTwoMoves, recovered.getTiles());
+    }
+
+    @Test
+    public void damagedSnapshot_recoversNothing() throws IOException {
+        journal.close();
+        try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.seek(10);
+            int value = out.read();
+            out.seek(10);
+            out.write(value ^ 0xFF);
+        }
+
+        assertNull(reopen().recover());
+    }
+
+    @Test
+    public void corruptSnapshotLength_recoversNothing() throws IOException {
+        journal.close();
+        for (int length : new int[]{Integer.MAX_VALUE, Integer.MAX_VALUE - 3, -1}) {
+            try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+                out.seek(5);
+                out.writeInt(length);
+            }
+
+            assertNull(reopen().recover());
+        }
+    }
+
+    @Test
+    public void anyDamagedSnapshotByte_recoversNothing() throws IOException {
+        journal.close();
+        byte[] bytes = new byte[(int) file.length()];
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            in.readFully(bytes);
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+                out.seek(i);
+                out.write(bytes[i] ^ 0x40);
+            }
+
+            assertNull("Byte " + i, reopen().recover());
+            try (RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    @Test
+    public void missingFile_recoversNothing() throws IOException {
+        journal.delete();
+
+        assertNull(reopen().recover());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void appendWithoutSnapshot_isRejected() throws IOException {
+        new MoveJournal(new File(folder.getRoot(), "empty.journal")).appendMove(0);
+    }
+
+    /**
+     * Slides a tile next to the empty cell on the board and journals it.
+     *
+     * @return The number of moves made.
+     */
+    private int play(int moves) throws IOException {
+        for (int i = 0; i < moves; i++) {
+            int empty = board.getEmptyIndex();
+            int cell = empty % 4 == 0 ? empty + 1 : empty - 1;
+            assertTrue(board.moveTiles(cell / 4, cell % 4));
+            journal.appendMove(cell);
+        }
+        return moves;
+    }
+
+    /**
+     * Recovers the first records of the journal on a copy of its file.
+     */
+    private int[] replayedTiles(int records) throws IOException {
+        File copy = folder.newFile();
+        byte[] bytes = new byte[(int) file.length() - 2 * (journal.getMovesSinceSnapshot() - records)];
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            in.readFully(bytes);
+        }
+        try (RandomAccessFile out = new RandomAccessFile(copy, "rw")) {
+            out.write(bytes);
+        }
+        MoveJournal partial = new MoveJournal(copy);
+        try {
+            return partial.recover().getTiles();
+        } finally {
+            partial.close();
+        }
+    }
+
+    private MoveJournal reopen() throws IOException {
+        journal.close();
+        return new MoveJournal(file);
+    }
+}
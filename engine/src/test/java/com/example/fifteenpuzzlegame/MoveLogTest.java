@@ -0,0 +1,121 @@
+package com.example.fifteenpuzzlegame;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link MoveLog}.
+ */
+public class MoveLogTest {
+
+    @Test
+    public void byteArray_roundTripsMovesAndPosition() {
+        Random random = new Random(1L);
+        MoveLog log = new MoveLog();
+        for (int i = 0; i < 300; i++) {
+            log.record(random.nextInt(4), random.nextInt(4) == 0 ? 2 + random.nextInt(16) : 1);
+        }
+        for (int i = 0; i < 70; i++) {
+            log.undo();
+        }
+
+        MoveLog restored = MoveLog.fromByteArray(log.toByteArray());
+
+        assertEquals(log.size(), restored.size());
+        assertEquals(log.getPosition(), restored.getPosition());
+        while (log.canRedo()) {
+            assertEquals(log.redo(), restored.redo());
+        }
+        assertFalse(restored.canRedo());
+        while (log.canUndo()) {
+            assertEquals(log.undo(), restored.undo());
+        }
+        assertFalse(restored.canUndo());
+    }
+
+    @Test
+    public void emptyLog_roundTrips() {
+        MoveLog restored = MoveLog.fromByteArray(new MoveLog().toByteArray());
+
+        assertEquals(0, restored.size());
+        assertFalse(restored.canUndo());
+        assertFalse(restored.canRedo());
+    }
+
+    @Test
+    public void undoAndRedo_retraceTheBoardStates() {
+        PuzzleBoard board = new PuzzleBoard(5, 7L);
+        board.setMoveLog(new MoveLog());
+        Random random = new Random(7L);
+        List<int[]> states = new ArrayList<>();
+        states.add(board.getTiles());
+        while (states.size() < 200) {
+            int empty = board.getEmptyIndex();
+            boolean alongRow = random.nextBoolean();
+            int row = alongRow ? empty / 5 : random.nextInt(5);
+            int col = alongRow ? random.nextInt(5) : empty % 5;
+            if (board.moveTiles(row, col)) {
+                states.add(board.getTiles());
+            }
+        }
+
+        // A board restored from the serialized log undoes the same way
+        PuzzleBoard restored = PuzzleBoardTest.freshCopy(board);
+        restored.setMoveLog(MoveLog.fromByteArray(board.getMoveLog().toByteArray()));
+        for (int i = states.size() - 2; i >= 0; i--) {
+            assertTrue(board.undoMove());
+            assertTrue(restored.undoMove());
+
+            assertArrayEquals("Undo to state " + i, states.get(i), board.getTiles());
+            assertArrayEquals("Undo to state " + i, states.get(i), restored.getTiles());
+        }
+        assertFalse(board.undoMove());
+        for (int i = 1; i < states.size(); i++) {
+            assertTrue(board.redoMove());
+
+            assertArrayEquals("Redo to state " + i, states.get(i), board.getTiles());
+        }
+        assertFalse(board.redoMove());
+    }
+
+    @Test
+    public void newMove_discardsTheRedoTail() {
+        MoveLog log = new MoveLog();
+        log.record(MoveLog.LEFT, 1);
+        log.record(MoveLog.UP, 3);
+        log.undo();
+        log.record(MoveLog.DOWN, 1);
+
+        assertFalse(log.canRedo());
+        assertEquals(2, log.size());
+        int move = log.undo();
+        assertEquals(MoveLog.DOWN, MoveLog.directionOf(move));
+        assertEquals(1, MoveLog.lengthOf(move));
+    }
+
+    @Test
+    public void corruptBytes_areRejected() {
+        MoveLog log = new MoveLog();
+        log.record(MoveLog.RIGHT, 4);
+        byte[] bytes = log.toByteArray();
+        byte[][] corrupt = {
+                new byte[3],
+                Arrays.copyOf(bytes, bytes.length - 1),
+                Arrays.copyOf(bytes, bytes.length + 1),
+        };
+        for (byte[] data : corrupt) {
+            try {
+                MoveLog.fromByteArray(data);
+                fail("Accepted " + Arrays.toString(data));
+            } catch (IllegalArgumentException expected) {
+                // Rejected as it should be
+            }
+        }
+    }
+}
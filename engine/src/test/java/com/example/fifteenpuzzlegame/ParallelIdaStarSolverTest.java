@@ -0,0 +1,86 @@
+package com.example.fifteenpuzzlegame;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ParallelIdaStarSolver}.
+ */
+public class ParallelIdaStarSolverTest {
+
+    private static final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void shutDownPool() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void solutions_areAsShortAsSerialSolutions() {
+        ParallelIdaStarSolver parallel = new ParallelIdaStarSolver(3, new LinearConflictHeuristic(3), pool, false);
+        IdaStarSolver serial = new IdaStarSolver(3);
+        for (long seed = 1; seed <= 20; seed++) {
+            PuzzleBoard board = new PuzzleBoard(3, seed);
+            Solution solution = parallel.solve(board);
+
+            assertEquals("Seed " + seed, serial.solve(board).length(), solution.length());
+            assertTrue("Solution does not solve seed " + seed, TestBoards.solves(board, solution));
+        }
+    }
+
+    @Test
+    public void solutions_areOptimalOn4x4() {
+        ParallelIdaStarSolver parallel = new ParallelIdaStarSolver(4, new LinearConflictHeuristic(4), pool, false);
+        IdaStarSolver serial = new IdaStarSolver(4);
+        for (long seed = 1; seed <= 5; seed++) {
+            PuzzleBoard board = TestBoards.scrambled(4, 4, seed, 40);
+            Solution solution = parallel.solve(board);
+
+            assertEquals("Seed " + seed, serial.solve(board).length(), solution.length());
+            assertTrue("Solution does not solve seed " + seed, TestBoards.solves(board, solution));
+        }
+    }
+
+    @Test
+    public void deterministicMode_repeatsTheSameSolution() {
+        ParallelIdaStarSolver solver = new ParallelIdaStarSolver(4, new LinearConflictHeuristic(4), pool, true);
+        for (long seed = 1; seed <= 3; seed++) {
+            int[] tiles = TestBoards.scrambled(4, 4, seed, 40).getTiles();
+            int[] first = solver.solve(tiles).getMoves();
+            for (int run = 0; run < 5; run++) {
+                assertArrayEquals("Seed " + seed + ", run " + run, first, solver.solve(tiles).getMoves());
+            }
+        }
+    }
+
+    @Test
+    public void solvedBoard_needsNoMoves() {
+        ParallelIdaStarSolver solver = new ParallelIdaStarSolver(3, new LinearConflictHeuristic(3), pool, true);
+
+        assertEquals(0, solver.solve(TestBoards.solved(3, 3)).length());
+    }
+
+    @Test
+    public void cancellation_isHonouredBeforeTheSubtreesRun() {
+        ParallelIdaStarSolver solver = new ParallelIdaStarSolver(4, new LinearConflictHeuristic(4), pool, false);
+        AtomicInteger polls = new AtomicInteger();
+        try {
+            solver.solve(new PuzzleBoard(4, 1L).getTiles(), () -> polls.incrementAndGet() > 0);
+            fail("Search was not cancelled");
+        } catch (CancellationException expected) {
+            // The shallow expansion polls first and stops at once
+            assertEquals(1, polls.get());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsolvableBoard_isRejected() {
+        new ParallelIdaStarSolver(3, new LinearConflictHeuristic(3), pool, false).solve(new int[]{2, 1, 3, 4, 5, 6, 7, 8, 0});
+    }
+}
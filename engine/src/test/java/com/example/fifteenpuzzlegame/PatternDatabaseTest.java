@@ -0,0 +1,117 @@
+package com.example.fifteenpuzzlegame;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link PatternDatabase} on a small 3x3 database built for the test.
+ */
+public class PatternDatabaseTest {
+
+    private static final int[][] PARTITION_3X3 = {{1, 2, 3, 4}, {5, 6, 7, 8}};
+
+    @ClassRule
+    public static final TemporaryFolder folder = new TemporaryFolder();
+
+    private static File file;
+    private static byte[] image;
+
+    @BeforeClass
+    public static void buildDatabase() throws IOException {
+        file = new File(folder.getRoot(), "pattern_db_3.bin");
+        PatternDatabaseBuilder.build(3, PARTITION_3X3, file);
+        image = Files.readAllBytes(file.toPath());
+    }
+
+    @Test
+    public void solutions_matchLinearConflictSolutions() throws IOException {
+        IdaStarSolver withDatabase = new IdaStarSolver(3, PatternDatabase.open(file));
+        IdaStarSolver withLinearConflict = new IdaStarSolver(3);
+        for (long seed = 1; seed <= 30; seed++) {
+            int[] tiles = new PuzzleBoard(3, seed).getTiles();
+
+            assertEquals("Seed " + seed, withLinearConflict.solve(tiles).length(), withDatabase.solve(tiles).length());
+        }
+    }
+
+    @Test
+    public void delta_matchesDifferenceOfEstimates() {
+        PatternDatabase database = PatternDatabase.wrap(ByteBuffer.wrap(image));
+        int[] tiles = new PuzzleBoard(3, 5L).getTiles();
+        int blank = SearchWorker.indexOfBlank(tiles);
+        for (int from : BoardLayout.of(3).neighbors(blank)) {
+            int before = database.estimate(tiles);
+            int[] after = tiles.clone();
+            int tile = after[from];
+            after[blank] = tile;
+            after[from] = 0;
+
+            assertEquals(database.estimate(after) - before, database.delta(after, tile, from, blank));
+        }
+    }
+
+    @Test
+    public void solvedBoard_estimatesZero() {
+        assertEquals(0, PatternDatabase.wrap(ByteBuffer.wrap(image)).estimate(TestBoards.solvedTiles(3, 3)));
+    }
+
+    @Test
+    public void rank_isInvertedByUnrank() {
+        int tileCount = 3;
+        int cellCount = 9;
+        for (long index = 0; index < PatternDatabase.entryCount(cellCount, tileCount); index++) {
+            long positions = PatternDatabase.unrank(index, tileCount, cellCount);
+
+            assertEquals(index, PatternDatabase.rank(positions, tileCount, cellCount));
+        }
+    }
+
+    @Test
+    public void find_opensDatabaseOfMatchingSize() {
+        assertNotNull(PatternDatabase.find(folder.getRoot(), 3));
+        assertNull(PatternDatabase.find(folder.getRoot(), 4));
+        assertNull(PatternDatabase.find(null, 3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tileOutOfRange_isRejected() {
+        byte[] corrupt = image.clone();
+        // The first tile of the first pattern follows the 16-byte header and the tile count
+        ByteBuffer.wrap(corrupt).putInt(20, 99);
+
+        PatternDatabase.wrap(ByteBuffer.wrap(corrupt));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void repeatedTile_isRejected() {
+        byte[] corrupt = image.clone();
+        ByteBuffer.wrap(corrupt).putInt(24, 1);
+
+        PatternDatabase.wrap(ByteBuffer.wrap(corrupt));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void truncatedHeader_isRejected() {
+        PatternDatabase.wrap(ByteBuffer.wrap(Arrays.copyOf(image, 30)));
+    }
+
+    @Test
+    public void find_ignoresCorruptFile() throws IOException {
+        File directory = folder.newFolder();
+        byte[] corrupt = image.clone();
+        ByteBuffer.wrap(corrupt).putInt(20, -7);
+        Files.write(new File(directory, "pattern_db_3.bin").toPath(), corrupt);
+
+        assertNull(PatternDatabase.find(directory, 3));
+    }
+}
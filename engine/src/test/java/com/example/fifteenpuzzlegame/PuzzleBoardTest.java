@@ -0,0 +1,107 @@
+package com.example.fifteenpuzzlegame;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the incrementally maintained state of {@link PuzzleBoard}.
+ */
+public class PuzzleBoardTest {
+
+    private static final int[][] SIZES = {{3, 3}, {4, 4}, {5, 5}, {3, 7}, {6, 2}, {16, 16}};
+
+    @Test
+    public void zobristHash_matchesFreshBoardAfterEveryMove() {
+        for (int[] size : SIZES) {
+            PuzzleBoard board = new PuzzleBoard(size[0], size[1], 3L);
+            board.setMoveLog(new MoveLog());
+            Random random = new Random(3L);
+            for (int step = 0; step < 500; step++) {
+                playRandomStep(board, random);
+
+                assertEquals(size[0] + "x" + size[1] + " step " + step, freshCopy(board).getZobristHash(), board.getZobristHash());
+            }
+        }
+    }
+
+    @Test
+    public void zobristHash_isTheHashOfTheTiles() {
+        PuzzleBoard board = new PuzzleBoard(4, 4, 9L);
+
+        assertEquals(ZobristKeys.of(4, 4).hash(board.getTiles()), board.getZobristHash());
+    }
+
+    @Test
+    public void equalBoards_haveEqualHashes() {
+        PuzzleBoard board = new PuzzleBoard(4, 11L);
+        PuzzleBoard copy = freshCopy(board);
+
+        assertEquals(board, copy);
+        assertEquals(board.hashCode(), copy.hashCode());
+        board.moveTiles(board.getEmptyIndex() / 4, (board.getEmptyIndex() % 4 + 1) % 4);
+        assertNotEquals(copy.getZobristHash(), board.getZobristHash());
+    }
+
+    @Test
+    public void tilesInPlace_matchesFreshBoardAfterEveryMove() {
+        for (int[] size : SIZES) {
+            PuzzleBoard board = new PuzzleBoard(size[0], size[1], 5L);
+            board.setMoveLog(new MoveLog());
+            Random random = new Random(5L);
+            for (int step = 0; step < 500; step++) {
+                playRandomStep(board, random);
+                PuzzleBoard fresh = freshCopy(board);
+
+                assertEquals(size[0] + "x" + size[1] + " step " + step, countTilesInPlace(board.getTiles()), board.getTilesInPlace());
+                assertEquals(fresh.getTilesInPlace(), board.getTilesInPlace());
+                assertEquals(fresh.isSolved(), board.isSolved());
+            }
+        }
+    }
+
+    @Test
+    public void solvedBoard_hasEveryTileInPlace() {
+        PuzzleBoard board = TestBoards.solved(4, 5);
+
+        assertTrue(board.isSolved());
+        assertEquals(19, board.getTilesInPlace());
+        board.moveTiles(3, 0);
+        assertFalse(board.isSolved());
+        assertEquals(15, board.getTilesInPlace());
+    }
+
+    /**
+     * Taps a random cell in the row or column of the empty cell, or undoes or redoes a move.
+     */
+    static void playRandomStep(PuzzleBoard board, Random random) {
+        int choice = random.nextInt(10);
+        if (choice == 0) {
+            board.undoMove();
+        } else if (choice == 1) {
+            board.redoMove();
+        } else {
+            int empty = board.getEmptyIndex();
+            boolean alongRow = random.nextBoolean();
+            int row = alongRow ? empty / board.getColumns() : random.nextInt(board.getRows());
+            int col = alongRow ? random.nextInt(board.getColumns()) : empty % board.getColumns();
+            board.moveTiles(row, col);
+        }
+    }
+
+    private static int countTilesInPlace(int[] tiles) {
+        int count = 0;
+        for (int i = 0; i < tiles.length - 1; i++) {
+            if (tiles[i] == i + 1) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static PuzzleBoard freshCopy(PuzzleBoard board) {
+        return new PuzzleBoard(board.getRows(), board.getColumns(), board.getTiles());
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.fifteenpuzzlegame;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link PuzzleGenerator}.
+ */
+public class PuzzleGeneratorTest {
+
+    private final ExecutorService singleThread = Executors.newSingleThreadExecutor();
+    private final ExecutorService fourThreads = Executors.newFixedThreadPool(4);
+
+    @After
+    public void shutDown() {
+        singleThread.shutdownNow();
+        fourThreads.shutdownNow();
+    }
+
+    @Test
+    public void output_isTheSameOnAnyThreadCount() throws IOException, InterruptedException {
+        StringWriter sequential = new StringWriter();
+        StringWriter parallel = new StringWriter();
+
+        assertEquals(40, optimalGenerator(12, 20).generate(40, singleThread, sequential));
+        assertEquals(40, optimalGenerator(12, 20).generate(40, fourThreads, parallel));
+        assertEquals(sequential.toString(), parallel.toString());
+        assertEquals(40, sequential.toString().split("\n").length);
+    }
+
+    @Test
+    public void optimalLengths_fallInTheBandAndMatchTheSolver() throws IOException, InterruptedException {
+        List<PuzzleGenerator.RatedPuzzle> puzzles = new ArrayList<>();
+        optimalGenerator(18, 22).generate(30, fourThreads, puzzles::add);
+        IdaStarSolver solver = new IdaStarSolver(3);
+
+        assertEquals(30, puzzles.size());
+        for (PuzzleGenerator.RatedPuzzle puzzle : puzzles) {
+            int[] tiles = puzzle.getTiles();
+
+            assertEquals(3, puzzle.getGridSize());
+            assertTrue(puzzle.getDifficulty() >= 18 && puzzle.getDifficulty() <= 22);
+            assertEquals(solver.solve(new PuzzleBoard(3, tiles)).length(), puzzle.getDifficulty());
+        }
+    }
+
+    @Test
+    public void heuristicEstimates_fallInTheBand() throws IOException, InterruptedException {
+        LinearConflictHeuristic heuristic = new LinearConflictHeuristic(5);
+        List<PuzzleGenerator.RatedPuzzle> puzzles = new ArrayList<>();
+        new PuzzleGenerator(5, heuristic, PuzzleGenerator.Measure.HEURISTIC_ESTIMATE, 40, 50, 3L)
+                .generate(30, fourThreads, puzzles::add);
+
+        assertEquals(30, puzzles.size());
+        for (PuzzleGenerator.RatedPuzzle puzzle : puzzles) {
+            int[] tiles = puzzle.getTiles();
+
+            assertTrue(Solvability.isSolvable(tiles, 5));
+            assertEquals(heuristic.estimate(tiles), puzzle.getDifficulty());
+            assertTrue(puzzle.getDifficulty() >= 40 && puzzle.getDifficulty() <= 50);
+        }
+    }
+
+    @Test
+    public void unreachableBand_stopsAfterTheAttemptLimit() throws IOException, InterruptedException {
+        AtomicInteger rated = new AtomicInteger();
+        LinearConflictHeuristic linearConflict = new LinearConflictHeuristic(3);
+        Heuristic counting = new Heuristic() {
+            @Override
+            public int estimate(int[] tiles) {
+                rated.incrementAndGet();
+                return linearConflict.estimate(tiles);
+            }
+
+            @Override
+            public int delta(int[] tiles, int tile, int from, int to) {
+                return linearConflict.delta(tiles, tile, from, to);
+            }
+        };
+        // No 3x3 board is estimated to be that far from solved
+        PuzzleGenerator generator = new PuzzleGenerator(3, counting, PuzzleGenerator.Measure.HEURISTIC_ESTIMATE,
+                100, 120, 1L);
+
+        assertEquals(0, generator.generate(2, fourThreads, puzzle -> fail("Accepted a puzzle outside the band")));
+        assertTrue(rated.get() >= 2 * PuzzleGenerator.MAX_ATTEMPTS_PER_PUZZLE);
+        assertTrue(rated.get() < 2 * PuzzleGenerator.MAX_ATTEMPTS_PER_PUZZLE + 1000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyBand_isRejected() {
+        optimalGenerator(20, 19);
+    }
+
+    private static PuzzleGenerator optimalGenerator(int minDifficulty, int maxDifficulty) {
+        return new PuzzleGenerator(3, new LinearConflictHeuristic(3), PuzzleGenerator.Measure.OPTIMAL_LENGTH,
+                minDifficulty, maxDifficulty, 42L);
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.fifteenpuzzlegame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link ReplayEngine}.
+ */
+public class ReplayEngineTest {
+
+    private static final int ROWS = 4;
+    private static final int COLUMNS = 5;
+
+    private GameRecording recording;
+    /** The tiles after each number of moves, from 0 to the recording's length. */
+    private final List<int[]> states = new ArrayList<>();
+
+    @Before
+    public void recordGame() {
+        PuzzleBoard board = new PuzzleBoard(ROWS, COLUMNS, 3L);
+        recording = new GameRecording(ROWS, COLUMNS, board.getTiles());
+        states.add(board.getTiles());
+        Random random = new Random(3L);
+        long time = 0;
+        // Several checkpoints, with single-tile moves and line slides
+        while (recording.size() < 5 * ReplayEngine.CHECKPOINT_INTERVAL + 7) {
+            int empty = board.getEmptyIndex();
+            boolean alongRow = random.nextBoolean();
+            int row = alongRow ? empty / COLUMNS : random.nextInt(ROWS);
+            int col = alongRow ? random.nextInt(COLUMNS) : empty % COLUMNS;
+            if (board.moveTiles(row, col)) {
+                time += 100 + random.nextInt(900);
+                recording.record(row * COLUMNS + col, time);
+                states.add(board.getTiles());
+            }
+        }
+    }
+
+    @Test
+    public void seek_matchesTheRecordedStates() {
+        ReplayEngine engine = new ReplayEngine(recording);
+        Random random = new Random(5L);
+        for (int i = 0; i < 500; i++) {
+            int target = random.nextInt(recording.size() + 1);
+            engine.seek(target);
+
+            assertEquals(target, engine.getPosition());
+            assertArrayEquals("Position " + target, states.get(target), engine.getBoard().getTiles());
+        }
+    }
+
+    @Test
+    public void stepping_matchesTheRecordedStates() {
+        ReplayEngine engine = new ReplayEngine(recording);
+        for (int target = 1; target <= recording.size(); target++) {
+            assertTrue(engine.seek(target) <= 1);
+            assertArrayEquals(states.get(target), engine.getBoard().getTiles());
+        }
+        for (int target = recording.size() - 1; target >= 0; target--) {
+            assertTrue(engine.seek(target) <= 1);
+            assertArrayEquals(states.get(target), engine.getBoard().getTiles());
+        }
+    }
+
+    @Test
+    public void jumps_costLessThanACheckpointInterval() {
+        ReplayEngine engine = new ReplayEngine(recording);
+
+        assertTrue(engine.seek(recording.size()) < ReplayEngine.CHECKPOINT_INTERVAL);
+        assertTrue(engine.seek(ReplayEngine.CHECKPOINT_INTERVAL + 3) < ReplayEngine.CHECKPOINT_INTERVAL);
+        assertTrue(engine.seek(0) < ReplayEngine.CHECKPOINT_INTERVAL);
+        assertArrayEquals(states.get(0), engine.getBoard().getTiles());
+    }
+
+    @Test
+    public void seek_clampsToTheReplay() {
+        ReplayEngine engine = new ReplayEngine(recording);
+
+        engine.seek(recording.size() + 10);
+        assertEquals(recording.size(), engine.getPosition());
+        assertArrayEquals(states.get(recording.size()), engine.getBoard().getTiles());
+        engine.seek(-5);
+        assertEquals(0, engine.getPosition());
+    }
+
+    @Test
+    public void seekToTime_showsTheMovesMadeByThen() {
+        ReplayEngine engine = new ReplayEngine(recording);
+        for (int i = 0; i < recording.size(); i++) {
+            engine.seekToTime(recording.getTime(i));
+
+            assertEquals(i + 1, engine.getPosition());
+            assertArrayEquals(states.get(i + 1), engine.getBoard().getTiles());
+        }
+        engine.seekToTime(recording.getTime(0) - 1);
+        assertEquals(0, engine.getPosition());
+    }
+
+    @Test
+    public void serializedRecording_replaysTheSame() {
+        GameRecording restored = GameRecording.fromByteArray(recording.toByteArray());
+        ReplayEngine engine = new ReplayEngine(restored);
+
+        assertEquals(recording.size(), restored.size());
+        assertEquals(recording.getDuration(), restored.getDuration());
+        engine.seek(recording.size());
+        assertArrayEquals(states.get(recording.size()), engine.getBoard().getTiles());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void illegalMove_isRejected() {
+        GameRecording illegal = new GameRecording(ROWS, COLUMNS, TestBoards.solvedTiles(ROWS, COLUMNS));
+        // The empty cell is in the bottom-right corner, which the top-left tile is not in line with
+        illegal.record(0, 100);
+        new ReplayEngine(illegal);
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.fifteenpuzzlegame;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for {@link BinaryStateCodec}, {@link JsonStateCodec} and {@link StateCodecs}.
+ */
+public class StateCodecsTest {
+
+    private static final int[][] SIZES = {{2, 2}, {3, 3}, {4, 4}, {3, 7}, {5, 5}, {16, 16}};
+    private static final StateCodec[] CODECS = {StateCodecs.BINARY, StateCodecs.JSON};
+
+    @Test
+    public void snapshots_roundTripThroughBothCodecs() {
+        for (int[] size : SIZES) {
+            for (boolean withLog : new boolean[]{false, true}) {
+                GameSnapshot snapshot = playedGame(size[0], size[1], withLog);
+                for (StateCodec codec : CODECS) {
+                    byte[] encoded = codec.encode(snapshot);
+
+                    assertSameSnapshot(size[0] + "x" + size[1], snapshot, codec.decode(encoded));
+                    assertSame(codec, StateCodecs.forBytes(encoded));
+                    assertSameSnapshot(size[0] + "x" + size[1], snapshot, StateCodecs.decode(encoded));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void extremeCountsAndOffsets_roundTrip() {
+        GameSnapshot snapshot = new GameSnapshot(3, 3, TestBoards.solvedTiles(3, 3), null, Integer.MAX_VALUE,
+                Long.MIN_VALUE, false, true);
+        for (StateCodec codec : CODECS) {
+            assertSameSnapshot(codec.getClass().getSimpleName(), snapshot, codec.decode(codec.encode(snapshot)));
+        }
+    }
+
+    @Test
+    public void binary_keepsA4x4GameSmall() {
+        GameSnapshot snapshot = playedGame(4, 4, false);
+
+        assertTrue(StateCodecs.BINARY.encode(snapshot).length <= 20);
+    }
+
+    @Test
+    public void json_readsBoardsSavedWithGson() {
+        String json = "{\"gridSize\":3,\"tiles\":[[1,2,3],[4,5,6],[7,0,8]],\"emptyRow\":2,\"emptyCol\":1,"
+                + "\"isGameFinished\":false}";
+
+        GameSnapshot snapshot = StateCodecs.decode(json.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(3, snapshot.getRows());
+        assertEquals(3, snapshot.getColumns());
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6, 7, 0, 8}, snapshot.getTiles());
+        assertEquals(0, snapshot.getMoveLog().size());
+        assertFalse(snapshot.isGameFinished());
+    }
+
+    @Test
+    public void gsonBoardsOfEveryMenuSize_migrateToTheBinaryCodec() {
+        for (int gridSize = 3; gridSize <= 5; gridSize++) {
+            for (boolean finished : new boolean[]{false, true}) {
+                int[] tiles = finished ? TestBoards.solvedTiles(gridSize, gridSize)
+                        : new PuzzleBoard(gridSize, gridSize * 7L).getTiles();
+                byte[] json = gsonBoard(gridSize, tiles, finished).getBytes(StandardCharsets.UTF_8);
+
+                GameSnapshot migrated = StateCodecs.decode(json);
+
+                assertSame(StateCodecs.JSON, StateCodecs.forBytes(json));
+                assertEquals(gridSize, migrated.getRows());
+                assertEquals(gridSize, migrated.getColumns());
+                assertArrayEquals(tiles, migrated.getTiles());
+                assertEquals(finished, migrated.isGameFinished());
+                assertSameSnapshot(gridSize + "x" + gridSize, migrated,
+                        StateCodecs.BINARY.decode(StateCodecs.BINARY.encode(migrated)));
+            }
+        }
+    }
+
+    @Test
+    public void json_skipsUnknownKeys() {
+        String json = "{\"version\":1,\"rows\":2,\"columns\":2,\"note\":{\"a\":[1,\"x\",null]},\"tiles\":[1,2,0,3],"
+                + "\"moveCount\":4,\"pauseOffset\":10,\"isPaused\":true,\"isGameFinished\":false}";
+
+        GameSnapshot snapshot = StateCodecs.JSON.fromJson(json);
+
+        assertArrayEquals(new int[]{1, 2, 0, 3}, snapshot.getTiles());
+        assertEquals(4, snapshot.getMoveCount());
+        assertTrue(snapshot.isPaused());
+    }
+
+    @Test
+    public void corruptJson_isRejected() {
+        String[] corrupt = {
+                "",
+                "{\"gridSize\":3,\"tiles\":[[1,2,3],[4,5,6],[7,0]]}",
+                "{\"gridSize\":3,\"tiles\":[[1,2,3],[4,5,6],[7,7,0]]}",
+                "{\"gridSize\":3,\"tiles\":[1,2,3,4,5,6,7,0,8]} x",
+                "{\"version\":2,\"rows\":2,\"columns\":2,\"tiles\":[1,2,3,0]}",
+                "{\"version\":1,\"rows\":2,\"columns\":2,\"tiles\":[1,2,3,0],\"moveLog\":\"0g\"}",
+                "{\"gridSize\":3,\"tiles\":[[[1]]]}",
+        };
+        for (String json : corrupt) {
+            try {
+                StateCodecs.JSON.fromJson(json);
+                fail("Accepted " + json);
+            } catch (IllegalArgumentException expected) {
+                // Rejected as it should be
+            }
+        }
+    }
+
+    @Test
+    public void corruptBinary_isRejected() {
+        byte[] encoded = StateCodecs.BINARY.encode(playedGame(4, 4, true));
+        for (int length = 0; length < encoded.length; length++) {
+            assertRejected(Arrays.copyOf(encoded, length));
+        }
+        assertRejected(Arrays.copyOf(encoded, encoded.length + 1));
+        byte[] futureVersion = encoded.clone();
+        futureVersion[1]++;
+        assertRejected(futureVersion);
+        byte[] offBoard = encoded.clone();
+        offBoard[4] = 16;
+        assertRejected(offBoard);
+    }
+
+    @Test
+    public void negativeMoveLogLength_isRejected() {
+        GameSnapshot snapshot = playedGame(4, 4, true);
+        byte[] encoded = StateCodecs.BINARY.encode(snapshot);
+        int logLength = snapshot.getMoveLogBytes().length;
+        int varintLength = 1;
+        for (int rest = logLength >>> 7; rest != 0; rest >>>= 7) {
+            varintLength++;
+        }
+        int prefix = encoded.length - logLength - varintLength;
+        // The ten-byte varint of -1 in place of the log's length
+        byte[] negative = Arrays.copyOf(encoded, prefix + 10 + logLength);
+        Arrays.fill(negative, prefix, prefix + 9, (byte) 0xFF);
+        negative[prefix + 9] = 1;
+        System.arraycopy(encoded, prefix + varintLength, negative, prefix + 10, logLength);
+
+        assertRejected(negative);
+    }
+
+    private static void assertRejected(byte[] bytes) {
+        try {
+            StateCodecs.BINARY.decode(bytes);
+            fail("Accepted " + Arrays.toString(bytes));
+        } catch (IllegalArgumentException expected) {
+            // Rejected as it should be
+        }
+    }
+
+    /**
+     * Plays a reproducible game of moves, undos and redos, and snapshots it with or without its log.
+     */
+    private static GameSnapshot playedGame(int rows, int columns, boolean withLog) {
+        PuzzleBoard board = new PuzzleBoard(rows, columns, rows * 31L + columns);
+        board.setMoveLog(new MoveLog());
+        Random random = new Random(rows * 31L + columns);
+        for (int step = 0; step < 200; step++) {
+            PuzzleBoardTest.playRandomStep(board, random);
+        }
+        if (!withLog) {
+            board.setMoveLog(null);
+        }
+        return GameSnapshot.of(board, 200, 83_500L, true);
+    }
+
+    /**
+     * Writes a board the way Gson serialized the original {@code PuzzleGame}: a nested tile grid
+     * with the empty cell's row and column.
+     */
+    private static String gsonBoard(int gridSize, int[] tiles, boolean finished) {
+        StringBuilder json = new StringBuilder("{\"gridSize\":").append(gridSize).append(",\"tiles\":[");
+        int empty = 0;
+        for (int row = 0; row < gridSize; row++) {
+            json.append(row == 0 ? "[" : ",[");
+            for (int col = 0; col < gridSize; col++) {
+                int index = row * gridSize + col;
+                json.append(col == 0 ? "" : ",").append(tiles[index]);
+                if (tiles[index] == 0) {
+                    empty = index;
+                }
+            }
+            json.append(']');
+        }
+        return json.append("],\"emptyRow\":").append(empty / gridSize)
+                .append(",\"emptyCol\":").append(empty % gridSize)
+                .append(",\"isGameFinished\":").append(finished).append('}').toString();
+    }
+
+    private static void assertSameSnapshot(String message, GameSnapshot expected, GameSnapshot actual) {
+        assertEquals(message, expected.getRows(), actual.getRows());
+        assertEquals(message, expected.getColumns(), actual.getColumns());
+        assertArrayEquals(message, expected.getTiles(), actual.getTiles());
+        assertArrayEquals(message, expected.getMoveLogBytes(), actual.getMoveLogBytes());
+        assertEquals(message, expected.getMoveCount(), actual.getMoveCount());
+        assertEquals(message, expected.getPauseOffset(), actual.getPauseOffset());
+        assertEquals(message, expected.isPaused(), actual.isPaused());
+        assertEquals(message, expected.isGameFinished(), actual.isGameFinished());
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.fifteenpuzzlegame;
+
+import java.util.Random;
+
+/**
+ * Boards and checks shared by the engine tests.
+ */
+final class TestBoards {
+
+    private TestBoards() {
+    }
+
+    /**
+     * Returns the tiles of a solved board.
+     */
+    static int[] solvedTiles(int rows, int columns) {
+        int[] tiles = new int[rows * columns];
+        for (int i = 0; i < tiles.length - 1; i++) {
+            tiles[i] = i + 1;
+        }
+        return tiles;
+    }
+
+    /**
+     * Returns a solved board.
+     */
+    static PuzzleBoard solved(int rows, int columns) {
+        return new PuzzleBoard(rows, columns, solvedTiles(rows, columns));
+    }
+
+    /**
+     * Makes a board a given number of random single-tile moves from the goal, so that even large
+     * boards solve quickly.
+     */
+    static PuzzleBoard scrambled(int rows, int columns, long seed, int moves) {
+        PuzzleBoard board = solved(rows, columns);
+        Random random = new Random(seed);
+        int made = 0;
+        while (made < moves) {
+            int cell = random.nextInt(rows * columns);
+            int empty = board.getEmptyIndex();
+            boolean isAdjacent = Math.abs(cell / columns - empty / columns) + Math.abs(cell % columns - empty % columns) == 1;
+            if (isAdjacent && board.moveTiles(cell / columns, cell % columns)) {
+                made++;
+            }
+        }
+        return board;
+    }
+
+    /**
+     * Plays a solution on a copy of the board and reports whether it ends solved.
+     */
+    static boolean solves(PuzzleBoard board, Solution solution) {
+        PuzzleBoard copy = new PuzzleBoard(board.getRows(), board.getColumns(), board.getTiles());
+        for (int move : solution.getMoves()) {
+            if (!copy.moveTiles(move / copy.getColumns(), move % copy.getColumns())) {
+                return false;
+            }
+        }
+        return copy.isSolved();
+    }
+}
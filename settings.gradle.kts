@@ -21,4 +21,7 @@ dependencyResolutionManagement {
 
 rootProject.name = "FifteenPuzzleGame"
 include(":app")
+include(":engine")
+include(":benchmark")
+include(":cli")
  
\ No newline at end of file